@@ -0,0 +1,89 @@
+package com.threadspire.benchmarks;
+
+import com.threadspire.intern.security.CustomUserDetailsService;
+import com.threadspire.intern.security.JwtAuthenticationFilter;
+import com.threadspire.intern.security.JwtTokenProvider;
+import com.threadspire.intern.security.PrincipalCache;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request authentication overhead. {@code legacy} replays the original filter
+ * (a fresh parser per call, two full parses, and a user lookup per request);
+ * {@code filter} runs the current {@link JwtAuthenticationFilter}. The simulated
+ * lookup latency shows how much of the old cost was the database round trip.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthFilterBenchmark {
+    private static final String EMAIL = "bench@threadspire.dev";
+
+    @Param({"0", "250"})
+    public long lookupLatencyMicros;
+
+    private CustomUserDetailsService userDetailsService;
+    private JwtAuthenticationFilter filter;
+    private String token;
+    private final WebAuthenticationDetailsSource detailsSource = new WebAuthenticationDetailsSource();
+
+    @Setup
+    public void setUp() {
+        JwtTokenProvider tokenProvider = BenchmarkFixtures.tokenProvider();
+        userDetailsService = new CustomUserDetailsService(BenchmarkFixtures.userRepository(lookupLatencyMicros));
+        filter = new JwtAuthenticationFilter(tokenProvider, new PrincipalCache(userDetailsService, 10_000, 300));
+
+        UserDetails principal = User.withUsername(EMAIL).password("{noop}x").authorities("USER").build();
+        token = tokenProvider.generateToken(new UsernamePasswordAuthenticationToken(principal, null));
+    }
+
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public Authentication legacy() {
+        MockHttpServletRequest request = request();
+        try {
+            String header = request.getHeader("Authorization");
+            String jwt = header.substring(7);
+            Jwts.parser().setSigningKey(BenchmarkFixtures.JWT_SECRET).parseClaimsJws(jwt);
+            String email = Jwts.parser().setSigningKey(BenchmarkFixtures.JWT_SECRET).parseClaimsJws(jwt).getBody().getSubject();
+            UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+            UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
+                    userDetails, null, userDetails.getAuthorities());
+            auth.setDetails(detailsSource.buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(auth);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Benchmark
+    public Authentication filter() throws Exception {
+        try {
+            filter.doFilter(request(), new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/threads");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
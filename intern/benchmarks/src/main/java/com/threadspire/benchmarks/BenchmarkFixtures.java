@@ -0,0 +1,56 @@
+package com.threadspire.benchmarks;
+
+import com.threadspire.intern.models.User;
+import com.threadspire.intern.repositories.UserRepository;
+import com.threadspire.intern.security.JwtTokenProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hand-wired collaborators for benchmarks that don't need a Spring context.
+ */
+final class BenchmarkFixtures {
+    // 65 bytes, long enough for HS512
+    static final String JWT_SECRET = "dGhyZWFkc3BpcmUtYmVuY2htYXJrLXNlY3JldC10aHJlYWRzcGlyZS1iZW5jaG1hcmstc2VjcmV0LTAxMjM0NTY=";
+
+    private BenchmarkFixtures() {
+    }
+
+    static JwtTokenProvider tokenProvider() {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", JWT_SECRET);
+        ReflectionTestUtils.setField(provider, "jwtExpirationMs", 3_600_000);
+        ReflectionTestUtils.invokeMethod(provider, "init");
+        return provider;
+    }
+
+    /**
+     * A {@link UserRepository} whose {@code findByEmail} parks for the given time to
+     * stand in for a database round trip. Every other repository method is unsupported.
+     */
+    static UserRepository userRepository(long latencyMicros) {
+        return (UserRepository) Proxy.newProxyInstance(
+                UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findByEmail" -> {
+                        if (latencyMicros > 0) {
+                            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(latencyMicros));
+                        }
+                        User user = new User();
+                        user.setId(1L);
+                        user.setEmail((String) args[0]);
+                        user.setPassword("{noop}benchmark");
+                        yield Optional.of(user);
+                    }
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "StubUserRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
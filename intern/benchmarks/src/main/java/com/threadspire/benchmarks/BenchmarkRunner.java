@@ -0,0 +1,28 @@
+package com.threadspire.benchmarks;
+
+import org.openjdk.jmh.Main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entry point of {@code benchmarks.jar}. Same options as JMH's own main, except that
+ * results are written as JSON to {@code jmh-result-<version>.json} unless {@code -rf}
+ * or {@code -rff} is given, so each release leaves a file to diff the next one against.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+        if (!options.contains("-rf") && !options.contains("-rff")) {
+            String version = BenchmarkRunner.class.getPackage().getImplementationVersion();
+            options.addAll(List.of("-rf", "json", "-rff",
+                    "jmh-result-" + (version == null ? "dev" : version) + ".json"));
+        }
+        Main.main(options.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,59 @@
+package com.threadspire.benchmarks;
+
+import com.threadspire.intern.InternApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the real application against a throwaway embedded PostgreSQL, so
+ * benchmarks exercise the same SQL (upserts, sequences, batching) as production.
+ */
+final class EmbeddedApp implements AutoCloseable {
+    private final EmbeddedPostgres postgres;
+    private final ConfigurableApplicationContext context;
+
+    private EmbeddedApp(EmbeddedPostgres postgres, ConfigurableApplicationContext context) {
+        this.postgres = postgres;
+        this.context = context;
+    }
+
+    /**
+     * @param extraProperties {@code key=value} overrides applied on top of the defaults below
+     */
+    static EmbeddedApp start(String... extraProperties) throws IOException {
+        EmbeddedPostgres postgres = EmbeddedPostgres.start();
+        List<String> properties = new ArrayList<>(List.of(
+                "spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true",
+                "spring.datasource.username=postgres",
+                "spring.datasource.password=",
+                "spring.jpa.show-sql=false",
+                "server.port=0",
+                "logging.level.root=WARN"));
+        properties.addAll(List.of(extraProperties));
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(InternApplication.class)
+                .properties(properties.toArray(String[]::new))
+                .run();
+        return new EmbeddedApp(postgres, context);
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    int port() {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    @Override
+    public void close() throws IOException {
+        context.close();
+        postgres.close();
+    }
+}
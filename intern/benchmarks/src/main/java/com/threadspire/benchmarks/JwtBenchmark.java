@@ -0,0 +1,44 @@
+package com.threadspire.benchmarks;
+
+import com.threadspire.intern.security.JwtTokenProvider;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JwtTokenProvider} on its own: signing a token at login and verifying one
+ * on every authenticated request. {@link AuthFilterBenchmark} covers the filter
+ * around it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+    private JwtTokenProvider tokenProvider;
+    private Authentication authentication;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        tokenProvider = BenchmarkFixtures.tokenProvider();
+        authentication = new UsernamePasswordAuthenticationToken(
+                User.withUsername("bench@threadspire.dev").password("{noop}x").authorities("USER").build(), null);
+        token = tokenProvider.generateToken(authentication);
+    }
+
+    @Benchmark
+    public String generate() {
+        return tokenProvider.generateToken(authentication);
+    }
+
+    @Benchmark
+    public String validate() {
+        return tokenProvider.verifyAndGetSubject(token);
+    }
+}
@@ -0,0 +1,110 @@
+package com.threadspire.benchmarks;
+
+import com.threadspire.intern.dto.LineageNode;
+import com.threadspire.intern.dto.LineagePage;
+import com.threadspire.intern.services.LineageService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lineage queries on 10,000-thread fork trees of two shapes:
+ * <ul>
+ *     <li>{@code WIDE} – every thread forked directly from the root.</li>
+ *     <li>{@code DEEP} – a chain of 1,000 successive forks with nine leaf forks hanging
+ *     off each link, so the deepest thread has 1,000 ancestors.</li>
+ * </ul>
+ * The tree is built through {@link LineageService#recordFork}, the same statement
+ * {@code ForkService} runs, so setup also shows what maintenance costs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LineageBenchmark {
+    private static final int NODES = 10_000;
+    private static final int DEEP_LEAVES_PER_LINK = 9;
+
+    public enum Shape { WIDE, DEEP }
+
+    @Param({"WIDE", "DEEP"})
+    public Shape shape;
+
+    private EmbeddedApp app;
+    private LineageService lineageService;
+    private long rootId;
+    private long deepestId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        app = EmbeddedApp.start();
+        lineageService = app.bean(LineageService.class);
+        JdbcTemplate jdbc = app.bean(JdbcTemplate.class);
+
+        // Explicit ids well clear of anything the sequences hand out
+        rootId = 1_000_000L;
+        jdbc.update("""
+                INSERT INTO threads (id, title, published, fork_count, bookmark_count)
+                SELECT id, 'Thread ' || id, true, 0, 0 FROM generate_series(?::bigint, ?::bigint) AS id
+                """, rootId, rootId + NODES - 1);
+
+        long next = rootId + 1;
+        if (shape == Shape.WIDE) {
+            for (; next < rootId + NODES; next++) {
+                lineageService.recordFork(rootId, next);
+            }
+            deepestId = next - 1;
+        } else {
+            long link = rootId;
+            while (next < rootId + NODES) {
+                for (int leaf = 0; leaf < DEEP_LEAVES_PER_LINK && next < rootId + NODES; leaf++) {
+                    lineageService.recordFork(link, next++);
+                }
+                if (next < rootId + NODES) {
+                    lineageService.recordFork(link, next);
+                    link = next++;
+                }
+            }
+            deepestId = link;
+        }
+
+        jdbc.update("""
+                UPDATE threads t SET fork_count = c.children
+                FROM (SELECT ancestor_id, count(*) AS children FROM thread_lineage WHERE depth = 1 GROUP BY ancestor_id) c
+                WHERE t.id = c.ancestor_id
+                """);
+        jdbc.execute("ANALYZE thread_lineage");
+        jdbc.execute("ANALYZE threads");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        app.close();
+    }
+
+    @Benchmark
+    public List<LineageNode> ancestorsOfDeepest() {
+        return lineageService.ancestors(deepestId);
+    }
+
+    @Benchmark
+    public long countDescendantsOfRoot() {
+        return lineageService.countDescendants(rootId, null);
+    }
+
+    @Benchmark
+    public LineagePage firstDescendantPageOfRoot() {
+        return lineageService.descendants(rootId, null, null, 20);
+    }
+
+    @Benchmark
+    public Optional<LineageNode> mostForkedDescendantOfRoot() {
+        return lineageService.mostForkedDescendant(rootId);
+    }
+}
@@ -0,0 +1,272 @@
+package com.threadspire.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiFunction;
+
+/**
+ * End-to-end load driver. Boots the app on an embedded PostgreSQL, seeds users,
+ * multi-segment threads, tags, forks, reactions, bookmarks and collections, then
+ * drives a weighted read/write mix against every controller over HTTP and reports
+ * throughput and p50/p99/p99.9 latency per endpoint.
+ * <p>
+ * Requests are sent on a fixed schedule ({@code --rate} per second in total) and
+ * latency is measured from when a request was due, not when it was sent, so a
+ * stalled server shows up as queueing delay instead of silently lowering the
+ * offered load. Raise the rate until p99 breaks your budget to find capacity.
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.threadspire.benchmarks.LoadTest \
+ *     --rate=500 --clients=64 --warmup=30 --duration=120 --threads=5000
+ * </pre>
+ * Full percentile distributions are written to {@code --out} as {@code .hgrm} files.
+ * Admission control is off unless {@code --admission=true}, since per-user rate
+ * limits would otherwise turn most of the offered load into 429s.
+ */
+public final class LoadTest {
+    private final LoadTestData data;
+    private final HttpClient client;
+    private final String baseUrl;
+    private final ObjectMapper json = new ObjectMapper();
+    private final List<Operation> operations = new ArrayList<>();
+    private final int totalWeight;
+
+    private LoadTest(LoadTestData data, int port) {
+        this.data = data;
+        this.baseUrl = "http://localhost:" + port;
+        this.client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+        // Reads
+        add("GET /api/threads", 20, (r, u) -> get("/api/threads?published=true&limit=20"));
+        add("GET /api/threads/{id}", 25, (r, u) -> get("/api/threads/" + data.randomThread(r)));
+        add("GET /api/threads/browse", 5, (r, u) -> get("/api/threads/browse?tags="
+                + encode(LoadTestData.randomTag(r) + " OR " + LoadTestData.randomTag(r))));
+        add("GET /api/threads/search", 5, (r, u) -> get("/api/threads/search?q="
+                + encode(LoadTestData.sentence(r, 2))));
+        add("GET /api/threads/trending", 4, (r, u) -> get("/api/threads/trending?limit=20"));
+        add("GET /api/forks/{id}/ancestors", 2, (r, u) -> get("/api/forks/" + data.randomThread(r) + "/ancestors"));
+        add("GET /api/forks/{id}/descendants", 2, (r, u) -> get("/api/forks/" + data.randomThread(r) + "/descendants"));
+        add("GET /api/bookmarks", 3, (r, u) -> authed(u, get("/api/bookmarks?userId=" + data.userIds.get(u))));
+        add("GET /api/collections", 2, (r, u) -> authed(u, get("/api/collections?userId=" + data.userIds.get(u))));
+        add("GET /api/analytics/user/{id}", 2, (r, u) -> authed(u, get("/api/analytics/user/" + data.userIds.get(u))));
+        // Returns every reaction in the table; kept rare so it does not dominate the run
+        add("GET /api/reactions", 1, (r, u) -> authed(u, get("/api/reactions")));
+
+        // Writes
+        add("POST /api/threads", 5, (r, u) -> authed(u, post("/api/threads?userId=" + data.userIds.get(u),
+                data.newThread(r))));
+        add("POST /api/forks", 2, (r, u) -> authed(u, post("/api/forks?userId=" + data.userIds.get(u),
+                data.newFork(r))));
+        add("POST /api/reactions/add", 8, (r, u) -> {
+            LoadTestData.PendingReaction reaction = data.nextReaction(r);
+            return authed(reaction.userIndex(), post("/api/reactions/add?userId=" + reaction.userId(),
+                    reaction.request()));
+        });
+        add("POST /api/bookmarks", 3, (r, u) -> authed(u, HttpRequest.newBuilder(uri("/api/bookmarks?userId="
+                + data.userIds.get(u) + "&threadId=" + data.randomThread(r)))
+                .POST(HttpRequest.BodyPublishers.noBody())));
+        add("POST /api/collections", 1, (r, u) -> authed(u, post("/api/collections?userId=" + data.userIds.get(u),
+                Map.of("name", "load collection", "threadIds", List.of(data.randomThread(r), data.randomThread(r))))));
+
+        totalWeight = operations.stream().mapToInt(Operation::weight).sum();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int rate = Integer.parseInt(options.getOrDefault("rate", "200"));
+        int clients = Integer.parseInt(options.getOrDefault("clients", "64"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "20"));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration", "60"));
+        Path out = Path.of(options.getOrDefault("out", "load-results"));
+        int threads = Integer.parseInt(options.getOrDefault("threads", "2000"));
+        LoadTestData.Settings settings = new LoadTestData.Settings(
+                Integer.parseInt(options.getOrDefault("users", "500")),
+                threads,
+                Integer.parseInt(options.getOrDefault("forks", String.valueOf(threads / 5))),
+                Integer.parseInt(options.getOrDefault("reactions", String.valueOf(threads * 5))),
+                Integer.parseInt(options.getOrDefault("bookmarks", String.valueOf(threads * 2))),
+                Integer.parseInt(options.getOrDefault("collections", String.valueOf(threads / 10))));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        boolean admission = Boolean.parseBoolean(options.getOrDefault("admission", "false"));
+
+        try (EmbeddedApp app = EmbeddedApp.start("app.admission.enabled=" + admission)) {
+            long seedStart = System.nanoTime();
+            LoadTestData data = LoadTestData.seed(app, settings, new Random(seed));
+            System.out.printf("Seeded %s in %d s%n", settings, TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - seedStart));
+
+            LoadTest test = new LoadTest(data, app.port());
+            test.run(rate, clients, warmupSeconds, seed);
+            test.run(rate, clients, durationSeconds, seed + 1).print(System.out, durationSeconds, out);
+        }
+    }
+
+    private Results run(int rate, int clients, int seconds, long seed) throws InterruptedException {
+        Results results = new Results(operations);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) * clients / rate;
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+
+        List<java.lang.Thread> workers = new ArrayList<>(clients);
+        for (int c = 0; c < clients; c++) {
+            Random random = new Random(seed * 31 + c);
+            // Stagger the clients so the schedule is spread evenly across each interval
+            long first = start + intervalNanos * c / clients;
+            java.lang.Thread worker = new java.lang.Thread(() -> {
+                for (long due = first; due < end; due += intervalNanos) {
+                    long wait = due - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    Operation operation = pick(random);
+                    int status = send(operation, random);
+                    results.record(operation, status, System.nanoTime() - due);
+                }
+            }, "load-client-" + c);
+            worker.start();
+            workers.add(worker);
+        }
+        for (java.lang.Thread worker : workers) {
+            worker.join();
+        }
+        return results;
+    }
+
+    private Operation pick(Random random) {
+        int ticket = random.nextInt(totalWeight);
+        for (Operation operation : operations) {
+            ticket -= operation.weight();
+            if (ticket < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private int send(Operation operation, Random random) {
+        try {
+            HttpRequest request = operation.request().apply(random, data.randomUserIndex(random))
+                    .timeout(Duration.ofSeconds(30)).build();
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException | IllegalStateException e) {
+            return -1;
+        } catch (InterruptedException e) {
+            java.lang.Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    private void add(String name, int weight, BiFunction<Random, Integer, HttpRequest.Builder> request) {
+        operations.add(new Operation(name, weight, request));
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET();
+    }
+
+    private HttpRequest.Builder post(String path, Object body) {
+        try {
+            return HttpRequest.newBuilder(uri(path))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(json.writeValueAsBytes(body)));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HttpRequest.Builder authed(int userIndex, HttpRequest.Builder request) {
+        return request.header("Authorization", "Bearer " + data.tokens.get(userIndex));
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return options;
+    }
+
+    private record Operation(String name, int weight, BiFunction<Random, Integer, HttpRequest.Builder> request) {
+    }
+
+    private static final class Results {
+        private final Map<Operation, Recorder> latencies = new HashMap<>();
+        private final Map<Operation, LongAdder> errors = new HashMap<>();
+
+        Results(List<Operation> operations) {
+            for (Operation operation : operations) {
+                // Microseconds, 3 significant digits, resized as needed
+                latencies.put(operation, new Recorder(3));
+                errors.put(operation, new LongAdder());
+            }
+        }
+
+        void record(Operation operation, int status, long latencyNanos) {
+            latencies.get(operation).recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+            if (status < 200 || status >= 400) {
+                errors.get(operation).increment();
+            }
+        }
+
+        void print(PrintStream out, int seconds, Path directory) throws IOException {
+            Files.createDirectories(directory);
+            Histogram all = new Histogram(3);
+            out.printf("%n%-34s %9s %8s %9s %9s %9s %9s %9s%n",
+                    "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+            for (Map.Entry<Operation, Recorder> entry : latencies.entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey((a, b) -> a.name().compareTo(b.name()))).toList()) {
+                Histogram histogram = entry.getValue().getIntervalHistogram();
+                all.add(histogram);
+                row(out, entry.getKey().name(), histogram, errors.get(entry.getKey()).sum(), seconds);
+                String file = entry.getKey().name().replaceAll("[^A-Za-z0-9]+", "_") + ".hgrm";
+                try (PrintStream hgrm = new PrintStream(Files.newOutputStream(directory.resolve(file)))) {
+                    histogram.outputPercentileDistribution(hgrm, 1000.0);
+                }
+            }
+            row(out, "all", all, errors.values().stream().mapToLong(LongAdder::sum).sum(), seconds);
+            try (PrintStream hgrm = new PrintStream(Files.newOutputStream(directory.resolve("all.hgrm")))) {
+                all.outputPercentileDistribution(hgrm, 1000.0);
+            }
+            out.printf("%nPercentile distributions (ms) written to %s%n", directory.toAbsolutePath());
+        }
+
+        private static void row(PrintStream out, String name, Histogram histogram, long errors, int seconds) {
+            out.printf("%-34s %9d %8d %9.1f %9.2f %9.2f %9.2f %9.2f%n", name, histogram.getTotalCount(), errors,
+                    (double) histogram.getTotalCount() / seconds,
+                    histogram.getValueAtPercentile(50) / 1000.0,
+                    histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getValueAtPercentile(99.9) / 1000.0,
+                    histogram.getMaxValue() / 1000.0);
+        }
+    }
+}
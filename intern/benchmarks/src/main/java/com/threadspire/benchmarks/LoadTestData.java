@@ -0,0 +1,179 @@
+package com.threadspire.benchmarks;
+
+import com.threadspire.intern.dto.CreateThreadRequest;
+import com.threadspire.intern.dto.ForkThreadRequest;
+import com.threadspire.intern.dto.ReactionRequest;
+import com.threadspire.intern.models.Post;
+import com.threadspire.intern.models.ReactionType;
+import com.threadspire.intern.models.Thread;
+import com.threadspire.intern.models.User;
+import com.threadspire.intern.repositories.UserRepository;
+import com.threadspire.intern.security.JwtTokenProvider;
+import com.threadspire.intern.services.BookmarkService;
+import com.threadspire.intern.services.CollectionService;
+import com.threadspire.intern.services.ForkService;
+import com.threadspire.intern.services.ReactionService;
+import com.threadspire.intern.services.ThreadService;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Seeds the embedded app through its own services, so every derived structure
+ * (counters, lineage, search index, tag bitmaps, trending) is built the same way
+ * production traffic builds it, and keeps the ids the load generator picks from.
+ */
+final class LoadTestData {
+    static final String[] WORDS = {
+            "java", "spring", "postgres", "latency", "cache", "index", "thread", "fork", "queue", "batch",
+            "stream", "kernel", "memory", "garbage", "collector", "lock", "virtual", "reactive", "schema", "query",
+            "design", "product", "startup", "hiring", "career", "writing", "learning", "focus", "habit", "team"};
+    static final int TAGS = 40;
+
+    final List<Long> userIds = new ArrayList<>();
+    final List<String> tokens = new ArrayList<>();
+    final List<Long> threadIds = new ArrayList<>();
+    final List<Long> postIds = new ArrayList<>();
+
+    // Reactions are unique per (user, segment); this walks the pairs so none repeat
+    private final AtomicLong nextReaction = new AtomicLong();
+
+    private LoadTestData() {
+    }
+
+    static LoadTestData seed(EmbeddedApp app, Settings settings, Random random) {
+        LoadTestData data = new LoadTestData();
+
+        // One hash for everybody: seeding 10k users should not cost 10k BCrypt rounds
+        String password = app.bean(PasswordEncoder.class).encode("load-test");
+        JwtTokenProvider tokenProvider = app.bean(JwtTokenProvider.class);
+        List<User> users = new ArrayList<>(settings.users());
+        for (int i = 0; i < settings.users(); i++) {
+            User user = new User();
+            user.setEmail("load-" + i + "@threadspire.dev");
+            user.setPassword(password);
+            user.setName("load-" + i);
+            users.add(user);
+        }
+        for (User user : app.bean(UserRepository.class).saveAll(users)) {
+            data.userIds.add(user.getId());
+            data.tokens.add(tokenProvider.generateToken(new UsernamePasswordAuthenticationToken(
+                    org.springframework.security.core.userdetails.User.withUsername(user.getEmail())
+                            .password(password).authorities("USER").build(), null)));
+        }
+
+        ThreadService threadService = app.bean(ThreadService.class);
+        for (int i = 0; i < settings.threads(); i++) {
+            Thread thread = threadService.createThread(data.newThread(random), data.randomUser(random));
+            data.threadIds.add(thread.getId());
+            thread.getPosts().forEach(post -> data.postIds.add(post.getId()));
+        }
+        Collections.shuffle(data.postIds, random);
+
+        ForkService forkService = app.bean(ForkService.class);
+        for (int i = 0; i < settings.forks(); i++) {
+            // Forking forks as well as originals gives the lineage queries some depth
+            Thread fork = forkService.forkThread(data.randomUser(random), data.newFork(random));
+            data.threadIds.add(fork.getId());
+        }
+
+        ReactionService reactionService = app.bean(ReactionService.class);
+        for (int i = 0; i < settings.reactions(); i++) {
+            PendingReaction reaction = data.nextReaction(random);
+            reactionService.addReaction(reaction.userId(), reaction.request());
+        }
+
+        BookmarkService bookmarkService = app.bean(BookmarkService.class);
+        for (int i = 0; i < settings.bookmarks(); i++) {
+            bookmarkService.addBookmark(data.randomUser(random), data.randomThread(random));
+        }
+
+        CollectionService collectionService = app.bean(CollectionService.class);
+        for (int i = 0; i < settings.collections(); i++) {
+            List<Long> threads = new ArrayList<>();
+            for (int j = 0; j < 5; j++) {
+                threads.add(data.randomThread(random));
+            }
+            collectionService.createCollection(data.randomUser(random), "collection-" + i, threads);
+        }
+        return data;
+    }
+
+    int randomUserIndex(Random random) {
+        return random.nextInt(userIds.size());
+    }
+
+    Long randomUser(Random random) {
+        return userIds.get(randomUserIndex(random));
+    }
+
+    Long randomThread(Random random) {
+        return threadIds.get(random.nextInt(threadIds.size()));
+    }
+
+    static String randomTag(Random random) {
+        return "tag-" + random.nextInt(TAGS);
+    }
+
+    CreateThreadRequest newThread(Random random) {
+        int segments = 3 + random.nextInt(18);
+        List<String> content = new ArrayList<>(segments);
+        for (int s = 0; s < segments; s++) {
+            content.add(sentence(random, 20 + random.nextInt(60)));
+        }
+        List<String> tags = new ArrayList<>();
+        for (int t = 1 + random.nextInt(4); t > 0; t--) {
+            tags.add(randomTag(random));
+        }
+        CreateThreadRequest request = new CreateThreadRequest();
+        request.setTitle(sentence(random, 6));
+        request.setSegments(content);
+        request.setTags(tags);
+        // CreateThreadRequest reads the draft flag as "published"; most threads are public
+        request.setDraft(random.nextInt(10) < 8);
+        return request;
+    }
+
+    ForkThreadRequest newFork(Random random) {
+        ForkThreadRequest request = new ForkThreadRequest();
+        request.setThreadId(randomThread(random));
+        return request;
+    }
+
+    /**
+     * The next unused (user, segment) pair.
+     */
+    PendingReaction nextReaction(Random random) {
+        long n = nextReaction.getAndIncrement();
+        int userIndex = (int) (n / postIds.size());
+        if (userIndex >= userIds.size()) {
+            throw new IllegalStateException("Every (user, segment) pair already has a reaction; seed more users");
+        }
+        ReactionRequest request = new ReactionRequest();
+        request.setPostId(postIds.get((int) (n % postIds.size())));
+        request.setType(ReactionType.values()[random.nextInt(ReactionType.values().length)]);
+        return new PendingReaction(userIds.get(userIndex), userIndex, request);
+    }
+
+    static String sentence(Random random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int w = 0; w < words; w++) {
+            if (w > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    record PendingReaction(Long userId, int userIndex, ReactionRequest request) {
+    }
+
+    record Settings(int users, int threads, int forks, int reactions, int bookmarks, int collections) {
+    }
+}
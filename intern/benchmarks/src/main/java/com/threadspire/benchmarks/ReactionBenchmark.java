@@ -0,0 +1,89 @@
+package com.threadspire.benchmarks;
+
+import com.threadspire.intern.dto.CreateThreadRequest;
+import com.threadspire.intern.dto.ReactionRequest;
+import com.threadspire.intern.models.Post;
+import com.threadspire.intern.models.Reaction;
+import com.threadspire.intern.models.ReactionType;
+import com.threadspire.intern.models.User;
+import com.threadspire.intern.repositories.UserRepository;
+import com.threadspire.intern.services.ReactionService;
+import com.threadspire.intern.services.ThreadService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ReactionService#addReaction} latency, including the duplicate check and the
+ * after-commit counter and trending listeners. Each call reacts as a different
+ * (user, segment) pair, since a user can react to a segment only once.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReactionBenchmark {
+    private static final int USERS = 200;
+    private static final int SEGMENTS = 1_000;
+    private static final ReactionType[] TYPES = ReactionType.values();
+
+    private EmbeddedApp app;
+    private ReactionService reactionService;
+    private List<Long> userIds;
+    private List<Long> postIds;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        app = EmbeddedApp.start();
+        reactionService = app.bean(ReactionService.class);
+
+        List<User> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setEmail("reader-" + i + "@threadspire.dev");
+            user.setPassword("{noop}benchmark");
+            user.setName("reader-" + i);
+            users.add(user);
+        }
+        userIds = app.bean(UserRepository.class).saveAll(users).stream().map(User::getId).toList();
+
+        List<String> segments = new ArrayList<>(SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments.add("Segment " + i);
+        }
+        CreateThreadRequest request = new CreateThreadRequest();
+        request.setTitle("Reaction target");
+        request.setSegments(segments);
+        request.setTags(List.of("benchmark"));
+        postIds = app.bean(ThreadService.class).createThread(request, userIds.get(0)).getPosts().stream()
+                .map(Post::getId).toList();
+
+        // Spread consecutive calls over different segments, like real traffic
+        postIds = new ArrayList<>(postIds);
+        Collections.shuffle(postIds);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        app.close();
+    }
+
+    @Benchmark
+    public Reaction addReaction() {
+        int n = next++;
+        if (n >= USERS * SEGMENTS) {
+            throw new IllegalStateException("Ran out of (user, segment) pairs; shorten the run or raise USERS");
+        }
+        ReactionRequest request = new ReactionRequest();
+        request.setPostId(postIds.get(n % SEGMENTS));
+        request.setType(TYPES[n % TYPES.length]);
+        return reactionService.addReaction(userIds.get(n / SEGMENTS), request);
+    }
+}
@@ -0,0 +1,106 @@
+package com.threadspire.benchmarks;
+
+import com.threadspire.intern.dto.CreateThreadRequest;
+import com.threadspire.intern.models.User;
+import com.threadspire.intern.repositories.UserRepository;
+import com.threadspire.intern.services.ThreadService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Platform-thread vs. virtual-thread request handling under high concurrency.
+ * Each invocation fires {@code concurrency} simultaneous {@code GET /api/threads/{id}}
+ * requests (five blocking JDBC statements each) and waits for all of them, so
+ * throughput is {@code concurrency / score}.
+ * <p>
+ * Both modes get the same 40-connection pool. Platform mode keeps Tomcat's default
+ * 200 request threads; virtual mode needs a Java 21 runtime and is skipped otherwise.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestConcurrencyBenchmark {
+    private static final int THREADS = 50;
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    @Param({"200", "1000"})
+    public int concurrency;
+
+    private EmbeddedApp app;
+    private HttpClient client;
+    private List<URI> uris;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        if (virtualThreads && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads need a Java 21 runtime");
+        }
+        app = EmbeddedApp.start(
+                "spring.threads.virtual.enabled=" + virtualThreads,
+                "spring.datasource.hikari.maximum-pool-size=40",
+                "spring.datasource.hikari.connection-timeout=30000",
+                "server.tomcat.max-connections=" + (concurrency * 2),
+                "server.tomcat.accept-count=" + concurrency);
+
+        User user = new User();
+        user.setEmail("load@threadspire.dev");
+        user.setPassword("{noop}benchmark");
+        user.setName("load");
+        Long userId = app.bean(UserRepository.class).save(user).getId();
+
+        ThreadService threadService = app.bean(ThreadService.class);
+        uris = new ArrayList<>(THREADS);
+        for (int i = 0; i < THREADS; i++) {
+            CreateThreadRequest request = new CreateThreadRequest();
+            request.setTitle("Load thread " + i);
+            request.setSegments(List.of("first segment " + i, "second segment " + i, "third segment " + i));
+            request.setTags(List.of("load", "tag" + (i % 5)));
+            Long id = threadService.createThread(request, userId).getId();
+            uris.add(URI.create("http://localhost:" + app.port() + "/api/threads/" + id));
+        }
+
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newFixedThreadPool(16))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        app.close();
+    }
+
+    @Benchmark
+    public int burst() {
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            HttpRequest request = HttpRequest.newBuilder(uris.get(i % uris.size())).GET().build();
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+        }
+        int ok = 0;
+        for (CompletableFuture<HttpResponse<Void>> response : responses) {
+            if (response.join().statusCode() == 200) {
+                ok++;
+            }
+        }
+        if (ok != concurrency) {
+            throw new IllegalStateException((concurrency - ok) + " requests failed");
+        }
+        return ok;
+    }
+}
@@ -0,0 +1,73 @@
+package com.threadspire.benchmarks;
+
+import com.threadspire.intern.dto.ThreadSearchPage;
+import com.threadspire.intern.services.ThreadService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * First-page search latency against corpus size. Documents are generated in SQL
+ * from a small vocabulary so that common terms match a large share of the corpus,
+ * every one of which is ranked.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int threads;
+
+    private EmbeddedApp app;
+    private ThreadService threadService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        app = EmbeddedApp.start();
+        threadService = app.bean(ThreadService.class);
+        JdbcTemplate jdbc = app.bean(JdbcTemplate.class);
+
+        jdbc.update("""
+                INSERT INTO threads (id, title, published, fork_count, bookmark_count)
+                SELECT id, 'Thread ' || id || ' about ' || (ARRAY['java','postgres','spring','search','cache'])[id % 5 + 1],
+                       true, 0, 0
+                FROM generate_series(1000000::bigint, 1000000::bigint + ? - 1) AS id
+                """, threads);
+        jdbc.update("""
+                INSERT INTO thread_search (thread_id, document)
+                SELECT t.id, setweight(to_tsvector('english', t.title), 'A')
+                          || setweight(to_tsvector('english', 'segment text on indexing latency and ranking '
+                                       || 'rare' || (t.id % 1000) || ' ' || repeat('lorem ipsum dolor ', 10)), 'B')
+                FROM threads t WHERE t.id >= 1000000
+                """);
+        jdbc.execute("ANALYZE threads");
+        jdbc.execute("ANALYZE thread_search");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        app.close();
+    }
+
+    @Benchmark
+    public ThreadSearchPage commonTerm() {
+        return threadService.search("latency", List.of(), 0, 20);
+    }
+
+    @Benchmark
+    public ThreadSearchPage rareTerm() {
+        return threadService.search("rare42", List.of(), 0, 20);
+    }
+
+    @Benchmark
+    public ThreadSearchPage phrase() {
+        return threadService.search("\"spring\" ranking -java", List.of(), 0, 20);
+    }
+}
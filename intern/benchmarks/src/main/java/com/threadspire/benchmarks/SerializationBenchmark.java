@@ -0,0 +1,102 @@
+package com.threadspire.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.threadspire.intern.dto.SegmentDetail;
+import com.threadspire.intern.dto.ThreadDetail;
+import com.threadspire.intern.models.Post;
+import com.threadspire.intern.models.ReactionType;
+import com.threadspire.intern.models.Tag;
+import com.threadspire.intern.models.Thread;
+import com.threadspire.intern.models.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the two thread payloads: the {@link Thread} entity graph
+ * returned by create and fork, and the {@link ThreadDetail} read model behind
+ * GET /api/threads/{id}. Uses a mapper built the way Spring Boot builds its own.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"1", "10", "50", "200"})
+    public int segments;
+
+    private ObjectWriter writer;
+    private Thread thread;
+    private ThreadDetail detail;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = mapper.writer();
+
+        User author = new User();
+        author.setId(1L);
+        author.setEmail("author@threadspire.dev");
+        author.setPassword("{noop}benchmark");
+        author.setName("author");
+
+        Set<Tag> tags = new HashSet<>();
+        for (int i = 0; i < 5; i++) {
+            tags.add(new Tag((long) i, "tag-" + i));
+        }
+
+        thread = new Thread();
+        thread.setId(1L);
+        thread.setTitle("Benchmark thread");
+        thread.setPublished(true);
+        thread.setUser(author);
+        thread.setTags(tags);
+        thread.setCreatedAt(Instant.now());
+        thread.setUpdatedAt(Instant.now());
+
+        List<Post> posts = new ArrayList<>(segments);
+        List<SegmentDetail> segmentDetails = new ArrayList<>(segments);
+        for (int position = 0; position < segments; position++) {
+            String content = "Segment " + position + " " + "lorem ipsum dolor sit amet ".repeat(20);
+            Post post = new Post();
+            post.setId((long) position);
+            post.setBodyHash("%064x".formatted(position));
+            post.setContent(content);
+            post.setPosition(position);
+            post.setThread(thread);
+            posts.add(post);
+
+            Map<ReactionType, Long> reactions = new EnumMap<>(ReactionType.class);
+            for (ReactionType type : ReactionType.values()) {
+                reactions.put(type, (long) position + type.ordinal());
+            }
+            segmentDetails.add(new SegmentDetail(post.getId(), position, content, reactions));
+        }
+        thread.setPosts(posts);
+
+        detail = new ThreadDetail(thread.getId(), thread.getTitle(), true, author.getId(), author.getName(),
+                12, 34, tags.stream().map(Tag::getName).toList(), segmentDetails);
+    }
+
+    @Benchmark
+    public byte[] threadEntity() throws Exception {
+        return writer.writeValueAsBytes(thread);
+    }
+
+    @Benchmark
+    public byte[] threadDetail() throws Exception {
+        return writer.writeValueAsBytes(detail);
+    }
+}
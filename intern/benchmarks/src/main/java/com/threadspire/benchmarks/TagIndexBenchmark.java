@@ -0,0 +1,60 @@
+package com.threadspire.benchmarks;
+
+import com.threadspire.intern.events.ThreadCreatedEvent;
+import com.threadspire.intern.services.TagBitmapIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tag expression evaluation in {@link TagBitmapIndex} over a synthetic corpus.
+ * Tag popularity is skewed (tag {@code t0} on about half the threads, {@code t99}
+ * on a few hundred) to cover both dense and sparse bitmaps. No database involved.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TagIndexBenchmark {
+    private static final int TAGS = 100;
+
+    @Param({"100000", "500000"})
+    public int threads;
+
+    private TagBitmapIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new TagBitmapIndex(null);
+        Random random = new Random(42);
+        for (long id = 1; id <= threads; id++) {
+            Set<String> tags = new HashSet<>();
+            for (int t = 0; t < TAGS; t++) {
+                if (random.nextDouble() < 0.5 / (t + 1)) {
+                    tags.add("t" + t);
+                }
+            }
+            index.onThreadCreated(new ThreadCreatedEvent(id, 1L, tags, random.nextInt(10) > 0));
+        }
+    }
+
+    @Benchmark
+    public TagBitmapIndex.Match denseAnd() {
+        return index.find("t0 AND t1 NOT t2", true, null, 20);
+    }
+
+    @Benchmark
+    public TagBitmapIndex.Match sparseAnd() {
+        return index.find("t0 AND t98 AND t99", true, null, 20);
+    }
+
+    @Benchmark
+    public TagBitmapIndex.Match mixed() {
+        return index.find("(t3 OR t4 OR t5) AND t0 NOT (t1 OR t2)", null, null, 20);
+    }
+}
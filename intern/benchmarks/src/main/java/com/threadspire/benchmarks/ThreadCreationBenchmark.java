@@ -0,0 +1,74 @@
+package com.threadspire.benchmarks;
+
+import com.threadspire.intern.dto.CreateThreadRequest;
+import com.threadspire.intern.models.Thread;
+import com.threadspire.intern.models.User;
+import com.threadspire.intern.repositories.UserRepository;
+import com.threadspire.intern.services.ThreadService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ThreadService#createThread} latency against segment and tag count. With
+ * pooled sequence ids and JDBC batching the segment inserts go out as one batch,
+ * and known tag names resolve from memory, so each tag should only cost its
+ * {@code thread_tags} row and latency should track payload size, not round trips.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ThreadCreationBenchmark {
+
+    @Param({"1", "10", "50", "200"})
+    public int segments;
+
+    @Param({"0", "3", "10"})
+    public int tags;
+
+    private EmbeddedApp app;
+    private ThreadService threadService;
+    private Long userId;
+    private CreateThreadRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        app = EmbeddedApp.start();
+        threadService = app.bean(ThreadService.class);
+
+        User user = new User();
+        user.setEmail("author@threadspire.dev");
+        user.setPassword("{noop}benchmark");
+        user.setName("author");
+        userId = app.bean(UserRepository.class).save(user).getId();
+
+        List<String> content = new ArrayList<>(segments);
+        for (int i = 0; i < segments; i++) {
+            content.add("Segment " + i + " " + "lorem ipsum dolor sit amet ".repeat(20));
+        }
+        request = new CreateThreadRequest();
+        request.setTitle("Benchmark thread");
+        request.setSegments(content);
+        List<String> tagNames = new ArrayList<>(tags);
+        for (int i = 0; i < tags; i++) {
+            tagNames.add("tag-" + i);
+        }
+        request.setTags(tagNames);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        app.close();
+    }
+
+    @Benchmark
+    public Thread createThread() {
+        return threadService.createThread(request, userId);
+    }
+}
@@ -0,0 +1,131 @@
+package com.threadspire.intern.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for the endpoints listed in {@code app.admission.limits}. Runs in
+ * the security chain right after JWT authentication, so clients are keyed by
+ * authenticated user, or by remote address when there is none. A limited request is
+ * <ul>
+ *   <li>refused with 503 when {@link LoadShedder} says the database is saturated,
+ *       so it fails fast instead of queueing for a connection</li>
+ *   <li>refused with 429 when the client's {@link RateLimit} bucket is empty, with
+ *       {@code Retry-After} set to when it will have a token again</li>
+ *   <li>otherwise admitted, and its latency feeds the shedder's average for the endpoint</li>
+ * </ul>
+ * Each outcome is counted in {@code threadspire.admission}, tagged by endpoint.
+ */
+@Component
+public class AdmissionControlFilter extends OncePerRequestFilter {
+    private final boolean enabled;
+    private final List<RateLimit> limits;
+    private final LoadShedder shedder;
+    private final Map<String, Outcomes> outcomes = new HashMap<>();
+
+    @Autowired
+    public AdmissionControlFilter(AdmissionControlProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, new LoadShedder(meterRegistry, properties.getShed()));
+    }
+
+    AdmissionControlFilter(AdmissionControlProperties properties, MeterRegistry meterRegistry, LoadShedder shedder) {
+        this.enabled = properties.isEnabled();
+        this.limits = properties.getLimits().stream()
+                .map(limit -> new RateLimit(limit, properties.getMaxTrackedClients()))
+                .toList();
+        this.shedder = shedder;
+        for (RateLimit limit : limits) {
+            outcomes.put(limit.name(), new Outcomes(
+                    counter(meterRegistry, limit.name(), "admitted"),
+                    counter(meterRegistry, limit.name(), "rate_limited"),
+                    counter(meterRegistry, limit.name(), "shed")));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RateLimit limit = enabled ? match(request) : null;
+        if (limit == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        Outcomes counters = outcomes.get(limit.name());
+
+        long start = System.nanoTime();
+        if (shedder.shouldShed(limit.name(), start)) {
+            counters.shed().increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            return;
+        }
+        long wait = limit.tryAcquire(client(request), start);
+        if (wait > 0) {
+            counters.rateLimited().increment();
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + 999_999_999))));
+            return;
+        }
+
+        counters.admitted().increment();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long end = System.nanoTime();
+            shedder.recordLatency(limit.name(), end - start, end);
+        }
+    }
+
+    private RateLimit match(HttpServletRequest request) {
+        if (limits.isEmpty()) {
+            return null;
+        }
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        for (RateLimit limit : limits) {
+            if (limit.matches(request.getMethod(), path)) {
+                return limit;
+            }
+        }
+        return null;
+    }
+
+    private static String client(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        // Not X-Forwarded-For: clients could rotate it to get a fresh bucket per request
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String endpoint, String outcome) {
+        return Counter.builder("threadspire.admission")
+                .description("Requests to rate-limited endpoints by admission outcome")
+                .tag("endpoint", endpoint)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record Outcomes(Counter admitted, Counter rateLimited, Counter shed) {
+    }
+}
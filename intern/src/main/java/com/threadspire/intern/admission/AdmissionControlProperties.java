@@ -0,0 +1,38 @@
+package com.threadspire.intern.admission;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@code app.admission.*}: per-endpoint rate limits and the load-shedding thresholds
+ * that apply to the limited endpoints.
+ */
+@Data
+@ConfigurationProperties("app.admission")
+public class AdmissionControlProperties {
+    private boolean enabled = true;
+    // Clients (users or IPs) tracked per endpoint; the least recently seen are forgotten first
+    private int maxTrackedClients = 100_000;
+    private List<Limit> limits = new ArrayList<>();
+    private Shed shed = new Shed();
+
+    @Data
+    public static class Limit {
+        private String name;
+        private String method;
+        private String path;            // path pattern, e.g. /api/reactions/**
+        private double ratePerSecond;   // sustained requests per second per client
+        private int burst = 1;          // requests a client may send at once after being idle
+    }
+
+    @Data
+    public static class Shed {
+        private int maxPendingConnections;   // 0 disables
+        private long maxLatencyMs;           // 0 disables
+        private int probeEvery = 10;         // while shedding on latency, admit one in this many
+        private long latencyDecayMs = 10_000;   // idle time after which a latency average is down to 1/e; 0 disables
+    }
+}
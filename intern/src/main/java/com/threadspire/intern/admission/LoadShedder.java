@@ -0,0 +1,124 @@
+package com.threadspire.intern.admission;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Decides when to refuse limited requests outright because the database is already
+ * saturated. Two signals, either of which trips it:
+ * <ul>
+ *   <li>threads waiting for a pooled connection ({@code hikaricp.connections.pending},
+ *       the highest across pools) at or above {@code max-pending-connections}</li>
+ *   <li>an exponentially weighted average of the endpoint's admitted requests' latency
+ *       above {@code max-latency-ms}. Each endpoint has its own average, so a slow one
+ *       does not shed the rest. One request in {@code probe-every} is still admitted
+ *       meanwhile, so the average can come back down.</li>
+ * </ul>
+ * The averages also decay with time: after {@code latency-decay-ms} without requests
+ * an average has fallen to 1/e of its value, so a burst of slow requests followed by a
+ * quiet spell does not keep shedding, and the first request after the spell counts
+ * for a tenth like any other.
+ */
+class LoadShedder {
+    private static final double SMOOTHING = 0.1;
+    private static final long GAUGE_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final MeterRegistry meterRegistry;
+    private final int maxPendingConnections;
+    private final long maxLatencyNanos;
+    private final int probeEvery;
+    private final double decayNanos;
+
+    private final ConcurrentHashMap<String, Latency> latencies = new ConcurrentHashMap<>();
+    // Pools start lazily and may register their gauges after us, so look them up again now and then
+    private volatile Collection<Gauge> pendingGauges = List.of();
+    private volatile long gaugesFoundAt = System.nanoTime() - GAUGE_REFRESH_NANOS;
+
+    LoadShedder(MeterRegistry meterRegistry, AdmissionControlProperties.Shed settings) {
+        this.meterRegistry = meterRegistry;
+        this.maxPendingConnections = settings.getMaxPendingConnections();
+        this.maxLatencyNanos = TimeUnit.MILLISECONDS.toNanos(settings.getMaxLatencyMs());
+        this.probeEvery = Math.max(1, settings.getProbeEvery());
+        this.decayNanos = TimeUnit.MILLISECONDS.toNanos(settings.getLatencyDecayMs());
+    }
+
+    boolean shouldShed(String endpoint, long now) {
+        if (maxPendingConnections > 0 && pendingConnections() >= maxPendingConnections) {
+            return true;
+        }
+        if (maxLatencyNanos > 0) {
+            Latency latency = latency(endpoint, now);
+            if (latency.averageAt(now) > maxLatencyNanos) {
+                return latency.shedCount.incrementAndGet() % probeEvery != 0;
+            }
+        }
+        return false;
+    }
+
+    void recordLatency(String endpoint, long nanos, long now) {
+        latency(endpoint, now).record(nanos, now);
+    }
+
+    double averageLatencyNanos(String endpoint, long now) {
+        return latency(endpoint, now).averageAt(now);
+    }
+
+    private Latency latency(String endpoint, long now) {
+        Latency latency = latencies.get(endpoint);
+        return latency != null ? latency : latencies.computeIfAbsent(endpoint, k -> new Latency(now));
+    }
+
+    private double pendingConnections() {
+        long now = System.nanoTime();
+        if (now - gaugesFoundAt >= GAUGE_REFRESH_NANOS) {
+            pendingGauges = meterRegistry.find("hikaricp.connections.pending").gauges();
+            gaugesFoundAt = now;
+        }
+        double max = 0;
+        for (Gauge gauge : pendingGauges) {
+            max = Math.max(max, gauge.value());
+        }
+        return max;
+    }
+
+    private final class Latency {
+        private final AtomicReference<Average> average;
+        private final AtomicLong shedCount = new AtomicLong();
+
+        Latency(long now) {
+            this.average = new AtomicReference<>(new Average(0, now));
+        }
+
+        void record(long nanos, long now) {
+            while (true) {
+                Average current = average.get();
+                double decayed = decayedTo(current, now);
+                // Concurrent requests may finish out of order; never move the clock back
+                long at = now - current.at() > 0 ? now : current.at();
+                if (average.compareAndSet(current, new Average(decayed + SMOOTHING * (nanos - decayed), at))) {
+                    return;
+                }
+            }
+        }
+
+        double averageAt(long now) {
+            return decayedTo(average.get(), now);
+        }
+
+        private double decayedTo(Average average, long now) {
+            long idle = now - average.at();
+            return idle <= 0 || decayNanos <= 0 ? average.nanos() : average.nanos() * Math.exp(-idle / decayNanos);
+        }
+    }
+
+    /** An average in nanoseconds as of {@code at}, a {@link System#nanoTime()} reading. */
+    private record Average(double nanos, long at) {
+    }
+}
@@ -0,0 +1,70 @@
+package com.threadspire.intern.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket per client for one endpoint, kept as a single {@link AtomicLong} in
+ * the form of the generic cell rate algorithm: the value is the time at which the
+ * client's bucket will be full again, each admitted request pushes it one interval
+ * further, and a request is refused while it lies more than {@code burst - 1}
+ * intervals ahead. Admission is one compare-and-set, with no lock and no refill task.
+ */
+final class RateLimit {
+    private final String name;
+    private final HttpMethod method;
+    private final PathPattern pattern;
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final Cache<String, AtomicLong> buckets;
+
+    RateLimit(AdmissionControlProperties.Limit limit, int maxClients) {
+        if (limit.getRatePerSecond() <= 0 || limit.getBurst() < 1) {
+            throw new IllegalArgumentException("Rate limit " + limit.getName() + " needs a positive rate and burst");
+        }
+        this.name = limit.getName();
+        this.method = limit.getMethod() == null ? null : HttpMethod.valueOf(limit.getMethod());
+        this.pattern = PathPatternParser.defaultInstance.parse(limit.getPath());
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / limit.getRatePerSecond());
+        this.toleranceNanos = intervalNanos * (limit.getBurst() - 1);
+        // A bucket idle for longer than it takes to refill is full, so forgetting it changes nothing
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(Duration.ofNanos(toleranceNanos + intervalNanos))
+                .build();
+    }
+
+    String name() {
+        return name;
+    }
+
+    boolean matches(String httpMethod, PathContainer path) {
+        return (method == null || method.matches(httpMethod)) && pattern.matches(path);
+    }
+
+    /**
+     * @return 0 if the request is admitted, otherwise how long the client should wait
+     */
+    long tryAcquire(String client, long nowNanos) {
+        AtomicLong bucket = buckets.get(client, k -> new AtomicLong(nowNanos));
+        while (true) {
+            long fullAt = bucket.get();
+            long start = fullAt - nowNanos > 0 ? fullAt : nowNanos;
+            long wait = start - nowNanos - toleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, start + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+}
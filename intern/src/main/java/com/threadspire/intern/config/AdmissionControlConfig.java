@@ -0,0 +1,10 @@
+package com.threadspire.intern.config;
+
+import com.threadspire.intern.admission.AdmissionControlProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(AdmissionControlProperties.class)
+public class AdmissionControlConfig {
+}
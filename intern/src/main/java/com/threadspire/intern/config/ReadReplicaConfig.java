@@ -0,0 +1,93 @@
+package com.threadspire.intern.config;
+
+import com.threadspire.intern.datasource.ReadWriteRoutingDataSource;
+import com.threadspire.intern.datasource.ReadYourWritesTracker;
+import com.threadspire.intern.datasource.ReplicaSet;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replica routing, enabled by listing replica JDBC URLs in
+ * {@code app.datasource.replica-urls}. Replaces Boot's DataSource with a
+ * {@link ReadWriteRoutingDataSource} over a primary pool built from
+ * {@code spring.datasource.*} and one pool per replica. The pools are not beans, so the
+ * statement counter wraps only the routing DataSource and counts each statement once.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource", name = "replica-urls")
+public class ReadReplicaConfig {
+
+    @Bean
+    ReadYourWritesTracker readYourWritesTracker(@Value("${app.datasource.read-your-writes-ms:5000}") long windowMs) {
+        return new ReadYourWritesTracker(Duration.ofMillis(windowMs));
+    }
+
+    @Bean
+    ReplicaSet replicaSet(DataSourceProperties properties, Environment environment, MeterRegistry meterRegistry,
+                          @Value("${app.datasource.replica-urls}") List<String> urls,
+                          @Value("${app.datasource.replica-username:${spring.datasource.username:}}") String username,
+                          @Value("${app.datasource.replica-password:${spring.datasource.password:}}") String password,
+                          @Value("${app.datasource.replica-pool-size:10}") int poolSize,
+                          @Value("${app.datasource.replica-max-lag-ms:0}") long maxLagMs) {
+        List<ReplicaSet.Replica> replicas = new ArrayList<>();
+        for (String url : urls) {
+            if (!StringUtils.hasText(url)) {
+                continue;
+            }
+            HikariDataSource pool = DataSourceBuilder.create().type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(url.trim()).username(username).password(password)
+                    .build();
+            bindHikariSettings(environment, pool);
+            String name = "replica-" + (replicas.size() + 1);
+            pool.setPoolName(name);
+            pool.setMaximumPoolSize(poolSize);
+            pool.setReadOnly(true);
+            // Fail over to the primary quickly instead of queueing behind a dead replica
+            pool.setConnectionTimeout(Math.min(pool.getConnectionTimeout(), 2000));
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(new ReplicaSet.Replica(name, pool));
+        }
+        if (replicas.isEmpty()) {
+            throw new IllegalStateException("app.datasource.replica-urls lists no replica");
+        }
+        ReplicaSet replicaSet = new ReplicaSet(replicas, maxLagMs);
+        Gauge.builder("threadspire.datasource.replicas.healthy", replicaSet, ReplicaSet::healthyCount)
+                .description("Read replicas currently receiving reads")
+                .register(meterRegistry);
+        return replicaSet;
+    }
+
+    @Bean
+    DataSource dataSource(DataSourceProperties properties, Environment environment, MeterRegistry meterRegistry,
+                          ReplicaSet replicaSet, ReadYourWritesTracker readYourWritesTracker) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        bindHikariSettings(environment, primary);
+        if (primary.getPoolName() == null) {
+            primary.setPoolName("primary");
+        }
+        primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return new ReadWriteRoutingDataSource(primary, replicaSet, readYourWritesTracker);
+    }
+
+    private static void bindHikariSettings(Environment environment, HikariDataSource pool) {
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+    }
+}
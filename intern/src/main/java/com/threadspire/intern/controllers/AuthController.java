@@ -1,10 +1,13 @@
 package com.threadspire.intern.controllers;
 
 
+import com.threadspire.intern.dto.ChangePasswordRequest;
 import com.threadspire.intern.models.User;
 import com.threadspire.intern.repositories.UserRepository;
 import com.threadspire.intern.security.JwtTokenProvider;
+import com.threadspire.intern.services.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -21,6 +24,7 @@ public class AuthController {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider jwtTokenProvider;
+    private final UserService userService;
 
     @PostMapping("/register")
     public ResponseEntity<?> register(@RequestBody User user) {
@@ -36,5 +40,13 @@ public class AuthController {
         String token = jwtTokenProvider.generateToken(auth);
         return ResponseEntity.ok(token);
     }
-}
 
+    @PostMapping("/change-password")
+    public ResponseEntity<?> changePassword(Authentication authentication, @RequestBody ChangePasswordRequest request) {
+        if (authentication == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        userService.changePassword(authentication.getName(), request.getCurrentPassword(), request.getNewPassword());
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,4 +1,5 @@
 package com.threadspire.intern.controllers;
+import com.threadspire.intern.dto.BulkChangeResult;
 import com.threadspire.intern.models.Bookmark;
 import com.threadspire.intern.services.BookmarkService;
 import lombok.RequiredArgsConstructor;
@@ -19,6 +20,16 @@ public class BookmarkController {
         return ResponseEntity.ok(bookmark);
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkChangeResult> addBookmarks(@RequestParam Long userId, @RequestBody List<Long> threadIds) {
+        return ResponseEntity.ok(bookmarkService.addBookmarks(userId, threadIds));
+    }
+
+    @PostMapping("/bulk/remove")
+    public ResponseEntity<BulkChangeResult> removeBookmarks(@RequestParam Long userId, @RequestBody List<Long> threadIds) {
+        return ResponseEntity.ok(bookmarkService.removeBookmarks(userId, threadIds));
+    }
+
     @GetMapping
     public ResponseEntity<List<Bookmark>> getBookmarks(@RequestParam Long userId) {
         return ResponseEntity.ok(bookmarkService.getBookmarksForUser(userId));
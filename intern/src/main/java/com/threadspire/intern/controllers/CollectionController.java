@@ -1,6 +1,8 @@
 package com.threadspire.intern.controllers;
+import com.threadspire.intern.dto.BulkChangeResult;
+import com.threadspire.intern.dto.CollectionSummary;
 import com.threadspire.intern.dto.CreateCollectionRequest;
-import com.threadspire.intern.models.Collection;
+import com.threadspire.intern.dto.ThreadFeedPage;
 import com.threadspire.intern.services.CollectionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -14,14 +16,40 @@ public class CollectionController {
 
     private final CollectionService collectionService;
     @PostMapping
-    public ResponseEntity<Collection> createCollection(@RequestParam Long userId, @RequestBody CreateCollectionRequest request) {
-        Collection collection = collectionService.createCollection(userId, request.getName(), request.getThreadIds());
+    public ResponseEntity<CollectionSummary> createCollection(@RequestParam Long userId, @RequestBody CreateCollectionRequest request) {
+        CollectionSummary collection = collectionService.createCollection(userId, request.getName(), request.getThreadIds());
         return ResponseEntity.ok(collection);
     }
 
     @GetMapping
-    public ResponseEntity<List<Collection>> getUserCollections(@RequestParam Long userId) {
+    public ResponseEntity<List<CollectionSummary>> getUserCollections(@RequestParam Long userId) {
         return ResponseEntity.ok(collectionService.getUserCollections(userId));
     }
-}
 
+    @GetMapping("/{id}/threads")
+    public ResponseEntity<ThreadFeedPage> getThreads(@PathVariable Long id,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(collectionService.getThreads(id, cursor, limit));
+    }
+
+    @PostMapping("/{id}/threads")
+    public ResponseEntity<BulkChangeResult> addThreads(@PathVariable Long id, @RequestParam Long userId,
+                                                       @RequestBody List<Long> threadIds) {
+        return ResponseEntity.ok(collectionService.addThreads(userId, id, threadIds));
+    }
+
+    @DeleteMapping("/{id}/threads/{threadId}")
+    public ResponseEntity<Void> removeThread(@PathVariable Long id, @PathVariable Long threadId, @RequestParam Long userId) {
+        collectionService.removeThread(userId, id, threadId);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Moves the thread to just after ?after=, or to the front when it is omitted
+    @PutMapping("/{id}/threads/{threadId}/position")
+    public ResponseEntity<Void> moveThread(@PathVariable Long id, @PathVariable Long threadId, @RequestParam Long userId,
+                                           @RequestParam(required = false) Long after) {
+        collectionService.moveThread(userId, id, threadId, after);
+        return ResponseEntity.noContent().build();
+    }
+}
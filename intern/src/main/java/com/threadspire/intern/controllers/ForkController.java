@@ -1,21 +1,51 @@
 package com.threadspire.intern.controllers;
 
 import com.threadspire.intern.dto.ForkThreadRequest;
+import com.threadspire.intern.dto.LineageNode;
+import com.threadspire.intern.dto.LineagePage;
 import com.threadspire.intern.models.Thread;
 import com.threadspire.intern.services.ForkService;
+import com.threadspire.intern.services.LineageService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/forks")
 @RequiredArgsConstructor
 public class ForkController {
     private final ForkService forkService;
+    private final LineageService lineageService;
 
     @PostMapping
     public ResponseEntity<Thread> forkThread(@RequestParam Long userId, @RequestBody ForkThreadRequest request) {
         Thread forkedThread = forkService.forkThread(userId, request);
         return ResponseEntity.ok(forkedThread);
     }
+
+    @GetMapping("/{threadId}/ancestors")
+    public ResponseEntity<List<LineageNode>> getAncestors(@PathVariable Long threadId) {
+        return ResponseEntity.ok(lineageService.ancestors(threadId));
+    }
+
+    @GetMapping("/{threadId}/descendants")
+    public ResponseEntity<LineagePage> getDescendants(@PathVariable Long threadId,
+                                                      @RequestParam(required = false) Integer maxDepth,
+                                                      @RequestParam(required = false) String cursor,
+                                                      @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(lineageService.descendants(threadId, maxDepth, cursor, limit));
+    }
+
+    @GetMapping("/{threadId}/descendants/count")
+    public ResponseEntity<Long> countDescendants(@PathVariable Long threadId,
+                                                 @RequestParam(required = false) Integer maxDepth) {
+        return ResponseEntity.ok(lineageService.countDescendants(threadId, maxDepth));
+    }
+
+    @GetMapping("/{threadId}/descendants/most-forked")
+    public ResponseEntity<LineageNode> getMostForkedDescendant(@PathVariable Long threadId) {
+        return ResponseEntity.of(lineageService.mostForkedDescendant(threadId));
+    }
 }
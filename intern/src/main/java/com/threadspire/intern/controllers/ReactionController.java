@@ -1,9 +1,13 @@
 package com.threadspire.intern.controllers;
 
+import com.threadspire.intern.dto.BulkChangeResult;
 import com.threadspire.intern.dto.ReactionRequest;
 import com.threadspire.intern.models.Reaction;
+import com.threadspire.intern.services.ReactionIngestService;
 import com.threadspire.intern.services.ReactionService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -15,6 +19,7 @@ import java.util.List;
 public class ReactionController {
 
     private final ReactionService reactionService;
+    private final ReactionIngestService reactionIngestService;
 
     @GetMapping
     public ResponseEntity<List<Reaction>> getAllReactions() {
@@ -31,5 +36,21 @@ public class ReactionController {
         Reaction reaction = reactionService.addReaction(userId, request);
         return ResponseEntity.ok(reaction);
     }
+
+    // Queued and written within milliseconds; see ReactionIngestService for what "accepted" guarantees
+    @PostMapping("/async")
+    public ResponseEntity<Void> submitReaction(@RequestParam Long userId, @RequestBody ReactionRequest request) {
+        return switch (reactionIngestService.submit(userId, request)) {
+            case ACCEPTED -> ResponseEntity.status(HttpStatus.ACCEPTED).build();
+            case FULL -> ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1").build();
+            case STOPPED -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        };
+    }
+
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkChangeResult> addReactions(@RequestParam Long userId,
+                                                         @RequestBody List<ReactionRequest> requests) {
+        return ResponseEntity.ok(reactionService.addReactions(userId, requests));
+    }
 }
 
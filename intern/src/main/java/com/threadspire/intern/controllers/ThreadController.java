@@ -1,12 +1,32 @@
 package com.threadspire.intern.controllers;
 
 import com.threadspire.intern.dto.CreateThreadRequest;
+import com.threadspire.intern.dto.ThreadBrowsePage;
+import com.threadspire.intern.dto.ThreadDetail;
+import com.threadspire.intern.dto.ThreadFeedPage;
+import com.threadspire.intern.dto.ThreadSearchPage;
+import com.threadspire.intern.dto.TrendingThread;
 import com.threadspire.intern.models.Thread;
+import com.threadspire.intern.services.LiveCountBroadcaster;
+import com.threadspire.intern.services.ThreadDetailService;
+import com.threadspire.intern.services.ThreadExportService;
 import com.threadspire.intern.services.ThreadService;
+import com.threadspire.intern.services.ThreadVersionService;
+import com.threadspire.intern.services.TrendingService;
+import com.threadspire.intern.services.UserService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.time.Instant;
 import java.util.List;
 
 @RestController
@@ -14,6 +34,12 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ThreadController {
     private final ThreadService threadService;
+    private final ThreadDetailService threadDetailService;
+    private final TrendingService trendingService;
+    private final ThreadVersionService threadVersionService;
+    private final ThreadExportService threadExportService;
+    private final LiveCountBroadcaster liveCountBroadcaster;
+    private final UserService userService;
 
     @PostMapping
     public ResponseEntity<Thread> createThread(@RequestBody CreateThreadRequest request, @RequestParam Long userId) {
@@ -22,14 +48,79 @@ public class ThreadController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Thread>> getAllThreads() {
-        return ResponseEntity.ok(threadService.getAllThreads());
+    public ResponseEntity<ThreadFeedPage> getFeed(@RequestParam(required = false) Boolean published,
+                                                  @RequestParam(required = false) Long authorId,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(defaultValue = "20") int limit,
+                                                  WebRequest webRequest) {
+        String etag = threadVersionService.feedETag();
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(threadService.getFeed(published, authorId, cursor, limit));
+    }
+
+    @GetMapping("/browse")
+    public ResponseEntity<ThreadBrowsePage> browse(@RequestParam("tags") String expression,
+                                                   @RequestParam(required = false) Boolean published,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(threadService.browse(expression, published, cursor, limit));
+    }
+
+    @GetMapping("/trending")
+    public ResponseEntity<List<TrendingThread>> getTrending(@RequestParam(required = false) String tag,
+                                                            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(trendingService.trending(tag, limit));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<ThreadSearchPage> search(@RequestParam("q") String query,
+                                                   @RequestParam(required = false) List<String> tags,
+                                                   @RequestParam(defaultValue = "0") int page,
+                                                   @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(threadService.search(query, tags, page, size));
+    }
+
+    /**
+     * Every thread (or every thread changed since {@code since}, e.g. {@code 2025-06-01T00:00:00Z})
+     * as NDJSON, streamed straight to the response.
+     */
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public void export(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant since,
+                       Authentication authentication,
+                       HttpServletResponse response) throws IOException {
+        Long viewerId = userService.findByEmail(authentication.getName()).getId();
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        threadExportService.export(since, viewerId, response.getOutputStream());
+    }
+
+    /**
+     * Server-Sent Events stream of the thread's counts whenever they change, at most
+     * one {@code counts} frame per {@code app.live.interval-ms}.
+     */
+    @GetMapping(value = "/{id}/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> live(@PathVariable Long id) {
+        if (threadVersionService.threadETag(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(liveCountBroadcaster.subscribe(id));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Thread> getThreadById(@PathVariable Long id) {
-        return threadService.findById(id)
-                .map(ResponseEntity::ok)
+    public ResponseEntity<ThreadDetail> getThreadById(@PathVariable Long id, WebRequest webRequest) {
+        // The cheap check answers unchanged polls from the primary's current revision
+        String current = threadVersionService.threadETag(id).orElse(null);
+        if (current == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (webRequest.checkNotModified(current)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).build();
+        }
+        // The detail may come from a replica at an older revision, so tag it with the revision it was read at
+        return threadDetailService.findDetail(id)
+                .map(detail -> ResponseEntity.ok().eTag(threadVersionService.revisionETag(detail.getRevision())).body(detail))
                 .orElse(ResponseEntity.notFound().build());
     }
 }
@@ -0,0 +1,78 @@
+package com.threadspire.intern.datasource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+
+/**
+ * The application's DataSource when read replicas are configured. Connections are
+ * fetched lazily, on the first statement, by which point the transaction manager has
+ * marked the connection read-only or not: read-only transactions, including Spring
+ * Data's own read methods, get a replica connection and everything else the primary.
+ * <p>
+ * Reads still go to the primary when the current user wrote recently (see
+ * {@link ReadYourWritesTracker}), when no replica is healthy, or when the chosen
+ * replica refuses a connection, which also takes it out of rotation until its next
+ * health check.
+ */
+public class ReadWriteRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+    private final DataSource primary;
+    private final ReplicaSet replicas;
+    private final ReadYourWritesTracker readYourWrites;
+
+    public ReadWriteRoutingDataSource(DataSource primary, ReplicaSet replicas, ReadYourWritesTracker readYourWrites) {
+        super(primary);
+        this.primary = primary;
+        this.replicas = replicas;
+        this.readYourWrites = readYourWrites;
+        setReadOnlyDataSource(new ReadOnlyRouter());
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (primary instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private Connection readOnlyConnection(Connector connector) throws SQLException {
+        if (readYourWrites.currentUserWroteRecently()) {
+            return connector.connect(primary);
+        }
+        ReplicaSet.Replica replica = replicas.pick();
+        if (replica == null) {
+            return connector.connect(primary);
+        }
+        try {
+            return connector.connect(replica.dataSource());
+        } catch (SQLFeatureNotSupportedException e) {
+            // Says nothing about the replica's health
+            throw e;
+        } catch (SQLException e) {
+            replica.markDown(e.getMessage());
+            return connector.connect(primary);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Connector {
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+
+    private class ReadOnlyRouter extends AbstractDataSource {
+        @Override
+        public Connection getConnection() throws SQLException {
+            return readOnlyConnection(DataSource::getConnection);
+        }
+
+        // Passed on to the chosen pool, as the primary gets them; Hikari pools refuse them either way
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return readOnlyConnection(dataSource -> dataSource.getConnection(username, password));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.threadspire.intern.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.time.Duration;
+
+/**
+ * Remembers which users committed a read-write transaction in the last
+ * {@code app.datasource.read-your-writes-ms}, so their reads stay on the primary until
+ * replicas have caught up with their change. Users are identified by the
+ * authenticated principal. Like the counters, this is per instance.
+ * <p>
+ * Writes made without a principal are not tracked, and each such path copes without it:
+ * <ul>
+ * <li>Counter, analytics and trending flushes run on schedulers. What they write already
+ * lags by a flush interval, and replica lag only adds to that.</li>
+ * <li>Reactions sent to {@code /api/reactions/async} are written by the ingest thread. The
+ * endpoint only promises eventual visibility; use {@code /api/reactions/add} to read one's
+ * own reaction back at once.</li>
+ * <li>Registration and password changes are read back by unauthenticated logins. The
+ * principal lookup is a read-write transaction and so always runs on the primary.</li>
+ * <li>Startup rebuilds of in-memory state (tag index, search backfill, trending restore)
+ * must not miss rows, so they read in read-write transactions too.</li>
+ * </ul>
+ */
+public class ReadYourWritesTracker implements TransactionExecutionListener {
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(Duration window) {
+        this.recentWriters = Caffeine.newBuilder().expireAfterWrite(window).build();
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (commitFailure == null && transaction.isNewTransaction() && !transaction.isReadOnly()) {
+            String user = currentUser();
+            if (user != null) {
+                recentWriters.put(user, Boolean.TRUE);
+            }
+        }
+    }
+
+    public boolean currentUserWroteRecently() {
+        String user = currentUser();
+        return user != null && recentWriters.getIfPresent(user) != null;
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,128 @@
+package com.threadspire.intern.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read replicas and their health. {@link #checkHealth()} probes every replica on a
+ * schedule; a replica that can't be reached, or (with {@code app.datasource.replica-max-lag-ms})
+ * has fallen too far behind the primary, gets no reads until a later probe succeeds.
+ */
+@Slf4j
+public class ReplicaSet implements AutoCloseable {
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final List<Replica> replicas;
+    private final long maxLagMs;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaSet(List<Replica> replicas, long maxLagMs) {
+        this.replicas = List.copyOf(replicas);
+        this.maxLagMs = maxLagMs;
+    }
+
+    /**
+     * The next healthy replica in round-robin order, or null when none is healthy.
+     */
+    public Replica pick() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    public long healthyCount() {
+        return replicas.stream().filter(r -> r.healthy).count();
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica-check-ms:5000}")
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            String problem = probe(replica);
+            if (problem == null) {
+                replica.markUp();
+            } else {
+                replica.markDown(problem);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private String probe(Replica replica) {
+        try (Connection connection = replica.dataSource.getConnection()) {
+            if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                return "connection not valid";
+            }
+            if (maxLagMs > 0) {
+                // Null when nothing has been replayed yet, i.e. not (yet) a streaming replica
+                try (Statement statement = connection.createStatement();
+                     ResultSet rs = statement.executeQuery(
+                             "SELECT EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000")) {
+                    if (rs.next()) {
+                        double lagMs = rs.getDouble(1);
+                        if (!rs.wasNull() && lagMs > maxLagMs) {
+                            return "replication lag " + (long) lagMs + " ms";
+                        }
+                    }
+                }
+            }
+            return null;
+        } catch (SQLException e) {
+            return e.getMessage();
+        }
+    }
+
+    public static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public DataSource dataSource() {
+            return dataSource;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        void markUp() {
+            if (!healthy) {
+                log.info("Replica {} is back; routing reads to it", name);
+                healthy = true;
+            }
+        }
+
+        void markDown(String reason) {
+            if (healthy) {
+                log.warn("Replica {} is unavailable ({}); reads go elsewhere until it recovers", name, reason);
+                healthy = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.threadspire.intern.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk bookmark or reaction call: how many distinct ids were sent
+ * and which of them actually changed (already-applied and unknown ids are skipped).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkChangeResult {
+    private int requested;
+    private List<Long> changed;
+}
@@ -0,0 +1,9 @@
+package com.threadspire.intern.dto;
+
+import lombok.Data;
+
+@Data
+public class ChangePasswordRequest {
+    private String currentPassword;
+    private String newPassword;
+}
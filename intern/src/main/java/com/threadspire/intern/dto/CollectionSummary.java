@@ -0,0 +1,14 @@
+package com.threadspire.intern.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CollectionSummary {
+    private Long id;
+    private String name;
+    private long memberCount;
+}
@@ -9,6 +9,6 @@ public class ForkThreadRequest {
     private String comment;
     private Long getThreadId;
     private Long originalThreadId;
-    private List<String> editedSegments;
+    private List<String> editedSegments;   // full segment list for the fork; null entries keep the original segment
     private String title;
 }
\ No newline at end of file
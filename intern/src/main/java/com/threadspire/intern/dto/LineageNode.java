@@ -0,0 +1,15 @@
+package com.threadspire.intern.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LineageNode {
+    private Long threadId;
+    private String title;
+    private int depth;       // forks between this thread and the one queried
+    private int forkCount;
+}
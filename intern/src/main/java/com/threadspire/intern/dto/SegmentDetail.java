@@ -0,0 +1,18 @@
+package com.threadspire.intern.dto;
+
+import com.threadspire.intern.models.ReactionType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SegmentDetail {
+    private Long id;
+    private int position;
+    private String content;
+    private Map<ReactionType, Long> reactions;
+}
@@ -0,0 +1,16 @@
+package com.threadspire.intern.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ThreadBrowsePage {
+    private List<ThreadSummary> items;
+    private String nextCursor;   // null when there are no more pages
+    private long total;          // threads matching the expression across all pages
+}
@@ -0,0 +1,23 @@
+package com.threadspire.intern.dto;
+
+import com.threadspire.intern.models.ReactionType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * A thread's fork, bookmark and reaction counts as of {@code revision}. Replaces the
+ * counts from GET /api/threads/{id} when its revision is higher than theirs.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ThreadCounts {
+    private Long threadId;
+    private long revision;
+    private long forks;
+    private long bookmarks;
+    private Map<Long, Map<ReactionType, Long>> reactions;   // post id -> type -> total
+}
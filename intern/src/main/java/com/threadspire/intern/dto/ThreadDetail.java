@@ -0,0 +1,23 @@
+package com.threadspire.intern.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ThreadDetail {
+    private Long id;
+    private String title;
+    private boolean published;
+    private Long authorId;
+    private String authorName;
+    private long revision;   // also the ETag; compare with ThreadCounts.revision
+    private int forkCount;
+    private int bookmarkCount;
+    private List<String> tags;
+    private List<SegmentDetail> segments;   // ordered by position
+}
@@ -0,0 +1,27 @@
+package com.threadspire.intern.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * One line of the NDJSON thread export.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ThreadExport {
+    private Long id;
+    private String title;
+    private boolean published;
+    private Long authorId;
+    private int forkCount;
+    private int bookmarkCount;
+    private Instant createdAt;
+    private Instant updatedAt;   // pass the largest value seen back as ?since= for the next sync
+    private List<String> tags;
+    private List<String> segments;   // ordered by position
+}
@@ -0,0 +1,15 @@
+package com.threadspire.intern.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ThreadFeedPage {
+    private List<ThreadSummary> items;
+    private String nextCursor;   // null when there are no more pages
+}
@@ -0,0 +1,16 @@
+package com.threadspire.intern.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ThreadSearchPage {
+    private List<ThreadSummary> items;   // best match first
+    private int page;
+    private boolean hasMore;
+}
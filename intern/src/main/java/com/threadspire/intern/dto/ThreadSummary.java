@@ -0,0 +1,19 @@
+package com.threadspire.intern.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ThreadSummary {
+    private Long id;
+    private String title;
+    private String authorName;
+    private List<String> tags;
+    private int forkCount;
+    private int segmentCount;
+}
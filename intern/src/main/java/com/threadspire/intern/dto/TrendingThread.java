@@ -0,0 +1,14 @@
+package com.threadspire.intern.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendingThread {
+    private Long threadId;
+    private String title;
+    private double score;   // decayed to the time of the request
+}
@@ -0,0 +1,4 @@
+package com.threadspire.intern.events;
+
+public record BookmarkAddedEvent(Long threadId, Long userId, Long threadOwnerId) {
+}
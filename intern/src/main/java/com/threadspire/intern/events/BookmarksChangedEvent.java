@@ -0,0 +1,13 @@
+package com.threadspire.intern.events;
+
+import java.util.List;
+
+/**
+ * Published by a bulk bookmark or unbookmark call for the threads whose bookmark
+ * actually changed. {@code delta} is +1 when they were bookmarked, -1 when removed.
+ */
+public record BookmarksChangedEvent(Long userId, int delta, List<ThreadOwner> threads) {
+
+    public record ThreadOwner(Long threadId, Long ownerId) {
+    }
+}
@@ -0,0 +1,6 @@
+package com.threadspire.intern.events;
+
+import com.threadspire.intern.models.ReactionType;
+
+public record ReactionAddedEvent(Long postId, Long threadId, Long userId, Long postOwnerId, ReactionType type) {
+}
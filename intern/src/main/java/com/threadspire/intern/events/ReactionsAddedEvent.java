@@ -0,0 +1,10 @@
+package com.threadspire.intern.events;
+
+import java.util.List;
+
+/**
+ * Published by a bulk reaction call, or per user by an ingest flush, for the
+ * reactions that were actually added.
+ */
+public record ReactionsAddedEvent(Long userId, List<ReactionAddedEvent> reactions) {
+}
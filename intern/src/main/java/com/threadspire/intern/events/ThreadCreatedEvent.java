@@ -0,0 +1,6 @@
+package com.threadspire.intern.events;
+
+import java.util.Set;
+
+public record ThreadCreatedEvent(Long threadId, Long userId, Set<String> tagNames, boolean published) {
+}
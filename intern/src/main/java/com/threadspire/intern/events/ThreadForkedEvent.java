@@ -0,0 +1,11 @@
+package com.threadspire.intern.events;
+
+import java.util.Set;
+
+/**
+ * Published inside the fork transaction; listeners that touch in-memory state
+ * should use {@code @TransactionalEventListener} so rolled-back forks are ignored.
+ */
+public record ThreadForkedEvent(Long originalThreadId, Long forkedThreadId, Long userId, Long originalOwnerId,
+                                Set<String> tagNames) {
+}
@@ -0,0 +1,10 @@
+package com.threadspire.intern.events;
+
+import java.util.Set;
+
+/**
+ * Published after committed counter updates changed what the given threads show
+ * (fork, bookmark or reaction counts). Not tied to a transaction.
+ */
+public record ThreadsChangedEvent(Set<Long> threadIds) {
+}
@@ -0,0 +1,44 @@
+package com.threadspire.intern.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Times every public controller and service method as {@code threadspire.method},
+ * tagged with layer, class, method and the exception thrown (if any). Calls a
+ * bean makes to itself skip the proxy and are not timed separately.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class MethodTimingAspect {
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(public * com.threadspire.intern..*(..)) && "
+            + "(@within(org.springframework.stereotype.Service) || @within(org.springframework.web.bind.annotation.RestController))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            Class<?> type = joinPoint.getSignature().getDeclaringType();
+            sample.stop(Timer.builder("threadspire.method")
+                    .tag("layer", AnnotatedElementUtils.hasAnnotation(type, RestController.class) ? "controller" : "service")
+                    .tag("class", type.getSimpleName())
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.threadspire.intern.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements each request ran as {@code threadspire.sql.statements},
+ * tagged by route, and logs requests above {@code app.metrics.sql-statement-warn-threshold}.
+ * A route whose count grows with the size of its result is an N+1.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlStatementCountFilter extends OncePerRequestFilter {
+    private final MeterRegistry meterRegistry;
+    private final int warnThreshold;
+
+    public SqlStatementCountFilter(MeterRegistry meterRegistry,
+                                   @Value("${app.metrics.sql-statement-warn-threshold:25}") int warnThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementCounter.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int statements = SqlStatementCounter.stop();
+            // The route template, not the raw path, so ids don't explode the tag count
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String route = pattern == null ? "UNKNOWN" : pattern.toString();
+            DistributionSummary.builder("threadspire.sql.statements")
+                    .description("SQL statements executed per request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", route)
+                    .register(meterRegistry)
+                    .record(statements);
+            if (statements > warnThreshold) {
+                log.warn("{} {} ({}) ran {} SQL statements", request.getMethod(), route, request.getRequestURI(), statements);
+            }
+        }
+    }
+}
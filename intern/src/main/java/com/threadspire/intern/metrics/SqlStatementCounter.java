@@ -0,0 +1,33 @@
+package com.threadspire.intern.metrics;
+
+/**
+ * Counts JDBC statements prepared on the current thread between {@link #start()}
+ * and {@link #stop()}. Threads that never started counting (schedulers, startup
+ * jobs) pay a single thread-local read per statement.
+ */
+public final class SqlStatementCounter {
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    private SqlStatementCounter() {
+    }
+
+    public static void start() {
+        COUNT.set(new int[1]);
+    }
+
+    /**
+     * @return statements counted since {@link #start()}, or 0 if counting was not started
+     */
+    public static int stop() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count == null ? 0 : count[0];
+    }
+
+    static void increment() {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+    }
+}
@@ -4,12 +4,15 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
-@Table(name = "bookmarks")
+// Unique so bulk bookmarking can upsert; created by schema-updates.sql on existing databases
+@Table(name = "bookmarks", indexes = @Index(name = "uk_bookmarks_user_thread", columnList = "user_id, thread_id", unique = true))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Bookmark {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookmarks_seq")
+    @SequenceGenerator(name = "bookmarks_seq", sequenceName = "bookmarks_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -3,15 +3,15 @@ package com.threadspire.intern.models;
 import jakarta.persistence.*;
 import lombok.*;
 
-import java.util.Set;
-
 @Entity
 @Table(name = "collections")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Collection {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "collections_seq")
+    @SequenceGenerator(name = "collections_seq", sequenceName = "collections_seq", allocationSize = 50)
     private Long id;
 
     private String name;
@@ -19,10 +19,5 @@ public class Collection {
     @ManyToOne
     private User user;
 
-    @ManyToMany
-    @JoinTable(
-            name = "collection_threads",
-            joinColumns = @JoinColumn(name = "collection_id"),
-            inverseJoinColumns = @JoinColumn(name = "thread_id"))
-    private Set<Thread> threads;
+    // Members are CollectionMembership rows, managed one at a time by CollectionService
 }
@@ -0,0 +1,42 @@
+package com.threadspire.intern.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * A thread's place in a collection. Positions are spaced {@code GAP} apart so a
+ * thread can be moved between two others by rewriting only its own row; when two
+ * neighbours run out of room the collection is renumbered.
+ */
+@Entity
+@Table(name = "collection_threads", indexes = {
+        @Index(name = "idx_collection_threads_position", columnList = "collection_id, position, thread_id")
+})
+@IdClass(CollectionMembership.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CollectionMembership {
+    public static final long GAP = 1024;
+
+    @Id
+    @Column(name = "collection_id")
+    private Long collectionId;
+
+    @Id
+    @Column(name = "thread_id")
+    private Long threadId;
+
+    // Nullable only so the column can be added to existing rows; schema-updates.sql fills it in
+    private Long position;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long collectionId;
+        private Long threadId;
+    }
+}
@@ -8,7 +8,9 @@ import lombok.*;
 @NoArgsConstructor
 @AllArgsConstructor
 public class Fork {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "forks_seq")
+    @SequenceGenerator(name = "forks_seq", sequenceName = "forks_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
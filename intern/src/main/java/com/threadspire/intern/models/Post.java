@@ -1,5 +1,6 @@
 package com.threadspire.intern.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -12,18 +13,28 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 public class Post {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "posts_seq")
+    @SequenceGenerator(name = "posts_seq", sequenceName = "posts_seq", allocationSize = 50)
     private Long id;
 
-    @Column(columnDefinition = "TEXT")
+    // Hash of the SegmentBody holding this segment's text
+    @Column(name = "body_hash", length = 64)
+    private String bodyHash;
+
+    // Resolved from segment_bodies on read; not stored on the post row
+    @Transient
     private String content;
 
     private int position;  // Segment order in thread
 
+    // Back-references are left out of JSON so a Thread graph serializes without cycles
+    @JsonIgnore
     @ManyToOne
     @JoinColumn(name = "thread_id")
     private Thread thread;
 
+    @JsonIgnore
     @OneToMany(mappedBy = "post", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Reaction> reactions;
 }
@@ -0,0 +1,42 @@
+package com.threadspire.intern.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * Pre-aggregated reaction tally per segment and type. Written only by
+ * {@code CounterRepository} as atomic increments, never read-modify-write.
+ */
+@Entity
+@Table(name = "post_reaction_counts")
+@IdClass(PostReactionCount.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostReactionCount {
+    @Id
+    @Column(name = "post_id")
+    private Long postId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private ReactionType type;
+
+    private long total;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable, Comparable<Key> {
+        private Long postId;
+        private ReactionType type;
+
+        @Override
+        public int compareTo(Key other) {
+            int byPost = postId.compareTo(other.postId);
+            return byPost != 0 ? byPost : type.compareTo(other.type);
+        }
+    }
+}
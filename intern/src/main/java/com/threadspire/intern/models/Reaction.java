@@ -4,12 +4,15 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
-@Table(name = "reactions")
+// One reaction per user per segment; created by schema-updates.sql on existing databases
+@Table(name = "reactions", indexes = @Index(name = "uk_reactions_user_post", columnList = "user_id, post_id", unique = true))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Reaction {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reactions_seq")
+    @SequenceGenerator(name = "reactions_seq", sequenceName = "reactions_seq", allocationSize = 50)
     private Long id;
 
     @Enumerated(EnumType.STRING)
@@ -0,0 +1,24 @@
+package com.threadspire.intern.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Immutable segment text keyed by the SHA-256 of its UTF-8 bytes. Posts point at
+ * bodies by hash, so forks share unchanged segments instead of copying them.
+ */
+@Entity
+@Table(name = "segment_bodies")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SegmentBody {
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    @Column(nullable = false)
+    private byte[] payload;
+
+    private boolean compressed;   // gzip, used for large bodies when it saves space
+}
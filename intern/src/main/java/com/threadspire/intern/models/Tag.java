@@ -2,16 +2,25 @@ package com.threadspire.intern.models;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 @Entity
 @Table(name = "tags")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "tags")
+@NaturalIdCache(region = "tags-by-name")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Tag {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tags_seq")
+    @SequenceGenerator(name = "tags_seq", sequenceName = "tags_seq", allocationSize = 50)
     private Long id;
 
+    @NaturalId
     @Column(unique = true)
     private String name;
 }
@@ -2,17 +2,34 @@ package com.threadspire.intern.models;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.SourceType;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Set;
 
 @Entity
-@Table(name = "threads")
+@Table(name = "threads", indexes = {
+        @Index(name = "idx_threads_published_id", columnList = "published, id"),
+        @Index(name = "idx_threads_user_id_id", columnList = "user_id, id"),
+        @Index(name = "idx_threads_updated_at_id", columnList = "updated_at, id")
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "threads")
+// Counters and revision are written with plain SQL; never let a cached copy write them back
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Thread {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "threads_seq")
+    @SequenceGenerator(name = "threads_seq", sequenceName = "threads_seq", allocationSize = 50)
     private Long id;
 
     private String title;
@@ -31,9 +48,27 @@ public class Thread {
             name = "thread_tags",
             joinColumns = @JoinColumn(name = "thread_id"),
             inverseJoinColumns = @JoinColumn(name = "tag_id"))
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "thread-tags")
     private Set<Tag> tags;
 
     private int forkCount = 0;
 
-    // Add timestamps if needed
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int bookmarkCount = 0;
+
+    // Bumped whenever anything shown in the thread's detail view changes; backs its ETag
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long revision = 0;
+
+    // Null for threads created before these columns existed. Taken from the database clock,
+    // like the now() that counter flushes write, so the export watermark compares one clock
+    @CreationTimestamp(source = SourceType.DB)
+    @Column(name = "created_at", updatable = false)
+    private Instant createdAt;
+
+    @UpdateTimestamp(source = SourceType.DB)
+    @Column(name = "updated_at")
+    private Instant updatedAt;
 }
@@ -0,0 +1,38 @@
+package com.threadspire.intern.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * Closure table over fork edges: one row per (ancestor, descendant) pair with the
+ * number of forks between them. Threads that were never forked have no rows.
+ */
+@Entity
+@Table(name = "thread_lineage", indexes = {
+        @Index(name = "idx_thread_lineage_descendant", columnList = "descendant_id, depth")
+})
+@IdClass(ThreadLineage.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ThreadLineage {
+    @Id
+    @Column(name = "ancestor_id")
+    private Long ancestorId;
+
+    @Id
+    @Column(name = "descendant_id")
+    private Long descendantId;
+
+    private int depth;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long ancestorId;
+        private Long descendantId;
+    }
+}
@@ -0,0 +1,26 @@
+package com.threadspire.intern.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Checkpoint of one trending thread's decayed score, so a restart does not lose
+ * what is hot. Written wholesale by TrendingService; never read on the request path.
+ */
+@Entity
+@Table(name = "trending_scores")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendingScore {
+    @Id
+    @Column(name = "thread_id")
+    private Long threadId;
+
+    private double score;       // decayed to scoredAt
+
+    @Column(name = "scored_at", nullable = false)
+    private Instant scoredAt;
+}
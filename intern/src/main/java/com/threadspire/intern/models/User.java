@@ -1,34 +1,50 @@
 package com.threadspire.intern.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.util.Set;
 
 @Entity
 @Table(name = "users")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@NaturalIdCache(region = "users-by-email")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class User {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
+    @NaturalId(mutable = true)
     @Column(unique = true, nullable = false)
     private String email;
 
+    // Accepted on register/login, never echoed back
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     @Column(nullable = false)
     private String password;
 
     private String name;
 
     // Relations
+    @JsonIgnore
     @OneToMany(mappedBy = "user")
     private Set<Thread> threads;
 
+    @JsonIgnore
     @OneToMany(mappedBy = "user")
     private Set<Bookmark> bookmarks;
 
+    @JsonIgnore
     @OneToMany(mappedBy = "user")
     private Set<Collection> collections;
 }
@@ -0,0 +1,41 @@
+package com.threadspire.intern.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Number of actions (threads, forks, reactions, bookmarks) a user performed on a UTC day.
+ */
+@Entity
+@Table(name = "user_daily_activity")
+@IdClass(UserDailyActivity.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserDailyActivity {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    private LocalDate activityDate;
+
+    private long events;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable, Comparable<Key> {
+        private Long userId;
+        private LocalDate activityDate;
+
+        @Override
+        public int compareTo(Key other) {
+            int byUser = userId.compareTo(other.userId);
+            return byUser != 0 ? byUser : activityDate.compareTo(other.activityDate);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.threadspire.intern.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * Reactions received on a user's segments, per {@link ReactionType}.
+ */
+@Entity
+@Table(name = "user_reaction_stats")
+@IdClass(UserReactionStats.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserReactionStats {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private ReactionType type;
+
+    private long total;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable, Comparable<Key> {
+        private Long userId;
+        private ReactionType type;
+
+        @Override
+        public int compareTo(Key other) {
+            int byUser = userId.compareTo(other.userId);
+            return byUser != 0 ? byUser : type.compareTo(other.type);
+        }
+    }
+}
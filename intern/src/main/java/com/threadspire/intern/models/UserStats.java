@@ -0,0 +1,30 @@
+package com.threadspire.intern.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Per-user analytics rollup. {@code AnalyticsService} buffers deltas after the
+ * counted event commits, and {@code AnalyticsBatchRepository} applies them as
+ * relative upserts on each flush, so rows trail writes by up to one flush interval.
+ */
+@Entity
+@Table(name = "user_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserStats {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    private long threadsCreated;
+
+    private long bookmarksReceived;
+
+    private long forksReceived;
+
+    private Long mostForkedThreadId;
+
+    private int mostForkedCount;
+}
@@ -0,0 +1,72 @@
+package com.threadspire.intern.repositories;
+
+import com.threadspire.intern.models.UserDailyActivity;
+import com.threadspire.intern.models.UserReactionStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.SortedMap;
+
+/**
+ * Applies buffered analytics rollup deltas as one relative upsert per rollup table,
+ * however many users they touch. Callers pass sorted maps so every flush locks
+ * rows in the same order.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AnalyticsBatchRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public void applyDeltas(SortedMap<Long, StatsDelta> statsDeltas,
+                            SortedMap<UserReactionStats.Key, Long> reactionDeltas,
+                            SortedMap<UserDailyActivity.Key, Long> activityDeltas) {
+        if (!statsDeltas.isEmpty()) {
+            jdbcTemplate.update("""
+                    INSERT INTO user_stats (user_id, threads_created, bookmarks_received, forks_received, most_forked_count)
+                    SELECT d.user_id, d.threads, d.bookmarks, d.forks, 0
+                    FROM unnest(?::bigint[], ?::bigint[], ?::bigint[], ?::bigint[]) AS d(user_id, threads, bookmarks, forks)
+                    ON CONFLICT (user_id) DO UPDATE SET
+                        threads_created = user_stats.threads_created + EXCLUDED.threads_created,
+                        bookmarks_received = user_stats.bookmarks_received + EXCLUDED.bookmarks_received,
+                        forks_received = user_stats.forks_received + EXCLUDED.forks_received
+                    """,
+                    statsDeltas.keySet().toArray(Long[]::new),
+                    statsDeltas.values().stream().map(StatsDelta::threadsCreated).toArray(Long[]::new),
+                    statsDeltas.values().stream().map(StatsDelta::bookmarksReceived).toArray(Long[]::new),
+                    statsDeltas.values().stream().map(StatsDelta::forksReceived).toArray(Long[]::new));
+        }
+
+        if (!reactionDeltas.isEmpty()) {
+            jdbcTemplate.update("""
+                    INSERT INTO user_reaction_stats (user_id, type, total)
+                    SELECT d.user_id, d.type, d.delta FROM unnest(?::bigint[], ?::varchar[], ?::bigint[]) AS d(user_id, type, delta)
+                    ON CONFLICT (user_id, type) DO UPDATE SET total = user_reaction_stats.total + EXCLUDED.total
+                    """,
+                    reactionDeltas.keySet().stream().map(UserReactionStats.Key::getUserId).toArray(Long[]::new),
+                    reactionDeltas.keySet().stream().map(key -> key.getType().name()).toArray(String[]::new),
+                    reactionDeltas.values().toArray(Long[]::new));
+        }
+
+        if (!activityDeltas.isEmpty()) {
+            jdbcTemplate.update("""
+                    INSERT INTO user_daily_activity (user_id, activity_date, events)
+                    SELECT d.user_id, d.activity_date, d.delta FROM unnest(?::bigint[], ?::varchar[]::date[], ?::bigint[]) AS d(user_id, activity_date, delta)
+                    ON CONFLICT (user_id, activity_date) DO UPDATE SET events = user_daily_activity.events + EXCLUDED.events
+                    """,
+                    activityDeltas.keySet().stream().map(UserDailyActivity.Key::getUserId).toArray(Long[]::new),
+                    activityDeltas.keySet().stream().map(key -> key.getActivityDate().toString()).toArray(String[]::new),
+                    activityDeltas.values().toArray(Long[]::new));
+        }
+    }
+
+    public record StatsDelta(long threadsCreated, long bookmarksReceived, long forksReceived) {
+        public StatsDelta plus(StatsDelta other) {
+            return new StatsDelta(threadsCreated + other.threadsCreated,
+                    bookmarksReceived + other.bookmarksReceived,
+                    forksReceived + other.forksReceived);
+        }
+    }
+}
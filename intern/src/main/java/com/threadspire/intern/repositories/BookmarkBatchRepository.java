@@ -0,0 +1,52 @@
+package com.threadspire.intern.repositories;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Bookmarks and unbookmarks many threads for one user in a single statement each,
+ * by id. Idempotency comes from the {@code (user_id, thread_id)} unique index.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookmarkBatchRepository {
+    private static final RowMapper<Change> CHANGE = (rs, n) -> new Change(rs.getLong(1), rs.getObject(2, Long.class));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return the threads that were not bookmarked before, with their owners; ids
+     *         of threads that don't exist are skipped
+     */
+    public List<Change> insertAll(Long userId, Long[] threadIds) {
+        return jdbcTemplate.query("""
+                WITH added AS (
+                    INSERT INTO bookmarks (id, user_id, thread_id, is_private)
+                    SELECT nextval('bookmarks_seq'), ?, t.id, true FROM threads t WHERE t.id = ANY (?)
+                    ON CONFLICT (user_id, thread_id) DO NOTHING
+                    RETURNING thread_id
+                )
+                SELECT a.thread_id, t.user_id FROM added a JOIN threads t ON t.id = a.thread_id
+                """, CHANGE, userId, threadIds);
+    }
+
+    /**
+     * @return the threads whose bookmark was removed, with their owners
+     */
+    public List<Change> deleteAll(Long userId, Long[] threadIds) {
+        return jdbcTemplate.query("""
+                WITH removed AS (
+                    DELETE FROM bookmarks WHERE user_id = ? AND thread_id = ANY (?)
+                    RETURNING thread_id
+                )
+                SELECT r.thread_id, t.user_id FROM removed r JOIN threads t ON t.id = r.thread_id
+                """, CHANGE, userId, threadIds);
+    }
+
+    public record Change(Long threadId, Long ownerId) {
+    }
+}
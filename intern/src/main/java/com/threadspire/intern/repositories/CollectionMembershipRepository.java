@@ -0,0 +1,121 @@
+package com.threadspire.intern.repositories;
+
+import com.threadspire.intern.models.CollectionMembership;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Reads and writes individual {@code collection_threads} rows. Members are ordered by
+ * {@code (position, thread_id)}, which is also the keyset used for paging, so no
+ * statement here reads more than the rows it returns or changes, except
+ * {@link #renumber}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CollectionMembershipRepository {
+    private static final RowMapper<Member> MEMBER = (rs, n) -> new Member(rs.getLong(1), rs.getLong(2));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Locks the collection row so concurrent edits of one collection apply one after
+     * another. Callers must be in a transaction.
+     *
+     * @return false if the collection doesn't exist or belongs to someone else
+     */
+    public boolean lockOwned(Long collectionId, Long userId) {
+        return !jdbcTemplate.queryForList("SELECT 1 FROM collections WHERE id = ? AND user_id = ? FOR UPDATE",
+                Integer.class, collectionId, userId).isEmpty();
+    }
+
+    /**
+     * Appends threads after the current last member, in the given order.
+     *
+     * @return ids of the threads added; existing members and unknown ids are skipped
+     */
+    public List<Long> append(Long collectionId, Long[] threadIds) {
+        return jdbcTemplate.queryForList("""
+                INSERT INTO collection_threads (collection_id, thread_id, position)
+                SELECT ?, t.id, last.position + ids.ord * ?
+                FROM unnest(?::bigint[]) WITH ORDINALITY AS ids (thread_id, ord)
+                JOIN threads t ON t.id = ids.thread_id
+                CROSS JOIN (SELECT COALESCE(max(position), 0) AS position
+                            FROM collection_threads WHERE collection_id = ?) last
+                ON CONFLICT (collection_id, thread_id) DO NOTHING
+                RETURNING thread_id
+                """, Long.class, collectionId, CollectionMembership.GAP, threadIds, collectionId);
+    }
+
+    public boolean remove(Long collectionId, Long threadId) {
+        return jdbcTemplate.update("DELETE FROM collection_threads WHERE collection_id = ? AND thread_id = ?",
+                collectionId, threadId) > 0;
+    }
+
+    /**
+     * Members after the given one in list order, or from the start when {@code after}
+     * is null.
+     */
+    public List<Member> page(Long collectionId, Member after, int limit) {
+        if (after == null) {
+            return jdbcTemplate.query("""
+                    SELECT thread_id, position FROM collection_threads WHERE collection_id = ?
+                    ORDER BY position, thread_id LIMIT ?
+                    """, MEMBER, collectionId, limit);
+        }
+        return jdbcTemplate.query("""
+                SELECT thread_id, position FROM collection_threads
+                WHERE collection_id = ? AND (position, thread_id) > (?, ?)
+                ORDER BY position, thread_id LIMIT ?
+                """, MEMBER, collectionId, after.position(), after.threadId(), limit);
+    }
+
+    public Long positionOf(Long collectionId, Long threadId) {
+        return jdbcTemplate.query("SELECT position FROM collection_threads WHERE collection_id = ? AND thread_id = ?",
+                rs -> rs.next() ? rs.getLong(1) : null, collectionId, threadId);
+    }
+
+    /**
+     * Position of the first member, or of the member following {@code after}, not
+     * counting {@code excludedThreadId}; null if there is none.
+     */
+    public Long nextPosition(Long collectionId, Member after, Long excludedThreadId) {
+        if (after == null) {
+            return jdbcTemplate.query("""
+                    SELECT position FROM collection_threads WHERE collection_id = ? AND thread_id <> ?
+                    ORDER BY position, thread_id LIMIT 1
+                    """, rs -> rs.next() ? rs.getLong(1) : null, collectionId, excludedThreadId);
+        }
+        return jdbcTemplate.query("""
+                SELECT position FROM collection_threads
+                WHERE collection_id = ? AND thread_id <> ? AND (position, thread_id) > (?, ?)
+                ORDER BY position, thread_id LIMIT 1
+                """, rs -> rs.next() ? rs.getLong(1) : null,
+                collectionId, excludedThreadId, after.position(), after.threadId());
+    }
+
+    public void setPosition(Long collectionId, Long threadId, long position) {
+        jdbcTemplate.update("UPDATE collection_threads SET position = ? WHERE collection_id = ? AND thread_id = ?",
+                position, collectionId, threadId);
+    }
+
+    /**
+     * Respaces every member of the collection {@link CollectionMembership#GAP} apart,
+     * keeping their order. Only needed once repeated moves into the same spot have used
+     * up the gap between two neighbours.
+     */
+    public void renumber(Long collectionId) {
+        jdbcTemplate.update("""
+                UPDATE collection_threads c SET position = r.rn * ?
+                FROM (SELECT thread_id, row_number() OVER (ORDER BY position, thread_id) AS rn
+                      FROM collection_threads WHERE collection_id = ?) r
+                WHERE c.collection_id = ? AND c.thread_id = r.thread_id
+                """, CollectionMembership.GAP, collectionId, collectionId);
+    }
+
+    public record Member(Long threadId, Long position) {
+    }
+}
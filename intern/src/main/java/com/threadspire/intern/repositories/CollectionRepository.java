@@ -1,9 +1,20 @@
 package com.threadspire.intern.repositories;
 import com.threadspire.intern.models.Collection;
+import com.threadspire.intern.repositories.projections.CollectionSummaryView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
 public interface CollectionRepository extends JpaRepository<Collection, Long> {
     List<Collection> findByUserId(Long userId);
+
+    // Member counts come from the index; no member rows or threads are loaded
+    @Query("""
+            SELECT c.id AS id, c.name AS name,
+                   (SELECT count(m) FROM CollectionMembership m WHERE m.collectionId = c.id) AS memberCount
+            FROM Collection c WHERE c.user.id = :userId ORDER BY c.id
+            """)
+    List<CollectionSummaryView> findSummariesByUserId(@Param("userId") Long userId);
 }
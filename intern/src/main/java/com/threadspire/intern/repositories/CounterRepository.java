@@ -0,0 +1,166 @@
+package com.threadspire.intern.repositories;
+
+import com.threadspire.intern.dto.ThreadCounts;
+import com.threadspire.intern.models.PostReactionCount;
+import com.threadspire.intern.models.ReactionType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Applies counter deltas as relative updates ({@code x = x + ?}) so concurrent
+ * flushes and entity writes never overwrite each other. Callers pass sorted
+ * maps so every flush locks rows in the same order.
+ * <p>
+ * Every thread whose counts change also gets its {@code revision} bumped and its
+ * {@code updated_at} set, so ETags and the export watermark both see the change.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CounterRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return ids of the threads whose counts changed
+     */
+    @Transactional
+    public SortedSet<Long> applyDeltas(SortedMap<Long, Long> forkDeltas,
+                                       SortedMap<Long, Long> bookmarkDeltas,
+                                       SortedMap<PostReactionCount.Key, Long> reactionDeltas) {
+        SortedSet<Long> changed = new TreeSet<>(forkDeltas.keySet());
+        changed.addAll(bookmarkDeltas.keySet());
+        addToThreadColumn("fork_count", forkDeltas);
+        addToThreadColumn("bookmark_count", bookmarkDeltas);
+
+        if (!forkDeltas.isEmpty()) {
+            // Fork counts only grow here, so the owner's most-forked thread can be updated in place
+            List<Object[]> args = new ArrayList<>(forkDeltas.size());
+            forkDeltas.keySet().forEach(threadId -> args.add(new Object[]{threadId}));
+            jdbcTemplate.batchUpdate("""
+                    UPDATE user_stats s SET most_forked_thread_id = t.id, most_forked_count = t.fork_count
+                    FROM threads t
+                    WHERE t.id = ? AND s.user_id = t.user_id AND t.fork_count > s.most_forked_count
+                    """, args);
+        }
+
+        if (!reactionDeltas.isEmpty()) {
+            List<Object[]> args = new ArrayList<>(reactionDeltas.size());
+            reactionDeltas.forEach((key, delta) -> args.add(new Object[]{key.getPostId(), key.getType().name(), delta}));
+            jdbcTemplate.batchUpdate("""
+                    INSERT INTO post_reaction_counts (post_id, type, total) VALUES (?, ?, ?)
+                    ON CONFLICT (post_id, type) DO UPDATE SET total = post_reaction_counts.total + EXCLUDED.total
+                    """, args);
+
+            Long[] postIds = reactionDeltas.keySet().stream().map(PostReactionCount.Key::getPostId).distinct()
+                    .toArray(Long[]::new);
+            changed.addAll(jdbcTemplate.queryForList("""
+                    UPDATE threads SET revision = revision + 1, updated_at = now()
+                    WHERE id IN (SELECT thread_id FROM posts WHERE id = ANY (?))
+                    RETURNING id
+                    """, Long.class, (Object) postIds));
+        }
+        return changed;
+    }
+
+    /**
+     * Current counts and revision of the given threads, read in one statement so each
+     * thread's counts are those of its revision. Runs outside a transaction, so it
+     * reads the primary even when replicas are configured. Missing threads are left out.
+     */
+    public Map<Long, ThreadCounts> findCounts(Collection<Long> threadIds) {
+        Map<Long, ThreadCounts> counts = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT t.id, t.revision, t.fork_count, t.bookmark_count, p.id AS post_id, c.type, c.total
+                FROM threads t
+                LEFT JOIN (posts p JOIN post_reaction_counts c ON c.post_id = p.id) ON p.thread_id = t.id
+                WHERE t.id = ANY (?)
+                """, rs -> {
+            ThreadCounts thread = counts.computeIfAbsent(rs.getLong("id"),
+                    id -> new ThreadCounts(id, 0, 0, 0, new HashMap<>()));
+            thread.setRevision(rs.getLong("revision"));
+            thread.setForks(rs.getLong("fork_count"));
+            thread.setBookmarks(rs.getLong("bookmark_count"));
+            long postId = rs.getLong("post_id");
+            if (!rs.wasNull()) {
+                thread.getReactions().computeIfAbsent(postId, k -> new EnumMap<>(ReactionType.class))
+                        .put(ReactionType.valueOf(rs.getString("type")), rs.getLong("total"));
+            }
+        }, (Object) threadIds.toArray(Long[]::new));
+        return counts;
+    }
+
+    /**
+     * Recomputes every tally from the source rows. Used after an unclean shutdown,
+     * where deltas still buffered in memory were lost but the forks, bookmarks and
+     * reactions they described were already committed. Only rows whose value differs
+     * are written, so revisions and {@code updated_at} stay put for the rest.
+     * <p>
+     * Deltas still buffered by another instance are applied on top of the values
+     * written here and counted twice, so run it only when no other instance is up.
+     */
+    @Transactional
+    public void reconcile() {
+        jdbcTemplate.update("""
+                UPDATE threads t SET revision = t.revision + 1, updated_at = now(), fork_count = COALESCE(
+                    (SELECT count(*) FROM forks f WHERE f.original_thread_id = t.id), 0)
+                WHERE t.fork_count <> COALESCE(
+                    (SELECT count(*) FROM forks f WHERE f.original_thread_id = t.id), 0)
+                """);
+        jdbcTemplate.update("""
+                UPDATE threads t SET revision = t.revision + 1, updated_at = now(), bookmark_count = COALESCE(
+                    (SELECT count(*) FROM bookmarks b WHERE b.thread_id = t.id), 0)
+                WHERE t.bookmark_count <> COALESCE(
+                    (SELECT count(*) FROM bookmarks b WHERE b.thread_id = t.id), 0)
+                """);
+        jdbcTemplate.update("""
+                WITH removed AS (
+                    DELETE FROM post_reaction_counts c
+                    WHERE NOT EXISTS (SELECT 1 FROM reactions r WHERE r.post_id = c.post_id AND r.type = c.type)
+                    RETURNING c.post_id
+                )
+                UPDATE threads SET revision = revision + 1, updated_at = now()
+                WHERE id IN (SELECT p.thread_id FROM posts p JOIN removed ON removed.post_id = p.id)
+                """);
+        jdbcTemplate.update("""
+                WITH fixed AS (
+                    INSERT INTO post_reaction_counts (post_id, type, total)
+                    SELECT r.post_id, r.type, count(*) FROM reactions r
+                    WHERE r.post_id IS NOT NULL
+                    GROUP BY r.post_id, r.type
+                    ON CONFLICT (post_id, type) DO UPDATE SET total = EXCLUDED.total
+                    WHERE post_reaction_counts.total <> EXCLUDED.total
+                    RETURNING post_id
+                )
+                UPDATE threads SET revision = revision + 1, updated_at = now()
+                WHERE id IN (SELECT p.thread_id FROM posts p JOIN fixed ON fixed.post_id = p.id)
+                """);
+        jdbcTemplate.update("""
+                UPDATE user_stats s SET most_forked_thread_id = m.id, most_forked_count = m.fork_count
+                FROM (SELECT DISTINCT ON (user_id) user_id, id, fork_count FROM threads
+                      WHERE user_id IS NOT NULL AND fork_count > 0
+                      ORDER BY user_id, fork_count DESC, id) m
+                WHERE s.user_id = m.user_id
+                  AND (s.most_forked_thread_id IS DISTINCT FROM m.id OR s.most_forked_count <> m.fork_count)
+                """);
+    }
+
+    private void addToThreadColumn(String column, Map<Long, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        deltas.forEach((threadId, delta) -> args.add(new Object[]{delta, threadId}));
+        jdbcTemplate.batchUpdate("UPDATE threads SET " + column + " = " + column + " + ?, revision = revision + 1, updated_at = now() WHERE id = ?", args);
+    }
+}
@@ -0,0 +1,19 @@
+package com.threadspire.intern.repositories;
+
+import com.threadspire.intern.models.PostReactionCount;
+import com.threadspire.intern.repositories.projections.ReactionCountView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface PostReactionCountRepository extends JpaRepository<PostReactionCount, PostReactionCount.Key> {
+
+    @Query("""
+            select c.postId as postId, c.type as type, c.total as total
+            from PostReactionCount c
+            where c.postId in (select p.id from Post p where p.thread.id = :threadId)
+            """)
+    List<ReactionCountView> findByThreadId(@Param("threadId") Long threadId);
+}
@@ -2,8 +2,17 @@ package com.threadspire.intern.repositories;
 
 
 import com.threadspire.intern.models.Post;
+import com.threadspire.intern.repositories.projections.SegmentView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 public interface PostRepository extends JpaRepository<Post, Long> {
-}
 
+    @Query("select p.id as id, p.position as position, p.bodyHash as bodyHash from Post p where p.thread.id = :threadId order by p.position")
+    List<SegmentView> findSegmentsByThreadId(@Param("threadId") Long threadId);
+
+    List<Post> findByThreadIdOrderByPosition(Long threadId);
+}
@@ -0,0 +1,68 @@
+package com.threadspire.intern.repositories;
+
+import com.threadspire.intern.models.ReactionType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Adds many reactions in a single statement, by id. A user already reacting to a
+ * post is skipped through the {@code (user_id, post_id)} unique index.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReactionBatchRepository {
+    private static final RowMapper<Added> ADDED = (rs, n) -> new Added(rs.getLong(1), rs.getLong(2),
+            ReactionType.valueOf(rs.getString(3)), rs.getObject(4, Long.class), rs.getObject(5, Long.class));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param postIds and {@code types} are parallel arrays without repeated post ids
+     * @return the reactions that were added, with their thread and its owner; ids of
+     *         posts that don't exist are skipped
+     */
+    public List<Added> insertAll(Long userId, Long[] postIds, String[] types) {
+        return jdbcTemplate.query("""
+                WITH added AS (
+                    INSERT INTO reactions (id, user_id, post_id, type)
+                    SELECT nextval('reactions_seq'), ?, p.id, i.type
+                    FROM unnest(?::bigint[], ?::varchar[]) AS i(post_id, type)
+                    JOIN posts p ON p.id = i.post_id
+                    ON CONFLICT (user_id, post_id) DO NOTHING
+                    RETURNING post_id, type
+                )
+                SELECT ?::bigint, a.post_id, a.type, p.thread_id, t.user_id
+                FROM added a JOIN posts p ON p.id = a.post_id LEFT JOIN threads t ON t.id = p.thread_id
+                """, ADDED, userId, postIds, types, userId);
+    }
+
+    /**
+     * Same as {@link #insertAll(Long, Long[], String[])} for reactions from many users.
+     * Unknown users are skipped like unknown posts, so one bad id can't fail the batch.
+     *
+     * @param userIds, {@code postIds} and {@code types} are parallel arrays without
+     *        repeated (user, post) pairs
+     */
+    public List<Added> insertForUsers(Long[] userIds, Long[] postIds, String[] types) {
+        return jdbcTemplate.query("""
+                WITH added AS (
+                    INSERT INTO reactions (id, user_id, post_id, type)
+                    SELECT nextval('reactions_seq'), u.id, p.id, i.type
+                    FROM unnest(?::bigint[], ?::bigint[], ?::varchar[]) AS i(user_id, post_id, type)
+                    JOIN users u ON u.id = i.user_id
+                    JOIN posts p ON p.id = i.post_id
+                    ON CONFLICT (user_id, post_id) DO NOTHING
+                    RETURNING user_id, post_id, type
+                )
+                SELECT a.user_id, a.post_id, a.type, p.thread_id, t.user_id
+                FROM added a JOIN posts p ON p.id = a.post_id LEFT JOIN threads t ON t.id = p.thread_id
+                """, ADDED, userIds, postIds, types);
+    }
+
+    public record Added(Long userId, Long postId, ReactionType type, Long threadId, Long ownerId) {
+    }
+}
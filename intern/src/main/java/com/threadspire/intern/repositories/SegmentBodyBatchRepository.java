@@ -0,0 +1,29 @@
+package com.threadspire.intern.repositories;
+
+import com.threadspire.intern.models.SegmentBody;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class SegmentBodyBatchRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Writes the given bodies in one batch. Bodies are content-addressed, so a hash
+     * that already exists holds the same text and is left untouched.
+     */
+    public void insertMissing(Collection<SegmentBody> bodies) {
+        List<Object[]> args = bodies.stream()
+                .map(body -> new Object[]{body.getHash(), body.getPayload(), body.isCompressed()})
+                .toList();
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO segment_bodies (hash, payload, compressed) VALUES (?, ?, ?)
+                ON CONFLICT (hash) DO NOTHING
+                """, args);
+    }
+}
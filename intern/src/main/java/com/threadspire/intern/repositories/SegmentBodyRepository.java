@@ -0,0 +1,7 @@
+package com.threadspire.intern.repositories;
+
+import com.threadspire.intern.models.SegmentBody;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface SegmentBodyRepository extends JpaRepository<SegmentBody, String> {
+}
@@ -0,0 +1,55 @@
+package com.threadspire.intern.repositories;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+@Repository
+@RequiredArgsConstructor
+public class TagBatchRepository {
+    private static final int SCAN_FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts the given names in one batch, skipping any that already exist or are
+     * being inserted concurrently by another transaction (unique tags.name).
+     */
+    public void insertMissing(Collection<String> names) {
+        List<Object[]> args = names.stream().map(name -> new Object[]{name}).toList();
+        jdbcTemplate.batchUpdate("INSERT INTO tags (id, name) VALUES (nextval('tags_seq'), ?) ON CONFLICT (name) DO NOTHING", args);
+    }
+
+    // The scans rebuild in-memory state that events only keep current from then on, so they
+    // must see every committed row: not read-only, which keeps them off a lagging replica
+
+    /** Streams (thread id, published) for every thread. */
+    @Transactional
+    public void scanThreads(BiConsumer<Long, Boolean> consumer) {
+        scan("SELECT id, published FROM threads",
+                rs -> consumer.accept(rs.getLong(1), rs.getBoolean(2)));
+    }
+
+    /** Streams (thread id, tag name) for every tag link. */
+    @Transactional
+    public void scanThreadTags(BiConsumer<Long, String> consumer) {
+        scan("SELECT tt.thread_id, g.name FROM thread_tags tt JOIN tags g ON g.id = tt.tag_id",
+                rs -> consumer.accept(rs.getLong(1), rs.getString(2)));
+    }
+
+    // The driver only honours the fetch size inside a transaction; without one it buffers every row
+    private void scan(String sql, RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setFetchSize(SCAN_FETCH_SIZE);
+            return statement;
+        }, handler);
+    }
+}
@@ -0,0 +1,18 @@
+package com.threadspire.intern.repositories;
+
+import com.threadspire.intern.models.Tag;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Lookups by the {@code name} natural id, answered from the second-level cache
+ * for cached tags and with one query for the rest.
+ */
+public interface TagNaturalIdRepository {
+    Optional<Tag> findByName(String name);
+
+    /** Tags that exist among {@code names}, in no particular order. */
+    List<Tag> findByNameIn(Collection<String> names);
+}
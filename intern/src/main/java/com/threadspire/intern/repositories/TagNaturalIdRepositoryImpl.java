@@ -0,0 +1,35 @@
+package com.threadspire.intern.repositories;
+
+import com.threadspire.intern.models.Tag;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class TagNaturalIdRepositoryImpl implements TagNaturalIdRepository {
+    private final EntityManager entityManager;
+
+    @Override
+    public Optional<Tag> findByName(String name) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Tag.class).loadOptional(name);
+    }
+
+    @Override
+    public List<Tag> findByNameIn(Collection<String> names) {
+        if (names.isEmpty()) {
+            return List.of();
+        }
+        // Unordered: Hibernate's IN-predicate loader cannot return in input order. Missing names come back as nulls
+        return entityManager.unwrap(Session.class).byMultipleNaturalId(Tag.class)
+                .enableOrderedReturn(false)
+                .multiLoad(new ArrayList<>(names)).stream()
+                .filter(Objects::nonNull)
+                .toList();
+    }
+}
@@ -3,9 +3,6 @@ package com.threadspire.intern.repositories;
 import com.threadspire.intern.models.Tag;
 import org.springframework.data.jpa.repository.JpaRepository;
 
-import java.util.Optional;
-
-public interface TagRepository extends JpaRepository<Tag, Long> {
-    Optional<Tag> findByName(String name);
+// Name lookups come from TagNaturalIdRepository and are served by the second-level cache
+public interface TagRepository extends JpaRepository<Tag, Long>, TagNaturalIdRepository {
 }
-
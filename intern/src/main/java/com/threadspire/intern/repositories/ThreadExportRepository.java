@@ -0,0 +1,105 @@
+package com.threadspire.intern.repositories;
+
+import com.threadspire.intern.models.SegmentBody;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads threads for export a page at a time: one row per segment, grouped by thread
+ * and in segment order, with the thread's tags on every row. Pages are keyed on
+ * {@code (updated_at, id)} and each is one short statement, so no connection or
+ * transaction is held while the caller writes a page out.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ThreadExportRepository {
+    private static final String EXPORT_SQL = """
+            WITH page AS (
+                SELECT t.id FROM threads t
+                WHERE (t.published OR t.user_id = ?)
+                %s
+                ORDER BY t.updated_at NULLS FIRST, t.id
+                LIMIT ?
+            )
+            SELECT t.id, t.title, t.published, t.user_id, t.fork_count, t.bookmark_count,
+                   t.created_at, t.updated_at, tg.names, p.position, b.hash, b.payload, b.compressed
+            FROM page JOIN threads t ON t.id = page.id
+            LEFT JOIN LATERAL (
+                SELECT array_agg(g.name ORDER BY g.name) AS names
+                FROM thread_tags tt JOIN tags g ON g.id = tt.tag_id
+                WHERE tt.thread_id = t.id
+            ) tg ON true
+            LEFT JOIN posts p ON p.thread_id = t.id
+            LEFT JOIN segment_bodies b ON b.hash = p.body_hash
+            ORDER BY t.updated_at NULLS FIRST, t.id, p.position
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Up to {@code limit} threads updated at or after {@code since} (every thread when
+     * null) and ordered after {@code after} (from the start when null), oldest change
+     * first. Drafts are only included when {@code viewerId} wrote them.
+     */
+    public List<Row> findPage(Instant since, Long viewerId, Position after, int limit) {
+        StringBuilder where = new StringBuilder();
+        List<Object> args = new ArrayList<>();
+        args.add(viewerId);
+        if (since != null) {
+            where.append(" AND t.updated_at >= ?");
+            args.add(Timestamp.from(since));
+        }
+        if (after != null && after.updatedAt() == null) {
+            where.append(" AND (t.updated_at IS NOT NULL OR t.id > ?)");
+            args.add(after.threadId());
+        } else if (after != null) {
+            where.append(" AND (t.updated_at > ? OR (t.updated_at = ? AND t.id > ?))");
+            args.add(Timestamp.from(after.updatedAt()));
+            args.add(Timestamp.from(after.updatedAt()));
+            args.add(after.threadId());
+        }
+        args.add(limit);
+        return jdbcTemplate.query(EXPORT_SQL.formatted(where), (rs, rowNum) -> toRow(rs), args.toArray());
+    }
+
+    private static Row toRow(ResultSet rs) throws SQLException {
+        Array tags = rs.getArray("names");
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        String hash = rs.getString("hash");
+        return new Row(
+                rs.getLong("id"),
+                rs.getString("title"),
+                rs.getBoolean("published"),
+                rs.getObject("user_id", Long.class),
+                rs.getInt("fork_count"),
+                rs.getInt("bookmark_count"),
+                createdAt == null ? null : createdAt.toInstant(),
+                updatedAt == null ? null : updatedAt.toInstant(),
+                tags == null ? new String[0] : (String[]) tags.getArray(),
+                rs.getObject("position", Integer.class),
+                hash == null ? null : new SegmentBody(hash, rs.getBytes("payload"), rs.getBoolean("compressed")));
+    }
+
+    /** Where a page ends; the next page starts after it. */
+    public record Position(Instant updatedAt, long threadId) {
+    }
+
+    /**
+     * One segment of one thread; {@code position} and {@code body} are null for a
+     * thread without segments.
+     */
+    public record Row(long threadId, String title, boolean published, Long authorId, int forkCount,
+                      int bookmarkCount, Instant createdAt, Instant updatedAt, String[] tags,
+                      Integer position, SegmentBody body) {
+    }
+}
@@ -0,0 +1,60 @@
+package com.threadspire.intern.repositories;
+
+import com.threadspire.intern.models.ThreadLineage;
+import com.threadspire.intern.repositories.projections.LineageNodeView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ThreadLineageRepository extends JpaRepository<ThreadLineage, ThreadLineage.Key> {
+
+    // Child inherits every ancestor of its parent one level further away, plus the parent itself
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "thread_lineage"))
+    @Query(value = """
+            INSERT INTO thread_lineage (ancestor_id, descendant_id, depth)
+            SELECT ancestor_id, CAST(:childId AS bigint), depth + 1 FROM thread_lineage WHERE descendant_id = :parentId
+            UNION ALL
+            SELECT CAST(:parentId AS bigint), CAST(:childId AS bigint), 1
+            """, nativeQuery = true)
+    void linkFork(@Param("parentId") Long parentId, @Param("childId") Long childId);
+
+    @Query("""
+            select t.id as threadId, t.title as title, l.depth as depth, t.forkCount as forkCount
+            from ThreadLineage l join Thread t on t.id = l.ancestorId
+            where l.descendantId = :threadId
+            order by l.depth
+            """)
+    List<LineageNodeView> findAncestors(@Param("threadId") Long threadId);
+
+    @Query("select count(l) from ThreadLineage l where l.ancestorId = :threadId and l.depth <= :maxDepth")
+    long countDescendants(@Param("threadId") Long threadId, @Param("maxDepth") int maxDepth);
+
+    @Query("""
+            select t.id as threadId, t.title as title, l.depth as depth, t.forkCount as forkCount
+            from ThreadLineage l join Thread t on t.id = l.descendantId
+            where l.ancestorId = :threadId and l.depth <= :maxDepth
+              and (:afterId is null or l.descendantId > :afterId)
+            order by l.descendantId
+            """)
+    List<LineageNodeView> findDescendants(@Param("threadId") Long threadId,
+                                          @Param("maxDepth") int maxDepth,
+                                          @Param("afterId") Long afterId,
+                                          Pageable pageable);
+
+    // No index can serve this order (fork_count is on threads), so the whole descendant set is sorted
+    @Query("""
+            select t.id as threadId, t.title as title, l.depth as depth, t.forkCount as forkCount
+            from ThreadLineage l join Thread t on t.id = l.descendantId
+            where l.ancestorId = :threadId
+            order by t.forkCount desc, t.id
+            """)
+    List<LineageNodeView> findMostForkedDescendants(@Param("threadId") Long threadId, Pageable pageable);
+}
@@ -1,6 +1,58 @@
 package com.threadspire.intern.repositories;
 import com.threadspire.intern.models.Thread;
+import com.threadspire.intern.repositories.projections.ThreadDetailHeaderView;
+import com.threadspire.intern.repositories.projections.ThreadHeaderView;
+import com.threadspire.intern.repositories.projections.ThreadTagView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface ThreadRepository extends JpaRepository<Thread, Long> {
+
+    // Keyset page ordered by id desc; pass the last id of the previous page as beforeId.
+    @Query("""
+            select t.id as id, t.title as title, u.name as authorName,
+                   t.forkCount as forkCount, size(t.posts) as segmentCount
+            from Thread t left join t.user u
+            where (:published is null or t.published = :published)
+              and (:authorId is null or u.id = :authorId)
+              and (:beforeId is null or t.id < :beforeId)
+            order by t.id desc
+            """)
+    List<ThreadHeaderView> findFeedPage(@Param("published") Boolean published,
+                                        @Param("authorId") Long authorId,
+                                        @Param("beforeId") Long beforeId,
+                                        Pageable pageable);
+
+    @Query("""
+            select t.id as id, t.title as title, u.name as authorName,
+                   t.forkCount as forkCount, size(t.posts) as segmentCount
+            from Thread t left join t.user u
+            where t.id in :ids
+            """)
+    List<ThreadHeaderView> findHeadersByIds(@Param("ids") List<Long> ids);
+
+    @Query("""
+            select t.id as id, t.title as title, t.published as published,
+                   u.id as authorId, u.name as authorName, t.revision as revision,
+                   t.forkCount as forkCount, t.bookmarkCount as bookmarkCount
+            from Thread t left join t.user u
+            where t.id = :id
+            """)
+    Optional<ThreadDetailHeaderView> findDetailHeaderById(@Param("id") Long id);
+
+    @Query("select t.revision from Thread t where t.id = :id")
+    Optional<Long> findRevisionById(@Param("id") Long id);
+
+    // Cached: tag links only change through Hibernate, which invalidates the result on write
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select t.id as threadId, tg.name as name from Thread t join t.tags tg where t.id in :ids")
+    List<ThreadTagView> findTagNamesByThreadIds(@Param("ids") List<Long> ids);
 }
@@ -0,0 +1,94 @@
+package com.threadspire.intern.repositories;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+
+/**
+ * The {@code thread_search} table: one weighted tsvector per thread (title A, segment
+ * text B) behind a GIN index. Created by schema-updates.sql since JPA has no tsvector type.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ThreadSearchRepository {
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /** Inserts or replaces the documents of the given threads, one batch. */
+    public void upsertAll(List<Document> documents) {
+        MapSqlParameterSource[] args = documents.stream()
+                .map(d -> new MapSqlParameterSource()
+                        .addValue("threadId", d.threadId())
+                        .addValue("title", d.title() == null ? "" : d.title())
+                        .addValue("body", d.body()))
+                .toArray(MapSqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO thread_search (thread_id, document)
+                VALUES (:threadId, setweight(to_tsvector('english', :title), 'A')
+                                || setweight(to_tsvector('english', :body), 'B'))
+                ON CONFLICT (thread_id) DO UPDATE SET document = EXCLUDED.document
+                """, args);
+    }
+
+    /**
+     * Ids of published threads matching {@code query} (web search syntax) and carrying
+     * every tag in {@code tags}, best match first. Every match is ranked, so a common
+     * term costs a ts_rank per matching thread; only the top {@code offset + limit}
+     * are kept while sorting.
+     */
+    public List<Long> search(String query, Collection<String> tags, int limit, int offset) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("query", query)
+                .addValue("limit", limit)
+                .addValue("offset", offset);
+        String tagFilter = "";
+        if (!tags.isEmpty()) {
+            tagFilter = """
+                    AND s.thread_id IN (SELECT tt.thread_id FROM thread_tags tt JOIN tags g ON g.id = tt.tag_id
+                                        WHERE g.name IN (:tags) GROUP BY tt.thread_id HAVING count(*) = :tagCount)
+                    """;
+            params.addValue("tags", tags).addValue("tagCount", tags.size());
+        }
+        return jdbcTemplate.queryForList("""
+                WITH q AS (SELECT websearch_to_tsquery('english', :query) AS query)
+                SELECT s.thread_id
+                FROM thread_search s JOIN threads t ON t.id = s.thread_id, q
+                WHERE s.document @@ q.query AND t.published
+                """ + tagFilter + """
+                ORDER BY ts_rank(s.document, q.query) DESC, s.thread_id DESC
+                LIMIT :limit OFFSET :offset
+                """, params, Long.class);
+    }
+
+    /** Threads after {@code afterId} that have no document yet, in id order, with their titles. */
+    public Map<Long, String> findUnindexed(long afterId, int limit) {
+        Map<Long, String> titles = new LinkedHashMap<>();
+        jdbcTemplate.query("""
+                SELECT t.id, t.title FROM threads t
+                WHERE t.id > :afterId
+                  AND NOT EXISTS (SELECT 1 FROM thread_search s WHERE s.thread_id = t.id)
+                ORDER BY t.id LIMIT :limit
+                """, Map.of("afterId", afterId, "limit", limit), rs -> {
+            titles.put(rs.getLong("id"), rs.getString("title"));
+        });
+        return titles;
+    }
+
+    /** Segment body hashes per thread, in segment order. */
+    public Map<Long, List<String>> findBodyHashes(Collection<Long> threadIds) {
+        Map<Long, List<String>> hashes = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT thread_id, body_hash FROM posts
+                WHERE thread_id IN (:ids) AND body_hash IS NOT NULL
+                ORDER BY thread_id, position
+                """, Map.of("ids", threadIds), rs -> {
+            hashes.computeIfAbsent(rs.getLong("thread_id"), k -> new ArrayList<>()).add(rs.getString("body_hash"));
+        });
+        return hashes;
+    }
+
+    public record Document(Long threadId, String title, String body) {
+    }
+}
@@ -0,0 +1,27 @@
+package com.threadspire.intern.repositories;
+
+import com.threadspire.intern.models.TrendingScore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class TrendingScoreBatchRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Replaces the whole checkpoint with {@code scores} in one transaction. */
+    @Transactional
+    public void replaceAll(Collection<TrendingScore> scores) {
+        jdbcTemplate.update("DELETE FROM trending_scores");
+        List<Object[]> args = scores.stream()
+                .map(s -> new Object[]{s.getThreadId(), s.getScore(), Timestamp.from(s.getScoredAt())})
+                .toList();
+        jdbcTemplate.batchUpdate("INSERT INTO trending_scores (thread_id, score, scored_at) VALUES (?, ?, ?)", args);
+    }
+}
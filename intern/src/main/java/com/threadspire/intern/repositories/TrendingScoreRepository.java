@@ -0,0 +1,7 @@
+package com.threadspire.intern.repositories;
+
+import com.threadspire.intern.models.TrendingScore;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface TrendingScoreRepository extends JpaRepository<TrendingScore, Long> {
+}
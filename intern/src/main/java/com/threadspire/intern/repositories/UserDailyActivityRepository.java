@@ -0,0 +1,11 @@
+package com.threadspire.intern.repositories;
+
+import com.threadspire.intern.models.UserDailyActivity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface UserDailyActivityRepository extends JpaRepository<UserDailyActivity, UserDailyActivity.Key> {
+    List<UserDailyActivity> findByUserIdAndActivityDateBetween(Long userId, LocalDate from, LocalDate to);
+}
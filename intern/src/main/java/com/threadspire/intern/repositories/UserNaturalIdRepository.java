@@ -0,0 +1,13 @@
+package com.threadspire.intern.repositories;
+
+import com.threadspire.intern.models.User;
+
+import java.util.Optional;
+
+/**
+ * Lookups by the {@code email} natural id. Unlike a derived query, a natural-id
+ * load is answered from the second-level cache when the user is cached.
+ */
+public interface UserNaturalIdRepository {
+    Optional<User> findByEmail(String email);
+}
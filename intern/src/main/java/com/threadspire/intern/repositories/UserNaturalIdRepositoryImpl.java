@@ -0,0 +1,18 @@
+package com.threadspire.intern.repositories;
+
+import com.threadspire.intern.models.User;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+    private final EntityManager entityManager;
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(User.class).loadOptional(email);
+    }
+}
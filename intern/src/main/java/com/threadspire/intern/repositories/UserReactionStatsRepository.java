@@ -0,0 +1,27 @@
+package com.threadspire.intern.repositories;
+
+import com.threadspire.intern.models.UserReactionStats;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
+
+public interface UserReactionStatsRepository extends JpaRepository<UserReactionStats, UserReactionStats.Key> {
+    List<UserReactionStats> findByUserId(Long userId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_reaction_stats"))
+    @Query(value = """
+            INSERT INTO user_reaction_stats (user_id, type, total)
+            SELECT t.user_id, r.type, count(*)
+            FROM reactions r JOIN posts p ON p.id = r.post_id JOIN threads t ON t.id = p.thread_id
+            WHERE t.user_id IS NOT NULL
+            GROUP BY t.user_id, r.type
+            ON CONFLICT (user_id, type) DO NOTHING
+            """, nativeQuery = true)
+    int backfill();
+}
@@ -2,8 +2,6 @@ package com.threadspire.intern.repositories;
 import com.threadspire.intern.models.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 
-import java.util.Optional;
-
-public interface UserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByEmail(String email);
+// findByEmail comes from UserNaturalIdRepository and is served by the second-level cache
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdRepository {
 }
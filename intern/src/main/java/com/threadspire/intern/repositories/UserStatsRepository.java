@@ -0,0 +1,32 @@
+package com.threadspire.intern.repositories;
+
+import com.threadspire.intern.models.UserStats;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+public interface UserStatsRepository extends JpaRepository<UserStats, Long> {
+
+    // One-off backfill for data created before the rollups existed
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_stats"))
+    @Query(value = """
+            INSERT INTO user_stats (user_id, threads_created, bookmarks_received, forks_received,
+                                    most_forked_thread_id, most_forked_count)
+            SELECT u.id,
+                   (SELECT count(*) FROM threads t WHERE t.user_id = u.id),
+                   (SELECT count(*) FROM bookmarks b JOIN threads t ON t.id = b.thread_id WHERE t.user_id = u.id),
+                   (SELECT count(*) FROM forks f JOIN threads t ON t.id = f.original_thread_id WHERE t.user_id = u.id),
+                   m.id,
+                   COALESCE(m.fork_count, 0)
+            FROM users u
+            LEFT JOIN LATERAL (SELECT t.id, t.fork_count FROM threads t
+                               WHERE t.user_id = u.id AND t.fork_count > 0
+                               ORDER BY t.fork_count DESC, t.id LIMIT 1) m ON true
+            ON CONFLICT (user_id) DO NOTHING
+            """, nativeQuery = true)
+    int backfill();
+}
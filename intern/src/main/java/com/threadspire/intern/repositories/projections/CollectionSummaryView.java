@@ -0,0 +1,9 @@
+package com.threadspire.intern.repositories.projections;
+
+public interface CollectionSummaryView {
+    Long getId();
+
+    String getName();
+
+    long getMemberCount();
+}
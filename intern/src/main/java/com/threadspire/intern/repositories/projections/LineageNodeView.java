@@ -0,0 +1,11 @@
+package com.threadspire.intern.repositories.projections;
+
+public interface LineageNodeView {
+    Long getThreadId();
+
+    String getTitle();
+
+    int getDepth();
+
+    int getForkCount();
+}
@@ -0,0 +1,11 @@
+package com.threadspire.intern.repositories.projections;
+
+import com.threadspire.intern.models.ReactionType;
+
+public interface ReactionCountView {
+    Long getPostId();
+
+    ReactionType getType();
+
+    long getTotal();
+}
@@ -0,0 +1,9 @@
+package com.threadspire.intern.repositories.projections;
+
+public interface SegmentView {
+    Long getId();
+
+    int getPosition();
+
+    String getBodyHash();
+}
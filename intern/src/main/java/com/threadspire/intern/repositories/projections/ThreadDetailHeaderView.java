@@ -0,0 +1,19 @@
+package com.threadspire.intern.repositories.projections;
+
+public interface ThreadDetailHeaderView {
+    Long getId();
+
+    String getTitle();
+
+    boolean getPublished();
+
+    Long getAuthorId();
+
+    String getAuthorName();
+
+    long getRevision();
+
+    int getForkCount();
+
+    int getBookmarkCount();
+}
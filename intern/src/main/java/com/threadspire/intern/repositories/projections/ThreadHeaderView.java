@@ -0,0 +1,13 @@
+package com.threadspire.intern.repositories.projections;
+
+public interface ThreadHeaderView {
+    Long getId();
+
+    String getTitle();
+
+    String getAuthorName();
+
+    int getForkCount();
+
+    int getSegmentCount();
+}
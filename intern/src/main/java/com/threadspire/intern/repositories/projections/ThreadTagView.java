@@ -0,0 +1,7 @@
+package com.threadspire.intern.repositories.projections;
+
+public interface ThreadTagView {
+    Long getThreadId();
+
+    String getName();
+}
@@ -1,6 +1,7 @@
 package com.threadspire.intern.security;
 
 import io.jsonwebtoken.*;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -17,6 +18,14 @@ public class JwtTokenProvider {
     @Value("${app.jwtExpirationMs:86400000}")
     private int jwtExpirationMs;
 
+    // Thread-safe and expensive to build, so built once instead of per request
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        parser = Jwts.parserBuilder().setSigningKey(jwtSecret).build();
+    }
+
     public String generateToken(Authentication authentication) {
         UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
         return Jwts.builder()
@@ -27,16 +36,23 @@ public class JwtTokenProvider {
                 .compact();
     }
 
+    /**
+     * Verifies the signature and expiry and returns the subject in a single parse,
+     * or {@code null} if the token is not valid.
+     */
+    public String verifyAndGetSubject(String token) {
+        try {
+            return parser.parseClaimsJws(token).getBody().getSubject();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     public String getUsernameFromToken(String token) {
-        return Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(token).getBody().getSubject();
+        return parser.parseClaimsJws(token).getBody().getSubject();
     }
 
     public boolean validateToken(String authToken) {
-        try {
-            Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(authToken);
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
+        return verifyAndGetSubject(authToken) != null;
     }
 }
@@ -0,0 +1,63 @@
+package com.threadspire.intern.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Bounded, TTL-based cache of resolved principals keyed by token subject (email),
+ * so authenticated requests don't look the user up on every call. Entries must be
+ * invalidated whenever the credentials behind them change.
+ */
+@Component
+public class PrincipalCache {
+    private final CustomUserDetailsService userDetailsService;
+    private final Cache<String, UserDetails> cache;
+
+    public PrincipalCache(CustomUserDetailsService userDetailsService,
+                          @Value("${app.auth.principal-cache.max-size:10000}") long maxSize,
+                          @Value("${app.auth.principal-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.userDetailsService = userDetailsService;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * @throws org.springframework.security.core.userdetails.UsernameNotFoundException if no such user exists
+     */
+    public UserDetails get(String email) {
+        // Loading inside the cache makes an invalidate that races the lookup wait for it and then
+        // drop the result. The loader holds a map bin lock, so before JDK 24 it pins a virtual thread
+        // for one user lookup per miss.
+        return cache.get(email, userDetailsService::loadUserByUsername);
+    }
+
+    public void invalidate(String email) {
+        cache.invalidate(email);
+    }
+
+    /**
+     * Invalidates once the current transaction commits, so a request that runs before
+     * then cannot reload and re-cache the old credentials. Immediate outside a transaction.
+     */
+    public void invalidateAfterCommit(String email) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(email);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(email);
+            }
+        });
+    }
+}
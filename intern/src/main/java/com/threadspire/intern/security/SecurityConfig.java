@@ -1,5 +1,6 @@
 package com.threadspire.intern.security;
 
+import com.threadspire.intern.admission.AdmissionControlFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -20,6 +21,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final AdmissionControlFilter admissionControlFilter;
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
@@ -29,15 +31,20 @@ public class SecurityConfig {
                 .authorizeHttpRequests()
                 // Public endpoints (no token required)
                 .requestMatchers("/api/auth/**").permitAll()
+                // The export includes the caller's own drafts, so it is not covered by the public thread reads below
+                .requestMatchers(HttpMethod.GET, "/api/threads/export").authenticated()
                 .requestMatchers(HttpMethod.GET, "/api/threads/**").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/posts/**").permitAll()
                 .requestMatchers(HttpMethod.POST, "/api/posts/**").permitAll() // allow test POSTs in dev
+                .requestMatchers(HttpMethod.GET, "/actuator/health").permitAll()
                 // Everything else requires auth
                 .anyRequest().authenticated()
                 .and()
                 .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 .and()
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                // After authentication so limits are per user; before any handler touches the database
+                .addFilterAfter(admissionControlFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
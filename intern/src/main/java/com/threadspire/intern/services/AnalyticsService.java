@@ -1,20 +1,237 @@
 package com.threadspire.intern.services;
 
+import com.threadspire.intern.events.BookmarkAddedEvent;
+import com.threadspire.intern.events.BookmarksChangedEvent;
+import com.threadspire.intern.events.ReactionAddedEvent;
+import com.threadspire.intern.events.ReactionsAddedEvent;
+import com.threadspire.intern.events.ThreadCreatedEvent;
+import com.threadspire.intern.events.ThreadForkedEvent;
+import com.threadspire.intern.models.ReactionType;
+import com.threadspire.intern.models.UserDailyActivity;
+import com.threadspire.intern.models.UserReactionStats;
+import com.threadspire.intern.models.UserStats;
+import com.threadspire.intern.repositories.AnalyticsBatchRepository;
+import com.threadspire.intern.repositories.UserDailyActivityRepository;
+import com.threadspire.intern.repositories.UserReactionStatsRepository;
+import com.threadspire.intern.repositories.UserStatsRepository;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Per-user analytics served from rollup tables, so reads never aggregate over
+ * reactions or bookmarks.
+ * <p>
+ * The rollups of a popular author are hot rows, so listeners never write them in
+ * the caller's transaction. Deltas are buffered after commit in striped
+ * {@link LongAdder}s, like {@link HotCounterService} does for thread counters,
+ * and flushed in one batched transaction; rolled-back writes are never counted and
+ * reads trail writes by at most one flush interval. Deltas still buffered when the
+ * process dies are lost.
+ */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AnalyticsService {
+    static final int ACTIVITY_DAYS = 30;
+
+    private final UserStatsRepository userStatsRepository;
+    private final UserReactionStatsRepository userReactionStatsRepository;
+    private final UserDailyActivityRepository userDailyActivityRepository;
+    private final AnalyticsBatchRepository analyticsBatchRepository;
+
+    private final ConcurrentHashMap<RollupKey, LongAdder> deltas = new ConcurrentHashMap<>();
+    // Adders removed from the map while idle; drained once more in case a writer still held them
+    private List<Map.Entry<RollupKey, LongAdder>> retired = new ArrayList<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
 
+    @Transactional(readOnly = true)
     public Map<String, Object> getAnalyticsForUser(Long userId) {
+        UserStats stats = userStatsRepository.findById(userId).orElseGet(() -> new UserStats(userId, 0, 0, 0, null, 0));
+
+        Map<ReactionType, Long> reactions = new EnumMap<>(ReactionType.class);
+        for (UserReactionStats row : userReactionStatsRepository.findByUserId(userId)) {
+            reactions.put(row.getType(), row.getTotal());
+        }
+
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        LocalDate from = today.minusDays(ACTIVITY_DAYS - 1);
+        long[] activity = new long[ACTIVITY_DAYS];
+        for (UserDailyActivity day : userDailyActivityRepository.findByUserIdAndActivityDateBetween(userId, from, today)) {
+            activity[(int) (day.getActivityDate().toEpochDay() - from.toEpochDay())] = day.getEvents();
+        }
+
         Map<String, Object> analytics = new HashMap<>();
-        analytics.put("threadsCreated", 5);
-        analytics.put("bookmarksReceived", 12);
-        analytics.put("reactions", Map.of("💡", 7, "🔥", 3));
-        analytics.put("mostForkedThread", "Thread ID 102");
-        analytics.put("activityGraph", List.of(2, 3, 5, 1, 0, 4));
+        analytics.put("threadsCreated", stats.getThreadsCreated());
+        analytics.put("bookmarksReceived", stats.getBookmarksReceived());
+        analytics.put("forksReceived", stats.getForksReceived());
+        analytics.put("reactions", reactions);
+        analytics.put("mostForkedThread", stats.getMostForkedThreadId() == null ? null
+                : Map.of("threadId", stats.getMostForkedThreadId(), "forkCount", stats.getMostForkedCount()));
+        analytics.put("activityGraph", Arrays.stream(activity).boxed().toList());   // oldest day first
         return analytics;
     }
+
+    @TransactionalEventListener
+    public void onThreadCreated(ThreadCreatedEvent event) {
+        add(Kind.THREADS_CREATED, event.userId(), 1);
+        recordActivity(event.userId(), 1);
+    }
+
+    @TransactionalEventListener
+    public void onThreadForked(ThreadForkedEvent event) {
+        add(Kind.FORKS_RECEIVED, event.originalOwnerId(), 1);
+        recordActivity(event.userId(), 1);
+    }
+
+    @TransactionalEventListener
+    public void onReactionAdded(ReactionAddedEvent event) {
+        addReaction(event);
+        recordActivity(event.userId(), 1);
+    }
+
+    @TransactionalEventListener
+    public void onBookmarkAdded(BookmarkAddedEvent event) {
+        add(Kind.BOOKMARKS_RECEIVED, event.threadOwnerId(), 1);
+        recordActivity(event.userId(), 1);
+    }
+
+    /**
+     * Removing bookmarks takes them off the owners' totals but is not activity.
+     */
+    @TransactionalEventListener
+    public void onBookmarksChanged(BookmarksChangedEvent event) {
+        for (BookmarksChangedEvent.ThreadOwner thread : event.threads()) {
+            add(Kind.BOOKMARKS_RECEIVED, thread.ownerId(), event.delta());
+        }
+        if (event.delta() > 0) {
+            recordActivity(event.userId(), event.threads().size());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onReactionsAdded(ReactionsAddedEvent event) {
+        event.reactions().forEach(this::addReaction);
+        recordActivity(event.userId(), event.reactions().size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.analytics.flush-interval-ms:1000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            SortedMap<Long, AnalyticsBatchRepository.StatsDelta> stats = new TreeMap<>();
+            SortedMap<UserReactionStats.Key, Long> reactions = new TreeMap<>();
+            SortedMap<UserDailyActivity.Key, Long> activity = new TreeMap<>();
+
+            List<Map.Entry<RollupKey, LongAdder>> drained = retired;
+            retired = new ArrayList<>();
+            for (Map.Entry<RollupKey, LongAdder> entry : drained) {
+                collect(entry.getKey(), entry.getValue().sumThenReset(), stats, reactions, activity);
+            }
+            for (Map.Entry<RollupKey, LongAdder> entry : deltas.entrySet()) {
+                long delta = entry.getValue().sumThenReset();
+                if (delta == 0 && deltas.remove(entry.getKey(), entry.getValue())) {
+                    retired.add(entry);
+                }
+                collect(entry.getKey(), delta, stats, reactions, activity);
+            }
+
+            if (stats.isEmpty() && reactions.isEmpty() && activity.isEmpty()) {
+                return;
+            }
+            try {
+                analyticsBatchRepository.applyDeltas(stats, reactions, activity);
+            } catch (RuntimeException e) {
+                log.warn("Analytics flush failed, re-queueing {} deltas", stats.size() + reactions.size() + activity.size(), e);
+                stats.forEach((userId, d) -> {
+                    add(Kind.THREADS_CREATED, userId, d.threadsCreated());
+                    add(Kind.BOOKMARKS_RECEIVED, userId, d.bookmarksReceived());
+                    add(Kind.FORKS_RECEIVED, userId, d.forksReceived());
+                });
+                reactions.forEach((k, d) -> add(new RollupKey(Kind.REACTIONS_RECEIVED, k.getUserId(), k.getType(), null), d));
+                activity.forEach((k, d) -> add(new RollupKey(Kind.ACTIVITY, k.getUserId(), null, k.getActivityDate()), d));
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Seeds the rollups from existing rows the first time the application starts
+     * with them. Daily activity cannot be backfilled since older rows carry no timestamps.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        if (userStatsRepository.count() > 0) {
+            return;
+        }
+        int users = userStatsRepository.backfill();
+        int reactionRows = userReactionStatsRepository.backfill();
+        log.info("Backfilled analytics rollups for {} users ({} reaction rows)", users, reactionRows);
+    }
+
+    private void addReaction(ReactionAddedEvent reaction) {
+        if (reaction.postOwnerId() != null) {
+            add(new RollupKey(Kind.REACTIONS_RECEIVED, reaction.postOwnerId(), reaction.type(), null), 1);
+        }
+    }
+
+    private void recordActivity(Long userId, long events) {
+        add(new RollupKey(Kind.ACTIVITY, userId, null, LocalDate.now(ZoneOffset.UTC)), events);
+    }
+
+    private void add(Kind kind, Long userId, long delta) {
+        if (userId != null) {
+            add(new RollupKey(kind, userId, null, null), delta);
+        }
+    }
+
+    private void add(RollupKey key, long delta) {
+        if (delta != 0) {
+            deltas.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+        }
+    }
+
+    private static void collect(RollupKey key, long delta,
+                                Map<Long, AnalyticsBatchRepository.StatsDelta> stats,
+                                Map<UserReactionStats.Key, Long> reactions,
+                                Map<UserDailyActivity.Key, Long> activity) {
+        if (delta == 0) {
+            return;
+        }
+        switch (key.kind()) {
+            case THREADS_CREATED -> stats.merge(key.userId(), new AnalyticsBatchRepository.StatsDelta(delta, 0, 0),
+                    AnalyticsBatchRepository.StatsDelta::plus);
+            case BOOKMARKS_RECEIVED -> stats.merge(key.userId(), new AnalyticsBatchRepository.StatsDelta(0, delta, 0),
+                    AnalyticsBatchRepository.StatsDelta::plus);
+            case FORKS_RECEIVED -> stats.merge(key.userId(), new AnalyticsBatchRepository.StatsDelta(0, 0, delta),
+                    AnalyticsBatchRepository.StatsDelta::plus);
+            case REACTIONS_RECEIVED -> reactions.merge(new UserReactionStats.Key(key.userId(), key.type()), delta, Long::sum);
+            case ACTIVITY -> activity.merge(new UserDailyActivity.Key(key.userId(), key.day()), delta, Long::sum);
+        }
+    }
+
+    private enum Kind { THREADS_CREATED, BOOKMARKS_RECEIVED, FORKS_RECEIVED, REACTIONS_RECEIVED, ACTIVITY }
+
+    private record RollupKey(Kind kind, Long userId, ReactionType type, LocalDate day) {
+    }
 }
@@ -1,36 +1,97 @@
 package com.threadspire.intern.services;
 
+import com.threadspire.intern.dto.BulkChangeResult;
+import com.threadspire.intern.events.BookmarkAddedEvent;
+import com.threadspire.intern.events.BookmarksChangedEvent;
 import com.threadspire.intern.models.Bookmark;
 import com.threadspire.intern.models.Thread;
 import com.threadspire.intern.models.User;
+import com.threadspire.intern.repositories.BookmarkBatchRepository;
 import com.threadspire.intern.repositories.BookmarkRepository;
 import com.threadspire.intern.repositories.ThreadRepository;
 import com.threadspire.intern.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
 public class BookmarkService {
+    static final int MAX_BULK_SIZE = 100;
+
     private final BookmarkRepository bookmarkRepository;
+    private final BookmarkBatchRepository bookmarkBatchRepository;
     private final UserRepository userRepository;
     private final ThreadRepository threadRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
+    /**
+     * Idempotent, also under concurrency: the insert goes through the same
+     * {@code ON CONFLICT DO NOTHING} path as {@link #addBookmarks}, so a racing
+     * duplicate returns the winner's bookmark instead of violating the unique index.
+     */
+    @Transactional
     public Bookmark addBookmark(Long userId, Long threadId) {
         User user = userRepository.findById(userId).orElseThrow();
         Thread thread = threadRepository.findById(threadId).orElseThrow();
 
-        Bookmark bookmark = new Bookmark();
-        bookmark.setUser(user);
-        bookmark.setThread(thread);
-        bookmark.setPrivate(true);
-        return bookmarkRepository.save(bookmark);
+        List<BookmarkBatchRepository.Change> added = bookmarkBatchRepository.insertAll(user.getId(), new Long[]{thread.getId()});
+        if (!added.isEmpty()) {
+            eventPublisher.publishEvent(new BookmarkAddedEvent(thread.getId(), user.getId(), added.get(0).ownerId()));
+        }
+        return bookmarkRepository.findByUserAndThread(user, thread).orElseThrow();
+    }
+
+    /**
+     * Bookmarks up to {@value #MAX_BULK_SIZE} threads with one statement, by id: neither
+     * the user nor the threads are loaded. Threads already bookmarked are left alone.
+     */
+    @Transactional
+    public BulkChangeResult addBookmarks(Long userId, List<Long> threadIds) {
+        return apply(userId, threadIds, 1);
+    }
+
+    @Transactional
+    public BulkChangeResult removeBookmarks(Long userId, List<Long> threadIds) {
+        return apply(userId, threadIds, -1);
     }
 
+    @Transactional(readOnly = true)
     public List<Bookmark> getBookmarksForUser(Long userId) {
         User user = userRepository.findById(userId).orElseThrow();
         return bookmarkRepository.findByUser(user);
     }
-}
\ No newline at end of file
+
+    private BulkChangeResult apply(Long userId, List<Long> threadIds, int delta) {
+        Long[] ids = threadIds == null ? new Long[0] : threadIds.stream().filter(Objects::nonNull).distinct()
+                .toArray(Long[]::new);
+        if (ids.length == 0 || ids.length > MAX_BULK_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Between 1 and " + MAX_BULK_SIZE + " thread ids are required");
+        }
+
+        List<BookmarkBatchRepository.Change> changes;
+        try {
+            changes = delta > 0
+                    ? bookmarkBatchRepository.insertAll(userId, ids)
+                    : bookmarkBatchRepository.deleteAll(userId, ids);
+        } catch (DataIntegrityViolationException e) {
+            // The only foreign key not checked by the statement itself
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+        }
+
+        if (!changes.isEmpty()) {
+            eventPublisher.publishEvent(new BookmarksChangedEvent(userId, delta, changes.stream()
+                    .map(c -> new BookmarksChangedEvent.ThreadOwner(c.threadId(), c.ownerId()))
+                    .toList()));
+        }
+        return new BulkChangeResult(ids.length, changes.stream().map(BookmarkBatchRepository.Change::threadId).toList());
+    }
+}
@@ -1,40 +1,159 @@
 package com.threadspire.intern.services;
 
+import com.threadspire.intern.dto.BulkChangeResult;
+import com.threadspire.intern.dto.CollectionSummary;
+import com.threadspire.intern.dto.ThreadFeedPage;
 import com.threadspire.intern.models.Collection;
-import com.threadspire.intern.models.Thread;
+import com.threadspire.intern.models.CollectionMembership;
 import com.threadspire.intern.models.User;
+import com.threadspire.intern.repositories.CollectionMembershipRepository;
+import com.threadspire.intern.repositories.CollectionMembershipRepository.Member;
 import com.threadspire.intern.repositories.CollectionRepository;
-import com.threadspire.intern.repositories.ThreadRepository;
 import com.threadspire.intern.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
+import java.util.Objects;
 
+/**
+ * Collections and their ordered members. Membership changes write only the
+ * {@code collection_threads} rows involved; neither the collection's other members
+ * nor the threads themselves are loaded.
+ */
 @Service
 @RequiredArgsConstructor
 public class CollectionService {
+    static final int MAX_BULK_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final CollectionRepository collectionRepository;
+    private final CollectionMembershipRepository membershipRepository;
     private final UserRepository userRepository;
-    private final ThreadRepository threadRepository;
+    private final ThreadService threadService;
 
-    public Collection createCollection(Long userId, String name, List<Long> threadIds) {
+    @Transactional
+    public CollectionSummary createCollection(Long userId, String name, List<Long> threadIds) {
         User user = userRepository.findById(userId).orElseThrow();
 
         Collection collection = new Collection();
         collection.setName(name);
         collection.setUser(user);
+        collection = collectionRepository.saveAndFlush(collection);
 
-        Set<Thread> threads = new HashSet<>(threadRepository.findAllById(threadIds));
-        collection.setThreads(threads);
+        Long[] ids = distinct(threadIds, 0);
+        int added = ids.length == 0 ? 0 : membershipRepository.append(collection.getId(), ids).size();
+        return new CollectionSummary(collection.getId(), collection.getName(), added);
+    }
 
-        return collectionRepository.save(collection);
+    @Transactional(readOnly = true)
+    public List<CollectionSummary> getUserCollections(Long userId) {
+        return collectionRepository.findSummariesByUserId(userId).stream()
+                .map(c -> new CollectionSummary(c.getId(), c.getName(), c.getMemberCount()))
+                .toList();
     }
 
-    public List<Collection> getUserCollections(Long userId) {
-        return collectionRepository.findByUserId(userId);
+    /**
+     * One page of a collection's threads in list order.
+     */
+    @Transactional(readOnly = true)
+    public ThreadFeedPage getThreads(Long collectionId, String cursor, int limit) {
+        if (!collectionRepository.existsById(collectionId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Collection not found");
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<Member> members = membershipRepository.page(collectionId, FeedCursor.decodeMember(cursor), pageSize + 1);
+        boolean hasMore = members.size() > pageSize;
+        if (hasMore) {
+            members = members.subList(0, pageSize);
+        }
+        String nextCursor = hasMore ? FeedCursor.encodeMember(members.get(members.size() - 1)) : null;
+        return new ThreadFeedPage(threadService.summariesInOrder(members.stream().map(Member::threadId).toList()),
+                nextCursor);
     }
-}
 
+    /**
+     * Appends up to {@value #MAX_BULK_SIZE} threads to the end of the collection, in
+     * the order given. Threads already in the collection keep their place.
+     */
+    @Transactional
+    public BulkChangeResult addThreads(Long userId, Long collectionId, List<Long> threadIds) {
+        Long[] ids = distinct(threadIds, 1);
+        lockOwned(userId, collectionId);
+        return new BulkChangeResult(ids.length, membershipRepository.append(collectionId, ids));
+    }
+
+    @Transactional
+    public void removeThread(Long userId, Long collectionId, Long threadId) {
+        lockOwned(userId, collectionId);
+        membershipRepository.remove(collectionId, threadId);
+    }
+
+    /**
+     * Moves a thread to just after {@code afterThreadId}, or to the front when that is
+     * null. Usually rewrites only the moved row; the collection is renumbered only when
+     * its neighbours have no free position left between them.
+     */
+    @Transactional
+    public void moveThread(Long userId, Long collectionId, Long threadId, Long afterThreadId) {
+        if (threadId.equals(afterThreadId)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A thread cannot be moved after itself");
+        }
+        lockOwned(userId, collectionId);
+        if (membershipRepository.positionOf(collectionId, threadId) == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Thread is not in this collection");
+        }
+
+        for (int attempt = 0; ; attempt++) {
+            Member after = null;
+            if (afterThreadId != null) {
+                Long afterPosition = membershipRepository.positionOf(collectionId, afterThreadId);
+                if (afterPosition == null) {
+                    throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Thread is not in this collection");
+                }
+                after = new Member(afterThreadId, afterPosition);
+            }
+            Long next = membershipRepository.nextPosition(collectionId, after, threadId);
+
+            Long position;
+            if (after == null) {
+                position = next == null ? CollectionMembership.GAP : next - CollectionMembership.GAP;
+            } else if (next == null) {
+                position = after.position() + CollectionMembership.GAP;
+            } else if (next - after.position() >= 2) {
+                position = after.position() + (next - after.position()) / 2;
+            } else {
+                position = null;
+            }
+
+            if (position != null) {
+                membershipRepository.setPosition(collectionId, threadId, position);
+                return;
+            }
+            if (attempt > 0) {
+                // Renumbering always leaves a full gap, so this is unreachable
+                throw new IllegalStateException("No free position in collection " + collectionId);
+            }
+            membershipRepository.renumber(collectionId);
+        }
+    }
+
+    private void lockOwned(Long userId, Long collectionId) {
+        if (!membershipRepository.lockOwned(collectionId, userId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Collection not found");
+        }
+    }
+
+    private static Long[] distinct(List<Long> threadIds, int min) {
+        Long[] ids = threadIds == null ? new Long[0] : threadIds.stream().filter(Objects::nonNull).distinct()
+                .toArray(Long[]::new);
+        if (ids.length < min || ids.length > MAX_BULK_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Between " + min + " and " + MAX_BULK_SIZE + " thread ids are allowed");
+        }
+        return ids;
+    }
+}
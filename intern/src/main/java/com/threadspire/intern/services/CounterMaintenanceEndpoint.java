@@ -0,0 +1,23 @@
+package com.threadspire.intern.services;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code POST /actuator/counters} rebuilds the fork, bookmark and reaction tallies
+ * after an unclean shutdown. Not exposed unless {@code counters} is added to
+ * {@code management.endpoints.web.exposure.include}; see {@link HotCounterService#reconcile()}.
+ */
+@Component
+@Endpoint(id = "counters")
+@RequiredArgsConstructor
+public class CounterMaintenanceEndpoint {
+    private final HotCounterService hotCounterService;
+
+    @WriteOperation
+    public void reconcile() {
+        hotCounterService.reconcile();
+    }
+}
@@ -0,0 +1,68 @@
+package com.threadspire.intern.services;
+
+import com.threadspire.intern.repositories.CollectionMembershipRepository.Member;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor over thread ids, used by the feed and lineage listings, or over
+ * {@code (position, thread id)} for collection members. Clients only ever echo it back,
+ * so the encoding can change without breaking them.
+ */
+final class FeedCursor {
+    private static final String PREFIX = "t:";
+    private static final String MEMBER_PREFIX = "p:";
+
+    private FeedCursor() {
+    }
+
+    static String encode(Long lastId) {
+        return encodeRaw(PREFIX + lastId);
+    }
+
+    static Long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(decodeRaw(cursor, PREFIX));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    static String encodeMember(Member last) {
+        return encodeRaw(MEMBER_PREFIX + last.position() + ":" + last.threadId());
+    }
+
+    static Member decodeMember(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = decodeRaw(cursor, MEMBER_PREFIX);
+            int separator = raw.lastIndexOf(':');
+            if (separator < 0) {
+                throw new IllegalArgumentException(raw);
+            }
+            return new Member(Long.parseLong(raw.substring(separator + 1)), Long.parseLong(raw.substring(0, separator)));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    private static String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeRaw(String cursor, String prefix) {
+        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        if (!raw.startsWith(prefix)) {
+            throw new IllegalArgumentException(raw);
+        }
+        return raw.substring(prefix.length());
+    }
+}
@@ -1,14 +1,25 @@
 package com.threadspire.intern.services;
 
 import com.threadspire.intern.dto.ForkThreadRequest;
+import com.threadspire.intern.events.ThreadForkedEvent;
 import com.threadspire.intern.models.Fork;
+import com.threadspire.intern.models.Post;
+import com.threadspire.intern.models.Tag;
 import com.threadspire.intern.models.Thread;
 import com.threadspire.intern.models.User;
 import com.threadspire.intern.repositories.ForkRepository;
+import com.threadspire.intern.repositories.PostRepository;
 import com.threadspire.intern.repositories.ThreadRepository;
 import com.threadspire.intern.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -16,30 +27,83 @@ public class ForkService {
     private final ForkRepository forkRepository;
     private final ThreadRepository threadRepository;
     private final UserRepository userRepository;
+    private final PostRepository postRepository;
+    private final SegmentStore segmentStore;
+    private final LineageService lineageService;
+    private final SearchIndexer searchIndexer;
+    private final ApplicationEventPublisher eventPublisher;
 
+    /**
+     * Forks a thread. Unchanged segments point at the original's segment bodies, so
+     * only segments edited through {@link ForkThreadRequest#getEditedSegments()}
+     * write new bodies; each fork still gets its own small post rows.
+     */
+    @Transactional
     public Thread forkThread(Long userId, ForkThreadRequest request) {
         User user = userRepository.findById(userId).orElseThrow();
         Thread original = threadRepository.findById(request.getThreadId()).orElseThrow();
 
         // Create new thread as a fork
         Thread forked = new Thread();
-        forked.setTitle(original.getTitle() + " (Fork)");
+        forked.setTitle(request.getTitle() == null || request.getTitle().isBlank()
+                ? original.getTitle() + " (Fork)" : request.getTitle());
         forked.setUser(user);
         forked.setPublished(false);
-        forked.setPosts(original.getPosts());
-        forked.setTags(original.getTags());
+        forked.setTags(new HashSet<>(original.getTags()));
 
         Thread savedFork = threadRepository.save(forked);
+        savedFork.setPosts(copySegments(postRepository.findByThreadIdOrderByPosition(original.getId()),
+                request.getEditedSegments(), savedFork));
+        searchIndexer.index(savedFork.getId(), savedFork.getTitle(), savedFork.getPosts());
 
         Fork fork = new Fork();
         fork.setUser(user);
         fork.setOriginalThread(original);
         fork.setForkedThread(savedFork);
         forkRepository.save(fork);
+        lineageService.recordFork(original.getId(), savedFork.getId());
 
-        original.setForkCount(original.getForkCount() + 1);
-        threadRepository.save(original);
+        // forkCount is bumped by HotCounterService once this transaction commits
+        eventPublisher.publishEvent(new ThreadForkedEvent(original.getId(), savedFork.getId(), user.getId(),
+                original.getUser() == null ? null : original.getUser().getId(),
+                savedFork.getTags().stream().map(Tag::getName).collect(Collectors.toSet())));
 
         return savedFork;
     }
+
+    private List<Post> copySegments(List<Post> originals, List<String> edited, Thread fork) {
+        int count = edited == null ? originals.size() : edited.size();
+        List<String> bodyHashes = new ArrayList<>(count);
+        List<String> changedContents = new ArrayList<>();
+        List<Integer> changedPositions = new ArrayList<>();
+        for (int position = 0; position < count; position++) {
+            String text = edited == null ? null : edited.get(position);
+            if (text == null && position < originals.size()) {
+                bodyHashes.add(originals.get(position).getBodyHash());
+            } else {
+                bodyHashes.add(null);
+                changedContents.add(text == null ? "" : text);
+                changedPositions.add(position);
+            }
+        }
+
+        // Unchanged text hashes to an existing body, so storing it again writes nothing
+        List<String> changedHashes = segmentStore.storeAll(changedContents);
+        for (int i = 0; i < changedPositions.size(); i++) {
+            bodyHashes.set(changedPositions.get(i), changedHashes.get(i));
+        }
+
+        List<Post> posts = new ArrayList<>(count);
+        for (int position = 0; position < count; position++) {
+            Post post = new Post();
+            post.setBodyHash(bodyHashes.get(position));
+            post.setPosition(position);
+            post.setThread(fork);
+            posts.add(post);
+        }
+        for (int i = 0; i < changedPositions.size(); i++) {
+            posts.get(changedPositions.get(i)).setContent(changedContents.get(i));
+        }
+        return postRepository.saveAll(posts);
+    }
 }
@@ -0,0 +1,190 @@
+package com.threadspire.intern.services;
+
+import com.threadspire.intern.events.BookmarkAddedEvent;
+import com.threadspire.intern.events.BookmarksChangedEvent;
+import com.threadspire.intern.events.ReactionAddedEvent;
+import com.threadspire.intern.events.ReactionsAddedEvent;
+import com.threadspire.intern.events.ThreadForkedEvent;
+import com.threadspire.intern.events.ThreadsChangedEvent;
+import com.threadspire.intern.models.PostReactionCount;
+import com.threadspire.intern.models.ReactionType;
+import com.threadspire.intern.repositories.CounterRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Buffers fork, bookmark and reaction tallies in striped {@link LongAdder}s and
+ * periodically flushes the accumulated deltas in one batched transaction.
+ * <p>
+ * The source rows (forks, bookmarks, reactions) are always committed before a
+ * counter is bumped, so buffered deltas are derivable: if the process dies
+ * before a flush, {@link #reconcile()} rebuilds the tallies from them. Reconciling
+ * writes absolute values, so it is only safe while no other instance is holding
+ * unflushed deltas; it runs on demand through the {@code counters} actuator
+ * endpoint, or on startup when {@code app.counters.reconcile-on-startup} is set.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HotCounterService {
+    private final CounterRepository counterRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.counters.reconcile-on-startup:false}")
+    private boolean reconcileOnStartup;
+
+    private final ConcurrentHashMap<CounterKey, LongAdder> counters = new ConcurrentHashMap<>();
+    // Adders removed from the map while idle; drained once more in case a writer still held them
+    private List<Map.Entry<CounterKey, LongAdder>> retired = new ArrayList<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public void incrementForks(Long threadId) {
+        add(new CounterKey(Kind.FORK, threadId, null), 1);
+    }
+
+    public void incrementBookmarks(Long threadId) {
+        add(new CounterKey(Kind.BOOKMARK, threadId, null), 1);
+    }
+
+    public void incrementReactions(Long postId, ReactionType type) {
+        add(new CounterKey(Kind.REACTION, postId, type), 1);
+    }
+
+    @TransactionalEventListener
+    public void onThreadForked(ThreadForkedEvent event) {
+        incrementForks(event.originalThreadId());
+    }
+
+    @TransactionalEventListener
+    public void onBookmarkAdded(BookmarkAddedEvent event) {
+        incrementBookmarks(event.threadId());
+    }
+
+    @TransactionalEventListener
+    public void onReactionAdded(ReactionAddedEvent event) {
+        incrementReactions(event.postId(), event.type());
+    }
+
+    @TransactionalEventListener
+    public void onBookmarksChanged(BookmarksChangedEvent event) {
+        for (BookmarksChangedEvent.ThreadOwner thread : event.threads()) {
+            add(new CounterKey(Kind.BOOKMARK, thread.threadId(), null), event.delta());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onReactionsAdded(ReactionsAddedEvent event) {
+        event.reactions().forEach(this::onReactionAdded);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        if (reconcileOnStartup) {
+            reconcile();
+        }
+    }
+
+    /**
+     * Flushes this instance's pending deltas, then recomputes every tally from the
+     * source rows. Only rows whose stored value differs are written.
+     */
+    public void reconcile() {
+        flushLock.lock();
+        try {
+            flush();
+            counterRepository.reconcile();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.counters.flush-interval-ms:1000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            SortedMap<Long, Long> forks = new TreeMap<>();
+            SortedMap<Long, Long> bookmarks = new TreeMap<>();
+            SortedMap<PostReactionCount.Key, Long> reactions = new TreeMap<>();
+
+            List<Map.Entry<CounterKey, LongAdder>> drained = retired;
+            retired = new ArrayList<>();
+            for (Map.Entry<CounterKey, LongAdder> entry : drained) {
+                collect(entry.getKey(), entry.getValue().sumThenReset(), forks, bookmarks, reactions);
+            }
+            for (Map.Entry<CounterKey, LongAdder> entry : counters.entrySet()) {
+                long delta = entry.getValue().sumThenReset();
+                if (delta == 0 && counters.remove(entry.getKey(), entry.getValue())) {
+                    retired.add(entry);
+                }
+                collect(entry.getKey(), delta, forks, bookmarks, reactions);
+            }
+
+            if (forks.isEmpty() && bookmarks.isEmpty() && reactions.isEmpty()) {
+                return;
+            }
+            SortedSet<Long> changed;
+            try {
+                changed = counterRepository.applyDeltas(forks, bookmarks, reactions);
+            } catch (RuntimeException e) {
+                log.warn("Counter flush failed, re-queueing {} deltas", forks.size() + bookmarks.size() + reactions.size(), e);
+                forks.forEach((id, d) -> add(new CounterKey(Kind.FORK, id, null), d));
+                bookmarks.forEach((id, d) -> add(new CounterKey(Kind.BOOKMARK, id, null), d));
+                reactions.forEach((k, d) -> add(new CounterKey(Kind.REACTION, k.getPostId(), k.getType()), d));
+                return;
+            }
+            // The deltas are committed at this point; a failing listener must not re-queue them
+            try {
+                eventPublisher.publishEvent(new ThreadsChangedEvent(changed));
+            } catch (RuntimeException e) {
+                log.warn("Threads-changed listener failed after counter flush", e);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void add(CounterKey key, long delta) {
+        counters.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+    }
+
+    private static void collect(CounterKey key, long delta,
+                                Map<Long, Long> forks, Map<Long, Long> bookmarks,
+                                Map<PostReactionCount.Key, Long> reactions) {
+        if (delta == 0) {
+            return;
+        }
+        switch (key.kind()) {
+            case FORK -> forks.merge(key.id(), delta, Long::sum);
+            case BOOKMARK -> bookmarks.merge(key.id(), delta, Long::sum);
+            case REACTION -> reactions.merge(new PostReactionCount.Key(key.id(), key.type()), delta, Long::sum);
+        }
+    }
+
+    private enum Kind { FORK, BOOKMARK, REACTION }
+
+    private record CounterKey(Kind kind, Long id, ReactionType type) {
+    }
+}
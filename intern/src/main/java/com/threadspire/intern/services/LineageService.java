@@ -0,0 +1,75 @@
+package com.threadspire.intern.services;
+
+import com.threadspire.intern.dto.LineageNode;
+import com.threadspire.intern.dto.LineagePage;
+import com.threadspire.intern.repositories.ThreadLineageRepository;
+import com.threadspire.intern.repositories.projections.LineageNodeView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Fork ancestry backed by the {@code thread_lineage} closure table. Ancestor, count and
+ * descendant-page queries are single index range scans, so their cost follows the size
+ * of the answer rather than the depth of the tree; the price is paid on fork, which
+ * copies the parent's ancestor rows. {@link #mostForkedDescendant} is the exception: fork
+ * counts live on {@code threads}, so it reads and sorts the whole descendant set.
+ */
+@Service
+@RequiredArgsConstructor
+public class LineageService {
+    private static final int MAX_PAGE_LIMIT = 100;
+
+    private final ThreadLineageRepository lineageRepository;
+
+    /** Must run in the transaction that creates the fork. */
+    @Transactional
+    public void recordFork(Long parentId, Long childId) {
+        lineageRepository.linkFork(parentId, childId);
+    }
+
+    /** Ancestor chain, nearest (the thread it was forked from) first. */
+    @Transactional(readOnly = true)
+    public List<LineageNode> ancestors(Long threadId) {
+        return lineageRepository.findAncestors(threadId).stream().map(LineageService::toNode).toList();
+    }
+
+    @Transactional(readOnly = true)
+    public long countDescendants(Long threadId, Integer maxDepth) {
+        return lineageRepository.countDescendants(threadId, depthLimit(maxDepth));
+    }
+
+    /** Descendants in thread id order, optionally only the first {@code maxDepth} generations. */
+    @Transactional(readOnly = true)
+    public LineagePage descendants(Long threadId, Integer maxDepth, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_LIMIT));
+        List<LineageNodeView> rows = lineageRepository.findDescendants(
+                threadId, depthLimit(maxDepth), FeedCursor.decode(cursor), PageRequest.of(0, pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+        String nextCursor = hasMore ? FeedCursor.encode(rows.get(rows.size() - 1).getThreadId()) : null;
+        return new LineagePage(rows.stream().map(LineageService::toNode).toList(), nextCursor);
+    }
+
+    /** Cost grows with the number of descendants, not with the answer. */
+    @Transactional(readOnly = true)
+    public Optional<LineageNode> mostForkedDescendant(Long threadId) {
+        return lineageRepository.findMostForkedDescendants(threadId, PageRequest.of(0, 1)).stream()
+                .findFirst()
+                .map(LineageService::toNode);
+    }
+
+    private static int depthLimit(Integer maxDepth) {
+        return maxDepth == null || maxDepth < 1 ? Integer.MAX_VALUE : maxDepth;
+    }
+
+    private static LineageNode toNode(LineageNodeView view) {
+        return new LineageNode(view.getThreadId(), view.getTitle(), view.getDepth(), view.getForkCount());
+    }
+}
@@ -0,0 +1,309 @@
+package com.threadspire.intern.services;
+
+import com.threadspire.intern.dto.ThreadCounts;
+import com.threadspire.intern.events.ThreadsChangedEvent;
+import com.threadspire.intern.repositories.CounterRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes reaction, bookmark and fork counts to Server-Sent Events subscribers of a
+ * thread.
+ * <p>
+ * Counter flushes ({@link ThreadsChangedEvent}) mark the threads somebody is watching
+ * as changed. Every {@code app.live.interval-ms} the changed threads' counts are read
+ * in one statement and handed to each subscriber, which makes one frame per thread
+ * per interval however busy the thread is. Frames carry absolute counts and the
+ * thread's revision, so a client can drop any frame its snapshot already reflects.
+ * <p>
+ * Writes to connections run on a small shared pool with at most one write in flight
+ * per subscriber. A subscriber whose previous frame is still being written only gets
+ * the latest counts once it finishes. A write that takes longer than
+ * {@code app.live.write-timeout-ms} evicts its subscriber, and the pool gets a
+ * thread in its place until the blocked write returns or the container times the
+ * connection out, so stalled clients never hold up the rest.
+ */
+@Slf4j
+@Service
+public class LiveCountBroadcaster {
+    private final CounterRepository counterRepository;
+    private final long timeoutMs;
+    private final int maxSubscribers;
+    private final long writeTimeoutNanos;
+    private final int senderThreads;
+    private final ThreadPoolExecutor sender;
+
+    private final ConcurrentHashMap<Long, Set<Subscriber>> topics = new ConcurrentHashMap<>();
+    private final Set<Long> changed = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    // Writes that outlived the write timeout; each has a spare pool thread standing in for it
+    private int stalledWrites;   // guarded by this
+
+    @Autowired
+    public LiveCountBroadcaster(CounterRepository counterRepository,
+                                @Value("${app.live.timeout-ms:300000}") long timeoutMs,
+                                @Value("${app.live.max-subscribers:10000}") int maxSubscribers,
+                                @Value("${app.live.sender-threads:4}") int senderThreads,
+                                @Value("${app.live.write-timeout-ms:5000}") long writeTimeoutMs) {
+        this.counterRepository = counterRepository;
+        this.timeoutMs = timeoutMs;
+        this.maxSubscribers = maxSubscribers;
+        this.writeTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(writeTimeoutMs);
+        this.senderThreads = senderThreads;
+        this.sender = new ThreadPoolExecutor(senderThreads, senderThreads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+            java.lang.Thread t = new java.lang.Thread(r, "live-count-sender");
+            t.setDaemon(true);
+            return t;
+        });
+        // Lets the spare threads added for stalled writes go away again
+        this.sender.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Opens a stream of {@code counts} events for the thread. The client should read
+     * the thread after subscribing and apply every frame with a higher revision.
+     */
+    public SseEmitter subscribe(Long threadId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        register(threadId, emitter);
+        return emitter;
+    }
+
+    void register(Long threadId, SseEmitter emitter) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many live subscribers");
+        }
+        Subscriber subscriber = new Subscriber(threadId, emitter);
+        topics.compute(threadId, (id, subscribers) -> {
+            Set<Subscriber> s = subscribers == null ? ConcurrentHashMap.newKeySet() : subscribers;
+            s.add(subscriber);
+            return s;
+        });
+        emitter.onCompletion(() -> unregister(subscriber));
+        emitter.onTimeout(() -> unregister(subscriber));
+        emitter.onError(e -> unregister(subscriber));
+    }
+
+    @EventListener
+    public void onThreadsChanged(ThreadsChangedEvent event) {
+        for (Long threadId : event.threadIds()) {
+            if (topics.containsKey(threadId)) {
+                changed.add(threadId);
+            }
+        }
+    }
+
+    /**
+     * Sends the current counts of every watched thread that changed since the last
+     * broadcast, and evicts subscribers whose write has stalled.
+     */
+    @Scheduled(fixedDelayString = "${app.live.interval-ms:1000}")
+    public void broadcast() {
+        evictStalled();
+        List<Long> threadIds = new ArrayList<>();
+        for (Long threadId : changed) {
+            changed.remove(threadId);
+            if (topics.containsKey(threadId)) {
+                threadIds.add(threadId);
+            }
+        }
+        if (threadIds.isEmpty()) {
+            return;
+        }
+        Map<Long, ThreadCounts> counts;
+        try {
+            counts = counterRepository.findCounts(threadIds);
+        } catch (RuntimeException e) {
+            log.warn("Could not read live counts of {} threads, retrying next interval", threadIds.size(), e);
+            changed.addAll(threadIds);
+            return;
+        }
+        counts.forEach((threadId, frame) -> {
+            Set<Subscriber> subscribers = topics.get(threadId);
+            if (subscribers != null) {
+                subscribers.forEach(s -> s.offer(frame, false));
+            }
+        });
+    }
+
+    /**
+     * Comment frames on quiet streams, so proxies keep them open and closed clients
+     * are noticed.
+     */
+    @Scheduled(fixedDelayString = "${app.live.heartbeat-ms:15000}")
+    public void heartbeat() {
+        topics.values().forEach(subscribers -> subscribers.forEach(s -> s.offer(null, true)));
+    }
+
+    /**
+     * Drops every subscriber whose current write started more than the write timeout
+     * ago. Its connection is completed once the write returns or fails.
+     */
+    void evictStalled() {
+        long now = System.nanoTime();
+        topics.values().forEach(subscribers -> subscribers.forEach(s -> {
+            if (s.markStalled(now)) {
+                log.debug("Evicting live subscriber of thread {}: write timed out", s.threadId);
+                unregister(s);
+            }
+        }));
+    }
+
+    @PreDestroy
+    public void close() {
+        topics.values().forEach(subscribers -> subscribers.forEach(s -> s.emitter.complete()));
+        sender.shutdown();
+    }
+
+    int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    private boolean unregister(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return false;
+        }
+        subscriberCount.decrementAndGet();
+        topics.computeIfPresent(subscriber.threadId, (id, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+        return true;
+    }
+
+    private synchronized void addStalledWrites(int delta) {
+        stalledWrites += delta;
+        int size = senderThreads + stalledWrites;
+        // The core size may never exceed the maximum
+        if (delta > 0) {
+            sender.setMaximumPoolSize(size);
+            sender.setCorePoolSize(size);
+        } else {
+            sender.setCorePoolSize(size);
+            sender.setMaximumPoolSize(size);
+        }
+    }
+
+    private final class Subscriber {
+        final Long threadId;
+        final SseEmitter emitter;
+        final AtomicBoolean closed = new AtomicBoolean();
+        // Guarded by this
+        private ThreadCounts unsent;
+        private boolean heartbeatDue;
+        private boolean sending;
+        private long writingSince;   // start of the write in flight, 0 when idle
+        private boolean stalled;     // the pool has a spare thread standing in for the write in flight
+
+        Subscriber(Long threadId, SseEmitter emitter) {
+            this.threadId = threadId;
+            this.emitter = emitter;
+        }
+
+        void offer(ThreadCounts frame, boolean heartbeat) {
+            synchronized (this) {
+                if (closed.get()) {
+                    return;
+                }
+                if (frame != null && (unsent == null || frame.getRevision() >= unsent.getRevision())) {
+                    unsent = frame;
+                }
+                heartbeatDue |= heartbeat;
+                if (sending) {
+                    return;
+                }
+                sending = true;
+            }
+            sender.execute(this::drain);
+        }
+
+        /**
+         * True if the write in flight started more than the write timeout before
+         * {@code now} and was not marked yet; the pool then gets a spare thread.
+         */
+        synchronized boolean markStalled(long now) {
+            if (writingSince == 0 || stalled || now - writingSince <= writeTimeoutNanos) {
+                return false;
+            }
+            stalled = true;
+            addStalledWrites(1);
+            return true;
+        }
+
+        /**
+         * Ends the write in flight; true if it had been marked stalled, in which case
+         * the spare pool thread is given back.
+         */
+        private synchronized boolean finishWrite() {
+            writingSince = 0;
+            if (!stalled) {
+                return false;
+            }
+            stalled = false;
+            addStalledWrites(-1);
+            return true;
+        }
+
+        private void drain() {
+            while (true) {
+                ThreadCounts frame;
+                boolean heartbeat;
+                synchronized (this) {
+                    if (closed.get() || (unsent == null && !heartbeatDue)) {
+                        sending = false;
+                        return;
+                    }
+                    frame = unsent;
+                    heartbeat = heartbeatDue;
+                    unsent = null;
+                    heartbeatDue = false;
+                    writingSince = Math.max(System.nanoTime(), 1);
+                }
+                try {
+                    if (frame != null) {
+                        emitter.send(SseEmitter.event().name("counts").data(frame, MediaType.APPLICATION_JSON));
+                    } else if (heartbeat) {
+                        emitter.send(SseEmitter.event().comment("ping"));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away or the emitter already completed
+                    log.debug("Dropping live subscriber of thread {}: {}", threadId, e.toString());
+                    finishWrite();
+                    unregister(this);
+                    emitter.completeWithError(e);
+                    synchronized (this) {
+                        sending = false;
+                    }
+                    return;
+                }
+                if (finishWrite()) {
+                    emitter.completeWithError(new TimeoutException("Live count write timed out"));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.threadspire.intern.services;
+
+import com.threadspire.intern.dto.ReactionRequest;
+import com.threadspire.intern.events.ReactionAddedEvent;
+import com.threadspire.intern.events.ReactionsAddedEvent;
+import com.threadspire.intern.models.ReactionType;
+import com.threadspire.intern.repositories.ReactionBatchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind path for reactions. {@link #submit} validates nothing against the
+ * database: it puts the reaction in a bounded in-memory queue, keyed by (user, post)
+ * so repeated taps collapse into one, and returns. A single writer thread drains the
+ * queue in group commits of up to {@code batch-size} reactions, at most
+ * {@code max-delay-ms} after the oldest one arrived, with one insert statement per
+ * batch. Unknown users or posts and reactions the user already made are skipped by
+ * that statement.
+ * <p>
+ * Durability: an accepted reaction is only in memory until its batch commits. A
+ * graceful shutdown stops accepting (submit answers {@link Admission#STOPPED}) and
+ * drains the queue before the data source closes; a crash loses at most
+ * {@code capacity} accepted reactions plus the batch being written. A batch that
+ * fails is retried {@value #MAX_ATTEMPTS} times in total, then dropped and counted.
+ * Callers that need a reaction to be durable when they get a response use
+ * {@link ReactionService#addReaction} instead.
+ */
+@Slf4j
+@Service
+public class ReactionIngestService implements SmartLifecycle {
+    static final int MAX_ATTEMPTS = 3;
+
+    private final ReactionBatchRepository reactionBatchRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionOperations transactions;
+    private final int capacity;
+    private final int batchSize;
+    private final long maxDelayNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition ready = lock.newCondition();
+    // Insertion order is arrival order, so the first entry is the oldest
+    private final LinkedHashMap<Key, Pending> pending = new LinkedHashMap<>();
+    private volatile boolean running;
+    private java.lang.Thread writer;
+
+    private final Counter rejected;
+    private final Counter dropped;
+    private final DistributionSummary batches;
+
+    @Autowired
+    public ReactionIngestService(ReactionBatchRepository reactionBatchRepository,
+                                 ApplicationEventPublisher eventPublisher,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.reactions.ingest.capacity:10000}") int capacity,
+                                 @Value("${app.reactions.ingest.batch-size:500}") int batchSize,
+                                 @Value("${app.reactions.ingest.max-delay-ms:20}") long maxDelayMs) {
+        this(reactionBatchRepository, eventPublisher, new TransactionTemplate(transactionManager), meterRegistry,
+                capacity, batchSize, maxDelayMs);
+    }
+
+    ReactionIngestService(ReactionBatchRepository reactionBatchRepository,
+                          ApplicationEventPublisher eventPublisher,
+                          TransactionOperations transactions,
+                          MeterRegistry meterRegistry,
+                          int capacity, int batchSize, long maxDelayMs) {
+        this.reactionBatchRepository = reactionBatchRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactions = transactions;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        Gauge.builder("threadspire.reactions.ingest.pending", this, ReactionIngestService::pendingCount)
+                .description("Reactions accepted but not yet written")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("threadspire.reactions.ingest.rejected")
+                .description("Reactions refused because the queue was full")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("threadspire.reactions.ingest.dropped")
+                .description("Accepted reactions discarded after their batch failed " + MAX_ATTEMPTS + " times")
+                .register(meterRegistry);
+        this.batches = DistributionSummary.builder("threadspire.reactions.ingest.batch")
+                .description("Reactions per group commit")
+                .register(meterRegistry);
+    }
+
+    public Admission submit(Long userId, ReactionRequest request) {
+        if (request == null || request.getType() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Reaction type is required");
+        }
+        lock.lock();
+        try {
+            if (!running) {
+                return Admission.STOPPED;
+            }
+            Key key = new Key(userId, request.getPostId());
+            if (pending.containsKey(key)) {
+                // Same as the database: the first reaction to a post wins
+                return Admission.ACCEPTED;
+            }
+            if (pending.size() >= capacity) {
+                rejected.increment();
+                return Admission.FULL;
+            }
+            pending.put(key, new Pending(request.getType(), System.nanoTime(), 0));
+            if (pending.size() == 1 || pending.size() >= batchSize) {
+                ready.signal();
+            }
+            return Admission.ACCEPTED;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void start() {
+        lock.lock();
+        try {
+            running = true;
+        } finally {
+            lock.unlock();
+        }
+        writer = new java.lang.Thread(this::writeLoop, "reaction-ingest");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stops accepting and waits for the queue to drain. Runs before singletons are
+     * destroyed, so the counter listeners still see the last batches' events.
+     */
+    @Override
+    public void stop() {
+        lock.lock();
+        try {
+            running = false;
+            ready.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            java.lang.Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            log.warn("Reaction ingest did not drain within 30s; {} reactions not written", pendingCount());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void writeLoop() {
+        try {
+            List<Map.Entry<Key, Pending>> batch;
+            while ((batch = nextBatch()) != null) {
+                if (!write(batch)) {
+                    // Back off instead of spinning while the database is unavailable
+                    java.lang.Thread.sleep(Math.max(TimeUnit.NANOSECONDS.toMillis(maxDelayNanos), 100));
+                }
+            }
+        } catch (InterruptedException e) {
+            log.warn("Reaction ingest interrupted; {} reactions not written", pendingCount());
+        }
+    }
+
+    /**
+     * Waits until a full batch is queued or the oldest queued reaction is due, and
+     * takes up to {@code batch-size} reactions. Once stopped, returns what is left
+     * without waiting; null when stopped and empty.
+     */
+    List<Map.Entry<Key, Pending>> nextBatch() throws InterruptedException {
+        lock.lock();
+        try {
+            while (pending.isEmpty()) {
+                if (!running) {
+                    return null;
+                }
+                ready.await();
+            }
+            while (running && pending.size() < batchSize) {
+                long wait = pending.values().iterator().next().enqueuedAt() + maxDelayNanos - System.nanoTime();
+                if (wait <= 0) {
+                    break;
+                }
+                ready.awaitNanos(wait);
+            }
+            List<Map.Entry<Key, Pending>> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+            Iterator<Map.Entry<Key, Pending>> it = pending.entrySet().iterator();
+            while (it.hasNext() && batch.size() < batchSize) {
+                Map.Entry<Key, Pending> entry = it.next();
+                batch.add(Map.entry(entry.getKey(), entry.getValue()));
+                it.remove();
+            }
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Inserts one batch and publishes a {@link ReactionsAddedEvent} per user from
+     * inside its transaction. Counters and analytics listen after commit, so a batch
+     * that rolls back is never counted; analytics only buffers the deltas until its
+     * next flush.
+     *
+     * @return false if the batch failed and was re-queued or dropped
+     */
+    boolean write(List<Map.Entry<Key, Pending>> batch) {
+        Long[] userIds = new Long[batch.size()];
+        Long[] postIds = new Long[batch.size()];
+        String[] types = new String[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            userIds[i] = batch.get(i).getKey().userId();
+            postIds[i] = batch.get(i).getKey().postId();
+            types[i] = batch.get(i).getValue().type().name();
+        }
+        try {
+            transactions.executeWithoutResult(status -> {
+                Map<Long, List<ReactionAddedEvent>> byUser = reactionBatchRepository.insertForUsers(userIds, postIds, types)
+                        .stream()
+                        .map(a -> new ReactionAddedEvent(a.postId(), a.threadId(), a.userId(), a.ownerId(), a.type()))
+                        .collect(Collectors.groupingBy(ReactionAddedEvent::userId, LinkedHashMap::new, Collectors.toList()));
+                byUser.forEach((userId, reactions) -> eventPublisher.publishEvent(new ReactionsAddedEvent(userId, reactions)));
+            });
+            batches.record(batch.size());
+            return true;
+        } catch (RuntimeException e) {
+            requeue(batch, e);
+            return false;
+        }
+    }
+
+    private void requeue(List<Map.Entry<Key, Pending>> batch, RuntimeException cause) {
+        log.warn("Reaction batch of {} failed", batch.size(), cause);
+        int droppedCount = 0;
+        lock.lock();
+        try {
+            // Back in front of anything that arrived meanwhile; capacity is not checked
+            // since these were already accepted
+            LinkedHashMap<Key, Pending> rest = new LinkedHashMap<>(pending);
+            pending.clear();
+            for (Map.Entry<Key, Pending> entry : batch) {
+                Pending p = entry.getValue();
+                if (p.attempts() + 1 >= MAX_ATTEMPTS) {
+                    droppedCount++;
+                } else {
+                    pending.put(entry.getKey(), new Pending(p.type(), p.enqueuedAt(), p.attempts() + 1));
+                }
+            }
+            rest.forEach(pending::putIfAbsent);
+        } finally {
+            lock.unlock();
+        }
+        if (droppedCount > 0) {
+            log.error("Dropped {} reactions after {} failed writes", droppedCount, MAX_ATTEMPTS);
+            dropped.increment(droppedCount);
+        }
+    }
+
+    int pendingCount() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public enum Admission { ACCEPTED, FULL, STOPPED }
+
+    record Key(Long userId, Long postId) {
+    }
+
+    record Pending(ReactionType type, long enqueuedAt, int attempts) {
+    }
+}
@@ -1,25 +1,39 @@
 package com.threadspire.intern.services;
 
 
+import com.threadspire.intern.dto.BulkChangeResult;
 import com.threadspire.intern.dto.ReactionRequest;
+import com.threadspire.intern.events.ReactionAddedEvent;
+import com.threadspire.intern.events.ReactionsAddedEvent;
 import com.threadspire.intern.models.Post;
 import com.threadspire.intern.models.Reaction;
 import com.threadspire.intern.models.ReactionType;
+import com.threadspire.intern.models.Thread;
 import com.threadspire.intern.models.User;
 import com.threadspire.intern.repositories.ReactionRepository;
 import com.threadspire.intern.repositories.*;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class ReactionService {
+    static final int MAX_BULK_SIZE = 100;
 
     private final ReactionRepository reactionRepository;
+    private final ReactionBatchRepository reactionBatchRepository;
     private final UserRepository userRepository;
     private final PostRepository postRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<Reaction> findAll() {
         return reactionRepository.findAll();
@@ -28,10 +42,15 @@ public class ReactionService {
     public Reaction save(Reaction reaction) {
         return reactionRepository.save(reaction);
     }
+    @Transactional
     public Reaction addReaction(Long userId, ReactionRequest request) {
         User user = userRepository.findById(userId).orElseThrow();
         Post post = postRepository.findById(request.getPostId()).orElseThrow();
 
+        if (request.getType() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Reaction type is required");
+        }
+
         // Check if user already reacted
         if (reactionRepository.findByUserAndPost(user, post).isPresent()) {
             throw new RuntimeException("User has already reacted to this post");
@@ -40,8 +59,48 @@ public class ReactionService {
         Reaction reaction = new Reaction();
         reaction.setUser(user);
         reaction.setPost(post);
-       // reaction.setType(ReactionType.valueOf(request.getReactionType()));
-        return reactionRepository.save(reaction);
+        reaction.setType(request.getType());
+        Reaction saved = reactionRepository.save(reaction);
+
+        Thread thread = post.getThread();
+        eventPublisher.publishEvent(new ReactionAddedEvent(post.getId(), thread.getId(), user.getId(),
+                thread.getUser() == null ? null : thread.getUser().getId(), saved.getType()));
+        return saved;
     }
-}
 
+    /**
+     * Reacts to up to {@value #MAX_BULK_SIZE} posts with one statement, by id: neither
+     * the user nor the posts are loaded. Posts the user already reacted to are left
+     * alone; if a post appears more than once, its first reaction type wins.
+     */
+    @Transactional
+    public BulkChangeResult addReactions(Long userId, List<ReactionRequest> requests) {
+        Map<Long, ReactionType> typeByPost = new LinkedHashMap<>();
+        for (ReactionRequest request : requests == null ? List.<ReactionRequest>of() : requests) {
+            if (request == null || request.getType() == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Reaction type is required");
+            }
+            typeByPost.putIfAbsent(request.getPostId(), request.getType());
+        }
+        if (typeByPost.isEmpty() || typeByPost.size() > MAX_BULK_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Between 1 and " + MAX_BULK_SIZE + " reactions are required");
+        }
+
+        List<ReactionBatchRepository.Added> added;
+        try {
+            added = reactionBatchRepository.insertAll(userId, typeByPost.keySet().toArray(Long[]::new),
+                    typeByPost.values().stream().map(ReactionType::name).toArray(String[]::new));
+        } catch (DataIntegrityViolationException e) {
+            // The only foreign key not checked by the statement itself
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+        }
+
+        if (!added.isEmpty()) {
+            eventPublisher.publishEvent(new ReactionsAddedEvent(userId, added.stream()
+                    .map(a -> new ReactionAddedEvent(a.postId(), a.threadId(), userId, a.ownerId(), a.type()))
+                    .toList()));
+        }
+        return new BulkChangeResult(typeByPost.size(), added.stream().map(ReactionBatchRepository.Added::postId).toList());
+    }
+}
@@ -0,0 +1,101 @@
+package com.threadspire.intern.services;
+
+import com.threadspire.intern.models.Post;
+import com.threadspire.intern.repositories.ThreadSearchRepository;
+import com.threadspire.intern.repositories.ThreadSearchRepository.Document;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * Keeps {@code thread_search} in step with thread content. Writers call {@link #index}
+ * in their own transaction, so a thread and its document commit or roll back together.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SearchIndexer {
+    // to_tsvector rejects documents over 1MB; text past this point is not searchable
+    static final int MAX_INDEXED_CHARS = 256 * 1024;
+
+    private final ThreadSearchRepository threadSearchRepository;
+    private final SegmentStore segmentStore;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.search.backfill-batch-size:200}")
+    private int backfillBatchSize;
+
+    /**
+     * Indexes a thread from its posts. Posts written in this request carry their text;
+     * the rest (segments a fork shares with its original) are read from the segment store.
+     */
+    public void index(Long threadId, String title, List<Post> posts) {
+        Set<String> missing = new HashSet<>();
+        for (Post post : posts) {
+            if (post.getContent() == null && post.getBodyHash() != null) {
+                missing.add(post.getBodyHash());
+            }
+        }
+        Map<String, String> loaded = segmentStore.loadAll(missing);
+        List<String> texts = new ArrayList<>(posts.size());
+        for (Post post : posts) {
+            texts.add(post.getContent() != null ? post.getContent() : loaded.getOrDefault(post.getBodyHash(), ""));
+        }
+        threadSearchRepository.upsertAll(List.of(new Document(threadId, title, join(texts))));
+    }
+
+    /**
+     * Indexes threads created before search existed, a batch at a time. Each batch
+     * resumes after the last id of the previous one, so the scan is one pass over threads.
+     * <p>
+     * Each batch is one read-write transaction, so its reads come from the primary: a
+     * lagging replica would hand out threads without their segments, indexed for good
+     * with an empty body.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int indexed = 0;
+        long lastId = 0;
+        while (true) {
+            long afterId = lastId;
+            List<Document> documents = transaction.execute(status -> backfillBatch(afterId));
+            if (documents == null || documents.isEmpty()) {
+                break;
+            }
+            indexed += documents.size();
+            lastId = documents.get(documents.size() - 1).threadId();
+        }
+        if (indexed > 0) {
+            log.info("Indexed {} threads for search", indexed);
+        }
+    }
+
+    private List<Document> backfillBatch(long afterId) {
+        Map<Long, String> titles = threadSearchRepository.findUnindexed(afterId, backfillBatchSize);
+        if (titles.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<String>> hashes = threadSearchRepository.findBodyHashes(titles.keySet());
+        Map<String, String> bodies = segmentStore.loadAll(
+                hashes.values().stream().flatMap(List::stream).toList());
+
+        List<Document> documents = new ArrayList<>(titles.size());
+        titles.forEach((id, title) -> documents.add(new Document(id, title, join(
+                hashes.getOrDefault(id, List.of()).stream().map(h -> bodies.getOrDefault(h, "")).toList()))));
+        threadSearchRepository.upsertAll(documents);
+        return documents;
+    }
+
+    private static String join(List<String> texts) {
+        String body = String.join("\n", texts);
+        return body.length() > MAX_INDEXED_CHARS ? body.substring(0, MAX_INDEXED_CHARS) : body;
+    }
+}
@@ -0,0 +1,27 @@
+package com.threadspire.intern.services;
+
+import com.threadspire.intern.events.ThreadsChangedEvent;
+import com.threadspire.intern.models.Thread;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts cached threads whose rows were changed with plain SQL (counter flushes),
+ * which Hibernate cannot see.
+ */
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCacheEvictor {
+    private final EntityManagerFactory entityManagerFactory;
+
+    @EventListener
+    public void onThreadsChanged(ThreadsChangedEvent event) {
+        Cache cache = entityManagerFactory.getCache();
+        for (Long threadId : event.threadIds()) {
+            cache.evict(Thread.class, threadId);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.threadspire.intern.services;
+
+import com.threadspire.intern.models.SegmentBody;
+import com.threadspire.intern.repositories.SegmentBodyBatchRepository;
+import com.threadspire.intern.repositories.SegmentBodyRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Content-addressed storage for segment text. Each distinct text is stored once
+ * under the hex SHA-256 of its UTF-8 bytes, gzip-compressed when it is large
+ * enough for that to pay off.
+ */
+@Service
+@RequiredArgsConstructor
+public class SegmentStore {
+    static final int COMPRESSION_THRESHOLD_BYTES = 1024;
+
+    private final SegmentBodyRepository segmentBodyRepository;
+    private final SegmentBodyBatchRepository segmentBodyBatchRepository;
+
+    /**
+     * Stores every text not stored yet, in one batch, and returns the hashes in input order.
+     */
+    public List<String> storeAll(List<String> contents) {
+        List<String> hashes = new ArrayList<>(contents.size());
+        Map<String, SegmentBody> bodies = new LinkedHashMap<>();
+        for (String content : contents) {
+            byte[] raw = (content == null ? "" : content).getBytes(StandardCharsets.UTF_8);
+            String hash = hash(raw);
+            hashes.add(hash);
+            bodies.computeIfAbsent(hash, h -> encode(h, raw));
+        }
+        if (!bodies.isEmpty()) {
+            segmentBodyBatchRepository.insertMissing(bodies.values());
+        }
+        return hashes;
+    }
+
+    public Map<String, String> loadAll(Collection<String> hashes) {
+        Map<String, String> contents = new HashMap<>();
+        if (hashes.isEmpty()) {
+            return contents;
+        }
+        for (SegmentBody body : segmentBodyRepository.findAllById(new HashSet<>(hashes))) {
+            contents.put(body.getHash(), decode(body));
+        }
+        return contents;
+    }
+
+    static String hash(byte[] raw) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(raw));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static SegmentBody encode(String hash, byte[] raw) {
+        if (raw.length >= COMPRESSION_THRESHOLD_BYTES) {
+            byte[] gzipped = gzip(raw);
+            if (gzipped.length < raw.length) {
+                return new SegmentBody(hash, gzipped, true);
+            }
+        }
+        return new SegmentBody(hash, raw, false);
+    }
+
+    static String decode(SegmentBody body) {
+        byte[] raw = body.isCompressed() ? gunzip(body.getPayload()) : body.getPayload();
+        return new String(raw, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gzip(byte[] raw) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(raw);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] payload) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+            return gzip.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.threadspire.intern.services;
+
+import com.threadspire.intern.events.ThreadCreatedEvent;
+import com.threadspire.intern.events.ThreadForkedEvent;
+import com.threadspire.intern.repositories.TagBatchRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory tag index: one compressed bitmap of thread ids per tag name, plus
+ * bitmaps of all and of published threads. Tag expressions are answered by
+ * bitmap algebra without touching the database.
+ * <p>
+ * Rebuilt from {@code thread_tags} at startup and kept current from committed
+ * create and fork events. Thread ids must fit in an int, which sequence ids do
+ * for the foreseeable future.
+ */
+@Slf4j
+@Service
+public class TagBitmapIndex {
+    private final TagBatchRepository tagBatchRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<String, RoaringBitmap> byTag = new HashMap<>();
+    private RoaringBitmap all = new RoaringBitmap();
+    private RoaringBitmap published = new RoaringBitmap();
+
+    // Threads committed while a rebuild is reading the database, replayed onto its result
+    private List<Entry> replay;
+
+    public TagBitmapIndex(TagBatchRepository tagBatchRepository) {
+        this.tagBatchRepository = tagBatchRepository;
+    }
+
+    @TransactionalEventListener
+    public void onThreadCreated(ThreadCreatedEvent event) {
+        add(new Entry(event.threadId(), event.tagNames(), event.published()));
+    }
+
+    @TransactionalEventListener
+    public void onThreadForked(ThreadForkedEvent event) {
+        // Forks start out unpublished
+        add(new Entry(event.forkedThreadId(), event.tagNames(), false));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            replay = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<String, RoaringBitmap> newByTag = new HashMap<>();
+        RoaringBitmap newAll = new RoaringBitmap();
+        RoaringBitmap newPublished = new RoaringBitmap();
+        try {
+            tagBatchRepository.scanThreads((id, isPublished) -> {
+                newAll.add(toInt(id));
+                if (isPublished) {
+                    newPublished.add(toInt(id));
+                }
+            });
+            tagBatchRepository.scanThreadTags((threadId, name) ->
+                    newByTag.computeIfAbsent(name, k -> new RoaringBitmap()).add(toInt(threadId)));
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                replay = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        newByTag.values().forEach(RoaringBitmap::runOptimize);
+        newAll.runOptimize();
+        newPublished.runOptimize();
+
+        lock.writeLock().lock();
+        try {
+            for (Entry entry : replay) {
+                apply(entry, newByTag, newAll, newPublished);
+            }
+            replay = null;
+            byTag = newByTag;
+            all = newAll;
+            published = newPublished;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Tag index rebuilt: {} threads, {} tags", newAll.getCardinality(), newByTag.size());
+    }
+
+    /**
+     * Evaluates a tag expression (see {@link TagQuery}) and returns up to {@code limit}
+     * matching ids below {@code beforeId} (all ids when null), highest first, plus the
+     * total match count.
+     *
+     * @throws IllegalArgumentException if the expression does not parse
+     */
+    public Match find(String expression, Boolean publishedOnly, Long beforeId, int limit) {
+        TagQuery query = TagQuery.parse(expression);
+        lock.readLock().lock();
+        try {
+            RoaringBitmap matches = query.evaluate(byTag::get, all);
+            if (publishedOnly != null) {
+                matches = publishedOnly ? RoaringBitmap.and(matches, published) : RoaringBitmap.andNot(matches, published);
+            }
+            if (matches.isEmpty()) {
+                return new Match(List.of(), 0);
+            }
+            List<Long> ids = new ArrayList<>(limit);
+            long next = beforeId == null ? matches.last() + 1L : Math.min(beforeId, Integer.MAX_VALUE + 1L);
+            while (ids.size() < limit && next > 0) {
+                long previous = matches.previousValue((int) (next - 1));
+                if (previous < 0) {
+                    break;
+                }
+                ids.add(previous);
+                next = previous;
+            }
+            return new Match(ids, matches.getLongCardinality());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(Entry entry) {
+        lock.writeLock().lock();
+        try {
+            apply(entry, byTag, all, published);
+            if (replay != null) {
+                replay.add(entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void apply(Entry entry, Map<String, RoaringBitmap> byTag, RoaringBitmap all, RoaringBitmap published) {
+        int id = toInt(entry.threadId());
+        all.add(id);
+        if (entry.published()) {
+            published.add(id);
+        }
+        if (entry.tagNames() != null) {
+            for (String name : entry.tagNames()) {
+                byTag.computeIfAbsent(name, k -> new RoaringBitmap()).add(id);
+            }
+        }
+    }
+
+    private static int toInt(long threadId) {
+        return Math.toIntExact(threadId);
+    }
+
+    /** @param ids matching thread ids, highest first */
+    public record Match(List<Long> ids, long total) {
+    }
+
+    private record Entry(Long threadId, Set<String> tagNames, boolean published) {
+    }
+}
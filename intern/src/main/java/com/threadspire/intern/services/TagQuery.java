@@ -0,0 +1,201 @@
+package com.threadspire.intern.services;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A parsed tag expression such as {@code java AND concurrency NOT beginner}.
+ * <p>
+ * Grammar, keywords case-insensitive, tighter binding first:
+ * <pre>
+ * term    := tag | "quoted tag" | ( expr ) | NOT term
+ * and     := term { [AND] term | NOT term }     -- "a NOT b" reads as a AND NOT b
+ * expr    := and { OR and }
+ * </pre>
+ */
+sealed interface TagQuery {
+    int MAX_TAGS = 32;
+
+    /**
+     * @param bitmaps  bitmap for a tag name, or null if no thread has it
+     * @param universe every indexed thread, the base for negation
+     */
+    RoaringBitmap evaluate(Function<String, RoaringBitmap> bitmaps, RoaringBitmap universe);
+
+    record Tag(String name) implements TagQuery {
+        public RoaringBitmap evaluate(Function<String, RoaringBitmap> bitmaps, RoaringBitmap universe) {
+            RoaringBitmap bitmap = bitmaps.apply(name);
+            return bitmap == null ? new RoaringBitmap() : bitmap;
+        }
+    }
+
+    record Not(TagQuery operand) implements TagQuery {
+        public RoaringBitmap evaluate(Function<String, RoaringBitmap> bitmaps, RoaringBitmap universe) {
+            return RoaringBitmap.andNot(universe, operand.evaluate(bitmaps, universe));
+        }
+    }
+
+    record And(List<TagQuery> included, List<TagQuery> excluded) implements TagQuery {
+        public RoaringBitmap evaluate(Function<String, RoaringBitmap> bitmaps, RoaringBitmap universe) {
+            // Intersect smallest first so the running result shrinks as fast as possible
+            List<RoaringBitmap> parts = new ArrayList<>();
+            for (TagQuery query : included) {
+                parts.add(query.evaluate(bitmaps, universe));
+            }
+            parts.sort((a, b) -> Integer.compare(a.getCardinality(), b.getCardinality()));
+            RoaringBitmap result = parts.isEmpty() ? universe.clone() : parts.get(0).clone();
+            for (int i = 1; i < parts.size() && !result.isEmpty(); i++) {
+                result.and(parts.get(i));
+            }
+            for (TagQuery query : excluded) {
+                if (result.isEmpty()) {
+                    break;
+                }
+                result.andNot(query.evaluate(bitmaps, universe));
+            }
+            return result;
+        }
+    }
+
+    record Or(List<TagQuery> operands) implements TagQuery {
+        public RoaringBitmap evaluate(Function<String, RoaringBitmap> bitmaps, RoaringBitmap universe) {
+            RoaringBitmap[] parts = new RoaringBitmap[operands.size()];
+            for (int i = 0; i < parts.length; i++) {
+                parts[i] = operands.get(i).evaluate(bitmaps, universe);
+            }
+            return RoaringBitmap.or(parts);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the expression is empty, malformed or names more than {@link #MAX_TAGS} tags
+     */
+    static TagQuery parse(String expression) {
+        return new Parser(tokenize(expression == null ? "" : expression)).parse();
+    }
+
+    private static List<String> tokenize(String expression) {
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < expression.length()) {
+            char c = expression.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '(' || c == ')') {
+                tokens.add(String.valueOf(c));
+                i++;
+            } else if (c == '"') {
+                int end = expression.indexOf('"', i + 1);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unterminated quote");
+                }
+                // Quoted tags keep a marker so they are never read as keywords
+                tokens.add("\"" + expression.substring(i + 1, end).trim());
+                i = end + 1;
+            } else {
+                int start = i;
+                while (i < expression.length() && !Character.isWhitespace(expression.charAt(i))
+                        && "()\"".indexOf(expression.charAt(i)) < 0) {
+                    i++;
+                }
+                tokens.add(expression.substring(start, i));
+            }
+        }
+        return tokens;
+    }
+
+    final class Parser {
+        private final List<String> tokens;
+        private int position;
+        private int tags;
+
+        private Parser(List<String> tokens) {
+            this.tokens = tokens;
+        }
+
+        TagQuery parse() {
+            if (tokens.isEmpty()) {
+                throw new IllegalArgumentException("Empty tag expression");
+            }
+            TagQuery query = or();
+            if (position < tokens.size()) {
+                throw new IllegalArgumentException("Unexpected '" + tokens.get(position) + "'");
+            }
+            return query;
+        }
+
+        private TagQuery or() {
+            List<TagQuery> operands = new ArrayList<>(List.of(and()));
+            while (accept("OR")) {
+                operands.add(and());
+            }
+            return operands.size() == 1 ? operands.get(0) : new Or(operands);
+        }
+
+        private TagQuery and() {
+            List<TagQuery> included = new ArrayList<>();
+            List<TagQuery> excluded = new ArrayList<>();
+            included.add(term());
+            while (position < tokens.size() && !isKeyword("OR") && !peek().equals(")")) {
+                if (accept("NOT")) {
+                    excluded.add(term());
+                } else {
+                    accept("AND");
+                    included.add(term());
+                }
+            }
+            return included.size() == 1 && excluded.isEmpty() ? included.get(0) : new And(included, excluded);
+        }
+
+        private TagQuery term() {
+            if (position >= tokens.size()) {
+                throw new IllegalArgumentException("Expression ends early");
+            }
+            if (accept("NOT")) {
+                return new Not(term());
+            }
+            String token = tokens.get(position++);
+            if (token.equals("(")) {
+                TagQuery inner = or();
+                if (position >= tokens.size() || !tokens.get(position++).equals(")")) {
+                    throw new IllegalArgumentException("Missing ')'");
+                }
+                return inner;
+            }
+            if (token.equals(")") || isKeyword(token, "AND") || isKeyword(token, "OR")) {
+                throw new IllegalArgumentException("Unexpected '" + token + "'");
+            }
+            String name = token.startsWith("\"") ? token.substring(1) : token;
+            if (name.isEmpty()) {
+                throw new IllegalArgumentException("Empty tag name");
+            }
+            if (++tags > MAX_TAGS) {
+                throw new IllegalArgumentException("At most " + MAX_TAGS + " tags per expression");
+            }
+            return new Tag(name);
+        }
+
+        private String peek() {
+            return tokens.get(position);
+        }
+
+        private boolean isKeyword(String keyword) {
+            return position < tokens.size() && isKeyword(peek(), keyword);
+        }
+
+        private static boolean isKeyword(String token, String keyword) {
+            return token.equalsIgnoreCase(keyword);
+        }
+
+        private boolean accept(String keyword) {
+            if (isKeyword(keyword)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+    }
+}
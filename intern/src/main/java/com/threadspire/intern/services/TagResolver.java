@@ -0,0 +1,98 @@
+package com.threadspire.intern.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.threadspire.intern.models.Tag;
+import com.threadspire.intern.repositories.TagBatchRepository;
+import com.threadspire.intern.repositories.TagRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+
+/**
+ * Resolves tag names to tags for the write path. Known names are served from an
+ * in-process name to id cache; the rest cost one lookup plus, for names that are
+ * new, one conflict-tolerant insert batch and a re-read.
+ * <p>
+ * Returned tags are fresh detached instances, safe to put in a new thread's tag
+ * set without loading them. Ids read inside a transaction only reach the cache
+ * once it commits, so a rolled-back insert never leaves a dangling id behind.
+ */
+@Service
+public class TagResolver {
+    private final TagRepository tagRepository;
+    private final TagBatchRepository tagBatchRepository;
+    private final Cache<String, Long> idsByName;
+
+    public TagResolver(TagRepository tagRepository,
+                       TagBatchRepository tagBatchRepository,
+                       @Value("${app.tags.cache-size:10000}") long cacheSize) {
+        this.tagRepository = tagRepository;
+        this.tagBatchRepository = tagBatchRepository;
+        this.idsByName = Caffeine.newBuilder().maximumSize(cacheSize).build();
+    }
+
+    @Transactional
+    public Set<Tag> resolve(Collection<String> rawNames) {
+        if (rawNames == null || rawNames.isEmpty()) {
+            return new HashSet<>();
+        }
+        Set<String> names = new LinkedHashSet<>();
+        for (String name : rawNames) {
+            if (name != null && !name.isBlank()) {
+                names.add(name.trim());
+            }
+        }
+
+        Set<Tag> tags = new HashSet<>();
+        List<String> missing = new ArrayList<>();
+        for (String name : names) {
+            Long id = idsByName.getIfPresent(name);
+            if (id != null) {
+                tags.add(new Tag(id, name));
+            } else {
+                missing.add(name);
+            }
+        }
+        if (missing.isEmpty()) {
+            return tags;
+        }
+
+        Map<String, Long> resolved = new HashMap<>();
+        Set<String> unresolved = new HashSet<>(missing);
+        collect(tagRepository.findByNameIn(missing), tags, unresolved, resolved);
+        if (!unresolved.isEmpty()) {
+            // A copy: collect() empties unresolved as names resolve
+            Set<String> inserted = Set.copyOf(unresolved);
+            tagBatchRepository.insertMissing(inserted);
+            collect(tagRepository.findByNameIn(inserted), tags, unresolved, resolved);
+        }
+        cacheAfterCommit(resolved);
+        return tags;
+    }
+
+    private void cacheAfterCommit(Map<String, Long> resolved) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            idsByName.putAll(resolved);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                idsByName.putAll(resolved);
+            }
+        });
+    }
+
+    private static void collect(List<Tag> found, Set<Tag> tags, Set<String> unresolved, Map<String, Long> resolved) {
+        for (Tag tag : found) {
+            resolved.put(tag.getName(), tag.getId());
+            tags.add(new Tag(tag.getId(), tag.getName()));
+            unresolved.remove(tag.getName());
+        }
+    }
+}
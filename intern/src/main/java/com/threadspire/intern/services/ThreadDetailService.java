@@ -0,0 +1,65 @@
+package com.threadspire.intern.services;
+
+import com.threadspire.intern.dto.SegmentDetail;
+import com.threadspire.intern.dto.ThreadDetail;
+import com.threadspire.intern.models.ReactionType;
+import com.threadspire.intern.repositories.PostRepository;
+import com.threadspire.intern.repositories.PostReactionCountRepository;
+import com.threadspire.intern.repositories.ThreadRepository;
+import com.threadspire.intern.repositories.projections.ReactionCountView;
+import com.threadspire.intern.repositories.projections.SegmentView;
+import com.threadspire.intern.repositories.projections.ThreadDetailHeaderView;
+import com.threadspire.intern.repositories.projections.ThreadTagView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Read path for GET /api/threads/{id}. Loads the header, ordered segments and
+ * their bodies, tag names and per-segment reaction counts with five statements
+ * no matter how many segments or reactions the thread has. Reaction counts come
+ * from the pre-aggregated tallies maintained by {@link HotCounterService}.
+ */
+@Service
+@RequiredArgsConstructor
+public class ThreadDetailService {
+    private final ThreadRepository threadRepository;
+    private final PostRepository postRepository;
+    private final PostReactionCountRepository postReactionCountRepository;
+    private final SegmentStore segmentStore;
+
+    @Transactional(readOnly = true)
+    public Optional<ThreadDetail> findDetail(Long threadId) {
+        Optional<ThreadDetailHeaderView> header = threadRepository.findDetailHeaderById(threadId);
+        if (header.isEmpty()) {
+            return Optional.empty();
+        }
+        ThreadDetailHeaderView h = header.get();
+
+        Map<Long, Map<ReactionType, Long>> reactionsByPost = new HashMap<>();
+        for (ReactionCountView count : postReactionCountRepository.findByThreadId(threadId)) {
+            reactionsByPost.computeIfAbsent(count.getPostId(), k -> new EnumMap<>(ReactionType.class))
+                    .put(count.getType(), count.getTotal());
+        }
+
+        List<SegmentView> segmentViews = postRepository.findSegmentsByThreadId(threadId);
+        Map<String, String> contents = segmentStore.loadAll(segmentViews.stream().map(SegmentView::getBodyHash).toList());
+        List<SegmentDetail> segments = segmentViews.stream()
+                .map(s -> new SegmentDetail(s.getId(), s.getPosition(), contents.get(s.getBodyHash()),
+                        reactionsByPost.getOrDefault(s.getId(), Map.of())))
+                .toList();
+
+        List<String> tags = threadRepository.findTagNamesByThreadIds(List.of(threadId)).stream()
+                .map(ThreadTagView::getName)
+                .toList();
+
+        return Optional.of(new ThreadDetail(h.getId(), h.getTitle(), h.getPublished(), h.getAuthorId(),
+                h.getAuthorName(), h.getRevision(), h.getForkCount(), h.getBookmarkCount(), tags, segments));
+    }
+}
@@ -0,0 +1,93 @@
+package com.threadspire.intern.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.threadspire.intern.dto.ThreadExport;
+import com.threadspire.intern.repositories.ThreadExportRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes threads with their tags and segment text as NDJSON, one thread per line.
+ * Threads are read a page at a time and each page is written after its query has
+ * finished, so a slow client never holds a connection and memory use is one page
+ * no matter how many threads there are.
+ * <p>
+ * {@code since} is widened by {@code app.export.watermark-overlap-ms}: a thread
+ * committed by a transaction that started before the caller's previous export can
+ * carry an {@code updated_at} below the watermark that export returned. Threads in
+ * the overlap are sent again, so a consumer syncing incrementally must upsert by id.
+ * The overlap has to exceed the longest write transaction.
+ * <p>
+ * Timestamps are always ISO-8601 strings, whatever {@code spring.jackson.*} says,
+ * so the file format stays fixed for consumers.
+ */
+@Service
+public class ThreadExportService {
+    private final ThreadExportRepository threadExportRepository;
+    private final ObjectWriter writer;
+    private final Duration watermarkOverlap;
+    private final int pageSize;
+
+    public ThreadExportService(ThreadExportRepository threadExportRepository, ObjectMapper objectMapper,
+                               @Value("${app.export.watermark-overlap-ms:300000}") long watermarkOverlapMs,
+                               @Value("${app.export.page-size:200}") int pageSize) {
+        this.threadExportRepository = threadExportRepository;
+        // Each line is written separately; only the caller closes the stream
+        this.writer = objectMapper.writerFor(ThreadExport.class)
+                .without(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.watermarkOverlap = Duration.ofMillis(watermarkOverlapMs);
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Every published thread, plus {@code viewerId}'s own drafts, changed at or after
+     * {@code since} less the overlap window.
+     */
+    public void export(Instant since, Long viewerId, OutputStream out) throws IOException {
+        BufferedOutputStream buffered = new BufferedOutputStream(out, 64 * 1024);
+        Instant from = since == null ? null : since.minus(watermarkOverlap);
+        ThreadExportRepository.Position after = null;
+        List<ThreadExport> page;
+        do {
+            page = group(threadExportRepository.findPage(from, viewerId, after, pageSize));
+            for (ThreadExport thread : page) {
+                writer.writeValue(buffered, thread);
+                buffered.write('\n');
+            }
+            if (!page.isEmpty()) {
+                ThreadExport last = page.get(page.size() - 1);
+                after = new ThreadExportRepository.Position(last.getUpdatedAt(), last.getId());
+            }
+        } while (page.size() == pageSize);
+        buffered.flush();
+    }
+
+    private static List<ThreadExport> group(List<ThreadExportRepository.Row> rows) {
+        List<ThreadExport> threads = new ArrayList<>();
+        ThreadExport current = null;
+        for (ThreadExportRepository.Row row : rows) {
+            if (current == null || !current.getId().equals(row.threadId())) {
+                current = new ThreadExport(row.threadId(), row.title(), row.published(), row.authorId(),
+                        row.forkCount(), row.bookmarkCount(), row.createdAt(), row.updatedAt(),
+                        List.of(row.tags()), new ArrayList<>());
+                threads.add(current);
+            }
+            if (row.body() != null) {
+                current.getSegments().add(SegmentStore.decode(row.body()));
+            }
+        }
+        return threads;
+    }
+}
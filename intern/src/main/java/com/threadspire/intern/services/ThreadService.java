@@ -5,11 +5,23 @@ import com.threadspire.intern.models.Thread;
 import com.threadspire.intern.repositories.ThreadRepository;
 
 import com.threadspire.intern.dto.CreateThreadRequest;
+import com.threadspire.intern.dto.ThreadBrowsePage;
+import com.threadspire.intern.dto.ThreadFeedPage;
+import com.threadspire.intern.dto.ThreadSearchPage;
+import com.threadspire.intern.dto.ThreadSummary;
+import com.threadspire.intern.events.ThreadCreatedEvent;
 import com.threadspire.intern.models.*;
 import com.threadspire.intern.repositories.*;
+import com.threadspire.intern.repositories.projections.ThreadHeaderView;
+import com.threadspire.intern.repositories.projections.ThreadTagView;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -17,10 +29,22 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 public class ThreadService {
+    private static final int MAX_FEED_LIMIT = 100;
+    private static final int MAX_SEARCH_TAGS = 10;
+
     private final ThreadRepository threadRepository;
     private final PostRepository postRepository;
     private final UserRepository userRepository;
-    private final TagRepository tagRepository;
+    private final TagResolver tagResolver;
+    private final SegmentStore segmentStore;
+    private final SearchIndexer searchIndexer;
+    private final ThreadSearchRepository threadSearchRepository;
+    private final TagBitmapIndex tagBitmapIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Deepest rank served; bounds the top-N sort that paging asks the database for
+    @Value("${app.search.max-candidates:10000}")
+    private int maxSearchCandidates;
 
     @Transactional
     public Thread createThread(CreateThreadRequest request, Long userId) {
@@ -34,12 +58,14 @@ public class ThreadService {
         // Save thread first to get ID for posts
         thread = threadRepository.save(thread);
 
+        List<String> segments = request.getSegments() == null ? List.of() : request.getSegments();
+        List<String> bodyHashes = segmentStore.storeAll(segments);
         List<Post> posts = new ArrayList<>();
-        int position = 0;
-        for (String content : request.getSegments()) {
+        for (int position = 0; position < segments.size(); position++) {
             Post post = new Post();
-            post.setContent(content);
-            post.setPosition(position++);
+            post.setBodyHash(bodyHashes.get(position));
+            post.setContent(segments.get(position));
+            post.setPosition(position);
             post.setThread(thread);
             posts.add(post);
         }
@@ -47,26 +73,135 @@ public class ThreadService {
         thread.setPosts(posts);
 
         // Handle tags
-        Set<Tag> tags = request.getTags() == null ? Set.of() :
-                request.getTags().stream()
-                        .map(name -> tagRepository.findByName(name).orElseGet(() -> {
-                            Tag t = new Tag();
-                            t.setName(name);
-                            return tagRepository.save(t);
-                        }))
-                        .collect(Collectors.toSet());
+        Set<Tag> tags = tagResolver.resolve(request.getTags());
         thread.setTags(tags);
+        searchIndexer.index(thread.getId(), thread.getTitle(), posts);
+
+        // thread is managed since the first save; the tag links are written on flush
+        eventPublisher.publishEvent(new ThreadCreatedEvent(thread.getId(), user.getId(),
+                tags.stream().map(Tag::getName).collect(Collectors.toSet()), thread.isPublished()));
+        return thread;
+    }
+
+    /**
+     * One page of the thread feed, newest first. Costs two statements per page
+     * (headers, then tag names for the page) regardless of page or table size.
+     */
+    @Transactional(readOnly = true)
+    public ThreadFeedPage getFeed(Boolean published, Long authorId, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_FEED_LIMIT));
+        Long beforeId = FeedCursor.decode(cursor);
+
+        // Fetch one extra row to know whether another page exists
+        List<ThreadHeaderView> headers = threadRepository.findFeedPage(
+                published, authorId, beforeId, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = headers.size() > pageSize;
+        if (hasMore) {
+            headers = headers.subList(0, pageSize);
+        }
+        if (headers.isEmpty()) {
+            return new ThreadFeedPage(List.of(), null);
+        }
 
-        return threadRepository.save(thread);
+        List<ThreadSummary> items = summarize(headers);
+        String nextCursor = hasMore ? FeedCursor.encode(items.get(items.size() - 1).getId()) : null;
+        return new ThreadFeedPage(items, nextCursor);
     }
 
-    public List<Thread> getAllThreads() {
-        return threadRepository.findAll();
+    /**
+     * Published threads matching {@code query} (web search syntax: quoted phrases,
+     * {@code or}, {@code -term}) and carrying all of {@code tags}, best match first.
+     * Three statements per page: the index lookup, headers, and tag names.
+     */
+    @Transactional(readOnly = true)
+    public ThreadSearchPage search(String query, List<String> tags, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Search query is required");
+        }
+        Set<String> tagNames = tags == null ? Set.of() : tags.stream()
+                .filter(t -> t != null && !t.isBlank())
+                .map(String::trim)
+                .collect(Collectors.toSet());
+        if (tagNames.size() > MAX_SEARCH_TAGS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_SEARCH_TAGS + " tags");
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_FEED_LIMIT));
+        int offset = Math.max(0, page) * pageSize;
+        if (offset >= maxSearchCandidates) {
+            return new ThreadSearchPage(List.of(), page, false);
+        }
+
+        List<Long> ids = threadSearchRepository.search(query, tagNames, pageSize + 1, offset);
+        boolean hasMore = ids.size() > pageSize;
+        if (hasMore) {
+            ids = ids.subList(0, pageSize);
+        }
+        if (ids.isEmpty()) {
+            return new ThreadSearchPage(List.of(), page, false);
+        }
+
+        return new ThreadSearchPage(summariesInOrder(ids), page, hasMore);
+    }
+
+    /**
+     * Threads matching a tag expression such as {@code java AND concurrency NOT beginner},
+     * newest first. Matching is done in memory by {@link TagBitmapIndex}; the page then
+     * costs the same two statements as the feed.
+     */
+    @Transactional(readOnly = true)
+    public ThreadBrowsePage browse(String expression, Boolean published, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_FEED_LIMIT));
+        TagBitmapIndex.Match match;
+        try {
+            match = tagBitmapIndex.find(expression, published, FeedCursor.decode(cursor), pageSize + 1);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid tag expression: " + e.getMessage());
+        }
+        List<Long> ids = match.ids();
+        boolean hasMore = ids.size() > pageSize;
+        if (hasMore) {
+            ids = ids.subList(0, pageSize);
+        }
+        if (ids.isEmpty()) {
+            return new ThreadBrowsePage(List.of(), null, match.total());
+        }
+
+        String nextCursor = hasMore ? FeedCursor.encode(ids.get(ids.size() - 1)) : null;
+        return new ThreadBrowsePage(summariesInOrder(ids), nextCursor, match.total());
+    }
+
+    /**
+     * Summaries of the given threads in the given order, skipping ids that don't exist.
+     * Two statements: headers, then tag names.
+     */
+    @Transactional(readOnly = true)
+    public List<ThreadSummary> summariesInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // Headers come back in id order; put them back in the caller's order
+        Map<Long, ThreadHeaderView> byId = threadRepository.findHeadersByIds(ids).stream()
+                .collect(Collectors.toMap(ThreadHeaderView::getId, h -> h));
+        List<ThreadHeaderView> headers = ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+        return headers.isEmpty() ? List.of() : summarize(headers);
+    }
+
+    private List<ThreadSummary> summarize(List<ThreadHeaderView> headers) {
+        List<Long> ids = headers.stream().map(ThreadHeaderView::getId).toList();
+        Map<Long, List<String>> tagsByThread = new HashMap<>();
+        for (ThreadTagView tag : threadRepository.findTagNamesByThreadIds(ids)) {
+            tagsByThread.computeIfAbsent(tag.getThreadId(), k -> new ArrayList<>()).add(tag.getName());
+        }
+        return headers.stream()
+                .map(h -> new ThreadSummary(h.getId(), h.getTitle(), h.getAuthorName(),
+                        tagsByThread.getOrDefault(h.getId(), List.of()), h.getForkCount(), h.getSegmentCount()))
+                .toList();
     }
 
+    @Transactional(readOnly = true)
     public Optional<Thread> findById(Long id) {
         return threadRepository.findById(id);
     }
 
-    // Add update, delete, fetch by tag, etc.
+    // Add update, delete, etc.
 }
@@ -0,0 +1,101 @@
+package com.threadspire.intern.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.threadspire.intern.events.ThreadCreatedEvent;
+import com.threadspire.intern.events.ThreadForkedEvent;
+import com.threadspire.intern.events.ThreadsChangedEvent;
+import com.threadspire.intern.repositories.ThreadRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Strong ETags for the thread read endpoints, computed without loading the thread.
+ * <p>
+ * A thread's ETag is its persistent {@code revision}, served from a short-lived
+ * cache in front of a primary-key lookup. The feed's ETag is an in-process version
+ * bumped on every create, fork and counter flush, prefixed with a per-boot epoch so
+ * tags from an earlier run never match.
+ * <p>
+ * Both assume, like {@link HotCounterService}, that writes go through this instance.
+ * Writes through another instance are picked up once the cached revision expires
+ * ({@code app.etag.revision-cache-ttl-ms}), and the feed's ETag also carries the
+ * current {@code app.etag.feed-ttl-ms} time window, so neither goes stale for longer
+ * than its TTL.
+ */
+@Service
+public class ThreadVersionService {
+    private final ThreadRepository threadRepository;
+    private final Cache<Long, Long> revisions;
+    private final String bootEpoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong feedVersion = new AtomicLong();
+    private final long feedTtlMillis;
+    // Bumped on every invalidation; a revision read before a bump may be stale and is not cached
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ThreadVersionService(ThreadRepository threadRepository,
+                                @Value("${app.etag.revision-cache-size:100000}") long cacheSize,
+                                @Value("${app.etag.revision-cache-ttl-ms:5000}") long ttlMillis,
+                                @Value("${app.etag.feed-ttl-ms:5000}") long feedTtlMillis) {
+        this.threadRepository = threadRepository;
+        this.feedTtlMillis = feedTtlMillis;
+        this.revisions = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .build();
+    }
+
+    /** ETag of a thread's detail view, empty if the thread does not exist. */
+    public Optional<String> threadETag(Long threadId) {
+        // Not revisions.get(id, loader): the loader would hold a map bin lock across the query
+        Long revision = revisions.getIfPresent(threadId);
+        if (revision == null) {
+            long seen = invalidations.get();
+            revision = threadRepository.findRevisionById(threadId).orElse(null);
+            if (revision == null) {
+                return Optional.empty();
+            }
+            if (invalidations.get() == seen) {
+                revisions.put(threadId, revision);
+            }
+        }
+        return Optional.of(revisionETag(revision));
+    }
+
+    /** ETag of a thread detail read at the given revision. */
+    public String revisionETag(long revision) {
+        return "\"r" + revision + "\"";
+    }
+
+    /** ETag of every feed page; the page's URL scopes it to one query. */
+    public String feedETag() {
+        return feedETag(System.currentTimeMillis());
+    }
+
+    String feedETag(long nowMillis) {
+        return "\"f" + bootEpoch + "." + feedVersion.get() + "." + nowMillis / feedTtlMillis + "\"";
+    }
+
+    @TransactionalEventListener
+    public void onThreadCreated(ThreadCreatedEvent event) {
+        feedVersion.incrementAndGet();
+    }
+
+    @TransactionalEventListener
+    public void onThreadForked(ThreadForkedEvent event) {
+        feedVersion.incrementAndGet();
+    }
+
+    @EventListener
+    public void onThreadsChanged(ThreadsChangedEvent event) {
+        invalidations.incrementAndGet();
+        revisions.invalidateAll(event.threadIds());
+        feedVersion.incrementAndGet();
+    }
+}
@@ -0,0 +1,322 @@
+package com.threadspire.intern.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.threadspire.intern.dto.TrendingThread;
+import com.threadspire.intern.events.BookmarkAddedEvent;
+import com.threadspire.intern.events.BookmarksChangedEvent;
+import com.threadspire.intern.events.ReactionAddedEvent;
+import com.threadspire.intern.events.ReactionsAddedEvent;
+import com.threadspire.intern.events.ThreadForkedEvent;
+import com.threadspire.intern.models.TrendingScore;
+import com.threadspire.intern.repositories.ThreadRepository;
+import com.threadspire.intern.repositories.TrendingScoreBatchRepository;
+import com.threadspire.intern.repositories.TrendingScoreRepository;
+import com.threadspire.intern.repositories.projections.ThreadDetailHeaderView;
+import com.threadspire.intern.repositories.projections.ThreadHeaderView;
+import com.threadspire.intern.repositories.projections.ThreadTagView;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trending threads, globally and per tag, scored from reactions, bookmarks and
+ * forks with exponential time decay.
+ * <p>
+ * Scores use forward decay: an event at time t adds {@code weight * e^(λ(t - T0))}
+ * for a fixed landmark T0, kept as a logarithm so it never overflows. Dividing every
+ * score by the same {@code e^(λ(now - T0))} does not change their order, so a
+ * thread's rank can only change when one of its own events arrives and each top-K
+ * list is maintained incrementally without rescoring anything. Reads copy the
+ * in-memory lists and never touch the database.
+ * <p>
+ * The ranked threads are checkpointed to {@code trending_scores} periodically and
+ * on shutdown, and restored on startup.
+ */
+@Slf4j
+@Service
+public class TrendingService {
+    static final Instant LANDMARK = Instant.parse("2025-01-01T00:00:00Z");
+    static final double REACTION_WEIGHT = 1;
+    static final double BOOKMARK_WEIGHT = 3;
+    static final double FORK_WEIGHT = 5;
+    // Scores that have decayed below this and are off every list are forgotten on checkpoint
+    private static final double FORGET_BELOW = 0.01;
+
+    private final ThreadRepository threadRepository;
+    private final TrendingScoreRepository trendingScoreRepository;
+    private final TrendingScoreBatchRepository trendingScoreBatchRepository;
+    private final Clock clock;
+    private final double lambda;
+    private final int topK;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Double> logScores = new HashMap<>();
+    private final TopK global;
+    private final Map<String, TopK> byTag = new HashMap<>();
+    // Title, tags and visibility per thread, loaded on the thread's first event
+    private final Cache<Long, ThreadMeta> metadata;
+    // Checkpointing before the previous checkpoint was restored would overwrite it
+    private volatile boolean restored;
+
+    @Autowired
+    public TrendingService(ThreadRepository threadRepository,
+                           TrendingScoreRepository trendingScoreRepository,
+                           TrendingScoreBatchRepository trendingScoreBatchRepository,
+                           @Value("${app.trending.half-life-hours:24}") double halfLifeHours,
+                           @Value("${app.trending.top-k:100}") int topK) {
+        this(threadRepository, trendingScoreRepository, trendingScoreBatchRepository,
+                Clock.systemUTC(), halfLifeHours, topK);
+    }
+
+    TrendingService(ThreadRepository threadRepository,
+                    TrendingScoreRepository trendingScoreRepository,
+                    TrendingScoreBatchRepository trendingScoreBatchRepository,
+                    Clock clock, double halfLifeHours, int topK) {
+        this.threadRepository = threadRepository;
+        this.trendingScoreRepository = trendingScoreRepository;
+        this.trendingScoreBatchRepository = trendingScoreBatchRepository;
+        this.clock = clock;
+        this.lambda = Math.log(2) / (halfLifeHours * 3600);
+        this.topK = topK;
+        this.global = new TopK(topK);
+        this.metadata = Caffeine.newBuilder().maximumSize(100_000).build();
+    }
+
+    @TransactionalEventListener
+    public void onReactionAdded(ReactionAddedEvent event) {
+        record(event.threadId(), REACTION_WEIGHT);
+    }
+
+    @TransactionalEventListener
+    public void onBookmarkAdded(BookmarkAddedEvent event) {
+        record(event.threadId(), BOOKMARK_WEIGHT);
+    }
+
+    @TransactionalEventListener
+    public void onReactionsAdded(ReactionsAddedEvent event) {
+        event.reactions().forEach(this::onReactionAdded);
+    }
+
+    // Scores only ever grow; a removed bookmark just stops contributing as it decays
+    @TransactionalEventListener
+    public void onBookmarksChanged(BookmarksChangedEvent event) {
+        if (event.delta() > 0) {
+            event.threads().forEach(thread -> record(thread.threadId(), BOOKMARK_WEIGHT));
+        }
+    }
+
+    @TransactionalEventListener
+    public void onThreadForked(ThreadForkedEvent event) {
+        record(event.originalThreadId(), FORK_WEIGHT);
+    }
+
+    /**
+     * Top threads, highest score first; {@code tag} null for the global list.
+     */
+    public List<TrendingThread> trending(String tag, int limit) {
+        limit = Math.max(1, Math.min(limit, topK));
+        double now = elapsedSeconds(clock.instant());
+        List<TrendingThread> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            TopK list = tag == null ? global : byTag.get(tag);
+            if (list == null) {
+                return result;
+            }
+            for (Ranked ranked : list.ranked) {
+                if (result.size() >= limit) {
+                    break;
+                }
+                ThreadMeta meta = metadata.getIfPresent(ranked.threadId());
+                result.add(new TrendingThread(ranked.threadId(), meta == null ? null : meta.title(),
+                        Math.exp(ranked.logScore() - lambda * now)));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    void record(Long threadId, double weight) {
+        if (threadId == null) {
+            return;
+        }
+        // Loaded outside the cache so no map lock is held across the queries
+        ThreadMeta meta = metadata.getIfPresent(threadId);
+        if (meta == null) {
+            meta = loadMeta(threadId);
+            if (meta != null) {
+                metadata.put(threadId, meta);
+            }
+        }
+        if (meta == null || !meta.published()) {
+            return;
+        }
+        double contribution = Math.log(weight) + lambda * elapsedSeconds(clock.instant());
+        lock.writeLock().lock();
+        try {
+            double logScore = logAddExp(logScores.getOrDefault(threadId, Double.NEGATIVE_INFINITY), contribution);
+            rank(threadId, logScore, meta);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.trending.checkpoint-interval-ms:60000}")
+    public void checkpoint() {
+        if (!restored) {
+            return;
+        }
+        Instant now = clock.instant();
+        double elapsed = elapsedSeconds(now);
+        List<TrendingScore> scores = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            Set<Long> ranked = new HashSet<>();
+            global.ranked.forEach(r -> ranked.add(r.threadId()));
+            byTag.values().forEach(list -> list.ranked.forEach(r -> ranked.add(r.threadId())));
+            logScores.entrySet().removeIf(e -> !ranked.contains(e.getKey())
+                    && Math.exp(e.getValue() - lambda * elapsed) < FORGET_BELOW);
+            for (Long threadId : ranked) {
+                scores.add(new TrendingScore(threadId, Math.exp(logScores.get(threadId) - lambda * elapsed), now));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        trendingScoreBatchRepository.replaceAll(scores);
+    }
+
+    @PreDestroy
+    public void checkpointOnShutdown() {
+        try {
+            checkpoint();
+        } catch (RuntimeException e) {
+            log.warn("Could not checkpoint trending scores on shutdown", e);
+        }
+    }
+
+    // Not read-only, so it reads the primary: a lagging replica could miss the last checkpoint
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void restore() {
+        List<TrendingScore> saved = trendingScoreRepository.findAll();
+        if (saved.isEmpty()) {
+            restored = true;
+            return;
+        }
+        List<Long> ids = saved.stream().map(TrendingScore::getThreadId).toList();
+        Map<Long, String> titles = new HashMap<>();
+        for (ThreadHeaderView header : threadRepository.findHeadersByIds(ids)) {
+            titles.put(header.getId(), header.getTitle());
+        }
+        Map<Long, Set<String>> tags = new HashMap<>();
+        for (ThreadTagView tag : threadRepository.findTagNamesByThreadIds(ids)) {
+            tags.computeIfAbsent(tag.getThreadId(), k -> new HashSet<>()).add(tag.getName());
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (TrendingScore score : saved) {
+                if (!titles.containsKey(score.getThreadId()) || score.getScore() <= 0) {
+                    continue;
+                }
+                // Only published threads are ever checkpointed
+                ThreadMeta meta = new ThreadMeta(titles.get(score.getThreadId()), true,
+                        tags.getOrDefault(score.getThreadId(), Set.of()));
+                metadata.put(score.getThreadId(), meta);
+                double logScore = Math.log(score.getScore()) + lambda * elapsedSeconds(score.getScoredAt());
+                // An event may already have been recorded since startup
+                rank(score.getThreadId(),
+                        logAddExp(logScores.getOrDefault(score.getThreadId(), Double.NEGATIVE_INFINITY), logScore),
+                        meta);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        restored = true;
+        log.info("Restored {} trending scores", saved.size());
+    }
+
+    // Caller holds the write lock
+    private void rank(Long threadId, double logScore, ThreadMeta meta) {
+        Double previous = logScores.put(threadId, logScore);
+        global.offer(threadId, previous, logScore);
+        for (String tag : meta.tags()) {
+            byTag.computeIfAbsent(tag, t -> new TopK(topK)).offer(threadId, previous, logScore);
+        }
+    }
+
+    private ThreadMeta loadMeta(Long threadId) {
+        Optional<ThreadDetailHeaderView> header = threadRepository.findDetailHeaderById(threadId);
+        if (header.isEmpty()) {
+            return null;
+        }
+        Set<String> tags = new HashSet<>();
+        for (ThreadTagView tag : threadRepository.findTagNamesByThreadIds(List.of(threadId))) {
+            tags.add(tag.getName());
+        }
+        return new ThreadMeta(header.get().getTitle(), header.get().getPublished(), tags);
+    }
+
+    private double elapsedSeconds(Instant instant) {
+        return (instant.toEpochMilli() - LANDMARK.toEpochMilli()) / 1000.0;
+    }
+
+    static double logAddExp(double a, double b) {
+        if (a == Double.NEGATIVE_INFINITY) {
+            return b;
+        }
+        if (b == Double.NEGATIVE_INFINITY) {
+            return a;
+        }
+        double max = Math.max(a, b);
+        return max + Math.log1p(Math.exp(Math.min(a, b) - max));
+    }
+
+    private record ThreadMeta(String title, boolean published, Set<String> tags) {
+    }
+
+    private record Ranked(Long threadId, double logScore) {
+    }
+
+    /**
+     * Bounded ranking that relies on scores only ever increasing: a thread outside
+     * the list can only enter it through one of its own updates.
+     */
+    private static final class TopK {
+        private final int capacity;
+        private final TreeSet<Ranked> ranked = new TreeSet<>(Comparator
+                .comparingDouble(Ranked::logScore).reversed()
+                .thenComparing(Ranked::threadId));
+
+        private TopK(int capacity) {
+            this.capacity = capacity;
+        }
+
+        void offer(Long threadId, Double previousLogScore, double logScore) {
+            if (previousLogScore != null && ranked.remove(new Ranked(threadId, previousLogScore))) {
+                ranked.add(new Ranked(threadId, logScore));
+                return;
+            }
+            if (ranked.size() < capacity) {
+                ranked.add(new Ranked(threadId, logScore));
+            } else if (logScore > ranked.last().logScore()) {
+                ranked.pollLast();
+                ranked.add(new Ranked(threadId, logScore));
+            }
+        }
+    }
+}
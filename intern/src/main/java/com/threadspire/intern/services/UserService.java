@@ -3,16 +3,36 @@ package com.threadspire.intern.services;
 
 import com.threadspire.intern.models.User;
 import com.threadspire.intern.repositories.UserRepository;
+import com.threadspire.intern.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 @Service
 @RequiredArgsConstructor
 public class UserService {
 
     private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
 
     public User findByEmail(String email) {
         return userRepository.findByEmail(email).orElseThrow();
     }
-}
\ No newline at end of file
+
+    @Transactional
+    public void changePassword(String email, String currentPassword, String newPassword) {
+        User user = findByEmail(email);
+        if (!passwordEncoder.matches(currentPassword, user.getPassword())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Current password is incorrect");
+        }
+        user.setPassword(passwordEncoder.encode(newPassword));
+        userRepository.save(user);
+
+        // Drop the cached principal so the old hash isn't served for the rest of its TTL
+        principalCache.invalidateAfterCommit(email);
+    }
+}
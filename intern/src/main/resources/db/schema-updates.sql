@@ -0,0 +1,107 @@
+-- Runs on every start, after Hibernate's schema update (spring.jpa.defer-datasource-initialization).
+-- Every statement must be idempotent.
+
+-- Pooled sequence ids (allocationSize 50) replace identity columns. Drop the identity
+-- defaults and move each sequence past ids handed out before the switch; with the
+-- pooled optimizer a sequence value is the upper bound of the block it hands out.
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE threads ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE posts ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE tags ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE reactions ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE bookmarks ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE collections ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE forks ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+SELECT setval('users_seq', (SELECT max(id) FROM users)) WHERE (SELECT max(id) FROM users) > (SELECT last_value FROM users_seq);
+SELECT setval('threads_seq', (SELECT max(id) FROM threads)) WHERE (SELECT max(id) FROM threads) > (SELECT last_value FROM threads_seq);
+SELECT setval('posts_seq', (SELECT max(id) FROM posts)) WHERE (SELECT max(id) FROM posts) > (SELECT last_value FROM posts_seq);
+SELECT setval('tags_seq', (SELECT max(id) FROM tags)) WHERE (SELECT max(id) FROM tags) > (SELECT last_value FROM tags_seq);
+SELECT setval('reactions_seq', (SELECT max(id) FROM reactions)) WHERE (SELECT max(id) FROM reactions) > (SELECT last_value FROM reactions_seq);
+SELECT setval('bookmarks_seq', (SELECT max(id) FROM bookmarks)) WHERE (SELECT max(id) FROM bookmarks) > (SELECT last_value FROM bookmarks_seq);
+SELECT setval('collections_seq', (SELECT max(id) FROM collections)) WHERE (SELECT max(id) FROM collections) > (SELECT last_value FROM collections_seq);
+SELECT setval('forks_seq', (SELECT max(id) FROM forks)) WHERE (SELECT max(id) FROM forks) > (SELECT last_value FROM forks_seq);
+
+-- Content-addressed segment bodies. Move text still stored inline on posts into
+-- segment_bodies (hex SHA-256 of the UTF-8 bytes, matching SegmentStore) and point
+-- the posts at it. The legacy column is created if missing so this runs on any schema.
+ALTER TABLE posts ADD COLUMN IF NOT EXISTS content TEXT;
+INSERT INTO segment_bodies (hash, payload, compressed)
+SELECT DISTINCT encode(sha256(convert_to(content, 'UTF8')), 'hex'), convert_to(content, 'UTF8'), false
+FROM posts WHERE body_hash IS NULL AND content IS NOT NULL
+ON CONFLICT (hash) DO NOTHING;
+UPDATE posts SET body_hash = encode(sha256(convert_to(content, 'UTF8')), 'hex'), content = NULL
+WHERE body_hash IS NULL AND content IS NOT NULL;
+
+-- Fork lineage closure table. Rebuilt from the forks table only while it is still
+-- empty, i.e. once after upgrading; afterwards ForkService maintains it per fork.
+WITH RECURSIVE edges AS (
+    SELECT original_thread_id AS parent_id, forked_thread_id AS child_id
+    FROM forks WHERE original_thread_id IS NOT NULL AND forked_thread_id IS NOT NULL
+), chain (ancestor_id, descendant_id, depth) AS (
+    SELECT parent_id, child_id, 1 FROM edges
+    UNION ALL
+    SELECT e.parent_id, c.descendant_id, c.depth + 1 FROM chain c JOIN edges e ON e.child_id = c.ancestor_id
+)
+INSERT INTO thread_lineage (ancestor_id, descendant_id, depth)
+SELECT ancestor_id, descendant_id, depth FROM chain
+WHERE NOT EXISTS (SELECT 1 FROM thread_lineage)
+ON CONFLICT DO NOTHING;
+
+-- Full-text search documents, maintained by SearchIndexer (which also indexes
+-- threads that predate this table on startup).
+CREATE TABLE IF NOT EXISTS thread_search (
+    thread_id BIGINT PRIMARY KEY,
+    document TSVECTOR NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_thread_search_document ON thread_search USING GIN (document);
+
+-- One bookmark per (user, thread) and one reaction per (user, post), which the bulk
+-- endpoints upsert against. The old check-then-insert could race, so drop duplicates
+-- (keeping the oldest) before creating the indexes, then recount the tallies and
+-- analytics rollups the duplicates were counted in. All of it is skipped once the
+-- index exists. Rollups that are still empty are seeded later by AnalyticsService.
+DELETE FROM bookmarks b USING bookmarks d
+WHERE to_regclass('uk_bookmarks_user_thread') IS NULL
+  AND b.user_id = d.user_id AND b.thread_id = d.thread_id AND b.id > d.id;
+UPDATE threads t SET revision = t.revision + 1, updated_at = now(),
+    bookmark_count = (SELECT count(*) FROM bookmarks b WHERE b.thread_id = t.id)
+WHERE to_regclass('uk_bookmarks_user_thread') IS NULL
+  AND t.bookmark_count <> (SELECT count(*) FROM bookmarks b WHERE b.thread_id = t.id);
+UPDATE user_stats s SET bookmarks_received = (
+    SELECT count(*) FROM bookmarks b JOIN threads t ON t.id = b.thread_id WHERE t.user_id = s.user_id)
+WHERE to_regclass('uk_bookmarks_user_thread') IS NULL
+  AND s.bookmarks_received <> (
+    SELECT count(*) FROM bookmarks b JOIN threads t ON t.id = b.thread_id WHERE t.user_id = s.user_id);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_bookmarks_user_thread ON bookmarks (user_id, thread_id);
+DELETE FROM reactions r USING reactions d
+WHERE to_regclass('uk_reactions_user_post') IS NULL
+  AND r.user_id = d.user_id AND r.post_id = d.post_id AND r.id > d.id;
+WITH fixed AS (
+    UPDATE post_reaction_counts c SET total = (
+        SELECT count(*) FROM reactions r WHERE r.post_id = c.post_id AND r.type = c.type)
+    WHERE to_regclass('uk_reactions_user_post') IS NULL
+      AND c.total <> (SELECT count(*) FROM reactions r WHERE r.post_id = c.post_id AND r.type = c.type)
+    RETURNING c.post_id
+)
+UPDATE threads SET revision = revision + 1, updated_at = now()
+WHERE id IN (SELECT p.thread_id FROM posts p JOIN fixed ON fixed.post_id = p.id);
+UPDATE user_reaction_stats s SET total = (
+    SELECT count(*) FROM reactions r JOIN posts p ON p.id = r.post_id JOIN threads t ON t.id = p.thread_id
+    WHERE t.user_id = s.user_id AND r.type = s.type)
+WHERE to_regclass('uk_reactions_user_post') IS NULL
+  AND s.total <> (
+    SELECT count(*) FROM reactions r JOIN posts p ON p.id = r.post_id JOIN threads t ON t.id = p.thread_id
+    WHERE t.user_id = s.user_id AND r.type = s.type);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_reactions_user_post ON reactions (user_id, post_id);
+
+-- Ordered collection membership. Rows that predate the position column are spaced
+-- 1024 apart in thread id order, per collection; only collections with unpositioned
+-- rows are touched.
+UPDATE collection_threads c SET position = r.rn * 1024
+FROM (SELECT collection_id, thread_id,
+             row_number() OVER (PARTITION BY collection_id ORDER BY thread_id) AS rn
+      FROM collection_threads
+      WHERE collection_id IN (SELECT collection_id FROM collection_threads WHERE position IS NULL)) r
+WHERE c.position IS NULL AND c.collection_id = r.collection_id AND c.thread_id = r.thread_id;
+ALTER TABLE collection_threads ALTER COLUMN position SET NOT NULL;
@@ -0,0 +1,187 @@
+package com.threadspire.intern.admission;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionControlFilterTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger handled = new AtomicInteger();
+
+    @AfterEach
+    void clearUser() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void eachUserGetsTheirOwnBurstThenIsAskedToWait() throws Exception {
+        AdmissionControlFilter filter = new AdmissionControlFilter(properties(1, 2), registry);
+
+        signIn("alice");
+        assertThat(post(filter, "/api/reactions/add").getStatus()).isEqualTo(200);
+        assertThat(post(filter, "/api/reactions/bulk").getStatus()).isEqualTo(200);
+        MockHttpServletResponse limited = post(filter, "/api/reactions/add");
+        assertThat(limited.getStatus()).isEqualTo(429);
+        assertThat(limited.getHeader("Retry-After")).isEqualTo("1");
+
+        signIn("bob");
+        assertThat(post(filter, "/api/reactions/add").getStatus()).isEqualTo(200);
+
+        assertThat(handled).hasValue(3);
+        assertThat(outcome("admitted")).isEqualTo(3);
+        assertThat(outcome("rate_limited")).isEqualTo(1);
+    }
+
+    @Test
+    void anonymousClientsAreKeyedByAddress() throws Exception {
+        AdmissionControlFilter filter = new AdmissionControlFilter(properties(1, 1), registry);
+
+        assertThat(post(filter, "/api/reactions/add", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(post(filter, "/api/reactions/add", "10.0.0.1").getStatus()).isEqualTo(429);
+        assertThat(post(filter, "/api/reactions/add", "10.0.0.2").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void otherEndpointsAreNotLimited() throws Exception {
+        AdmissionControlFilter filter = new AdmissionControlFilter(properties(1, 1), registry);
+
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reactions");
+            filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> handled.incrementAndGet());
+        }
+
+        assertThat(handled).hasValue(5);
+        assertThat(outcome("admitted")).isZero();
+    }
+
+    @Test
+    void waitingForConnectionsShedsBeforeTheHandlerRuns() throws Exception {
+        AdmissionControlProperties properties = properties(100, 100);
+        properties.getShed().setMaxPendingConnections(10);
+        double[] pending = {12};
+        Gauge.builder("hikaricp.connections.pending", pending, p -> p[0]).tag("pool", "primary")
+                .strongReference(true).register(registry);
+        AdmissionControlFilter filter = new AdmissionControlFilter(properties, registry);
+
+        MockHttpServletResponse response = post(filter, "/api/reactions/add");
+
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(handled).hasValue(0);
+        assertThat(outcome("shed")).isEqualTo(1);
+    }
+
+    @Test
+    void slowRequestsShedAllButProbes() {
+        LoadShedder shedder = latencyShedder();
+        long t0 = 1_000_000_000L;
+
+        shedder.recordLatency("reactions", TimeUnit.MILLISECONDS.toNanos(50), t0);
+        assertThat(shedder.shouldShed("reactions", t0)).isFalse();
+
+        IntStream.range(0, 20).forEach(i -> shedder.recordLatency("reactions", TimeUnit.SECONDS.toNanos(1), t0));
+        long shed = IntStream.range(0, 100).filter(i -> shedder.shouldShed("reactions", t0)).count();
+        assertThat(shed).isEqualTo(90);
+    }
+
+    @Test
+    void latencyAverageDecaysWhileIdle() {
+        LoadShedder shedder = latencyShedder();
+        long t0 = 1_000_000_000L;
+        IntStream.range(0, 20).forEach(i -> shedder.recordLatency("reactions", TimeUnit.SECONDS.toNanos(1), t0));
+        assertThat(shedder.shouldShed("reactions", t0)).isTrue();
+
+        // Five decay periods later the average is under 1% of what it was
+        long later = t0 + TimeUnit.SECONDS.toNanos(5);
+        assertThat(shedder.averageLatencyNanos("reactions", later)).isLessThan(TimeUnit.MILLISECONDS.toNanos(10));
+        assertThat(shedder.shouldShed("reactions", later)).isFalse();
+
+        // A single slow request after the quiet spell counts for no more than any other
+        shedder.recordLatency("reactions", TimeUnit.MILLISECONDS.toNanos(500), later);
+        assertThat(shedder.shouldShed("reactions", later)).isFalse();
+    }
+
+    @Test
+    void eachEndpointHasItsOwnLatencyAverage() {
+        LoadShedder shedder = latencyShedder();
+        long t0 = 1_000_000_000L;
+
+        IntStream.range(0, 20).forEach(i -> shedder.recordLatency("forks", TimeUnit.SECONDS.toNanos(1), t0));
+        shedder.recordLatency("reactions", TimeUnit.MILLISECONDS.toNanos(5), t0);
+
+        assertThat(shedder.shouldShed("forks", t0)).isTrue();
+        assertThat(shedder.shouldShed("reactions", t0)).isFalse();
+    }
+
+    private LoadShedder latencyShedder() {
+        AdmissionControlProperties.Shed settings = new AdmissionControlProperties.Shed();
+        settings.setMaxLatencyMs(100);
+        settings.setProbeEvery(10);
+        settings.setLatencyDecayMs(1000);
+        return new LoadShedder(registry, settings);
+    }
+
+    @Test
+    void bucketRefillsAtTheConfiguredRate() {
+        AdmissionControlProperties.Limit config = properties(10, 2).getLimits().get(0);
+        RateLimit limit = new RateLimit(config, 100);
+        long t0 = 1_000_000_000L;
+
+        assertThat(limit.tryAcquire("alice", t0)).isZero();
+        assertThat(limit.tryAcquire("alice", t0)).isZero();
+        assertThat(limit.tryAcquire("alice", t0)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(limit.tryAcquire("alice", t0 + TimeUnit.MILLISECONDS.toNanos(100))).isZero();
+        assertThat(limit.tryAcquire("alice", t0 + TimeUnit.MILLISECONDS.toNanos(100))).isPositive();
+        // Idle time refills up to the burst, no further
+        long later = t0 + TimeUnit.SECONDS.toNanos(10);
+        assertThat(limit.tryAcquire("alice", later)).isZero();
+        assertThat(limit.tryAcquire("alice", later)).isZero();
+        assertThat(limit.tryAcquire("alice", later)).isPositive();
+    }
+
+    private MockHttpServletResponse post(AdmissionControlFilter filter, String path) throws Exception {
+        return post(filter, path, "127.0.0.1");
+    }
+
+    private MockHttpServletResponse post(AdmissionControlFilter filter, String path, String remoteAddr) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setRemoteAddr(remoteAddr);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> handled.incrementAndGet());
+        return response;
+    }
+
+    private double outcome(String outcome) {
+        return registry.get("threadspire.admission").tag("endpoint", "reactions").tag("outcome", outcome)
+                .counter().count();
+    }
+
+    private static void signIn(String user) {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(user, null, List.of()));
+    }
+
+    private static AdmissionControlProperties properties(double ratePerSecond, int burst) {
+        AdmissionControlProperties.Limit limit = new AdmissionControlProperties.Limit();
+        limit.setName("reactions");
+        limit.setMethod("POST");
+        limit.setPath("/api/reactions/**");
+        limit.setRatePerSecond(ratePerSecond);
+        limit.setBurst(burst);
+        AdmissionControlProperties properties = new AdmissionControlProperties();
+        properties.setLimits(List.of(limit));
+        return properties;
+    }
+}
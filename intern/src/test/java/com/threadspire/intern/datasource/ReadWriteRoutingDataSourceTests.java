@@ -0,0 +1,148 @@
+package com.threadspire.intern.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routes between two in-memory H2 databases, each holding a row that names it.
+ */
+class ReadWriteRoutingDataSourceTests {
+
+    private final DriverManagerDataSource primary = database("primary");
+    private final DriverManagerDataSource replica = database("replica");
+    private final ReadYourWritesTracker readYourWrites = new ReadYourWritesTracker(Duration.ofMinutes(1));
+    private ReplicaSet.Replica replicaNode;
+    private ReadWriteRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        replicaNode = new ReplicaSet.Replica("replica-1", replica);
+        ReplicaSet replicas = new ReplicaSet(List.of(replicaNode), 0);
+        routing = new ReadWriteRoutingDataSource(primary, replicas, readYourWrites);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        transactionManager.setTransactionExecutionListeners(List.of(readYourWrites));
+        jdbcTemplate = new JdbcTemplate(routing);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void clearUser() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplicaAndTheRestToThePrimary() {
+        assertThat(readOnlyDatabase()).isEqualTo("replica");
+        assertThat(readWriteDatabase()).isEqualTo("primary");
+        // Outside a transaction there is nothing to say the work is read-only
+        assertThat(whichDatabase()).isEqualTo("primary");
+    }
+
+    @Test
+    void aUserWhoJustWroteReadsFromThePrimary() {
+        signIn("alice");
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("INSERT INTO marker (name) VALUES ('new')"));
+        assertThat(readOnlyDatabase()).isEqualTo("primary");
+
+        signIn("bob");
+        assertThat(readOnlyDatabase()).isEqualTo("replica");
+    }
+
+    @Test
+    void readOnlyWorkByAUserDoesNotMakeThemSticky() {
+        signIn("alice");
+        readOnly.execute(status -> whichDatabase());
+
+        assertThat(readOnlyDatabase()).isEqualTo("replica");
+    }
+
+    @Test
+    void explicitCredentialsArePassedToTheChosenReplica() throws SQLException {
+        try (Connection connection = routing.getConnection("sa", "")) {
+            connection.setReadOnly(true);
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("SELECT name FROM marker ORDER BY id FETCH FIRST 1 ROWS ONLY")) {
+                assertThat(rs.next()).isTrue();
+                assertThat(rs.getString(1)).isEqualTo("replica");
+            }
+        }
+        assertThat(replicaNode.isHealthy()).isTrue();
+    }
+
+    @Test
+    void unhealthyReplicaIsSkippedUntilItRecovers() {
+        replicaNode.markDown("test");
+        assertThat(readOnlyDatabase()).isEqualTo("primary");
+
+        new ReplicaSet(List.of(replicaNode), 0).checkHealth();
+        assertThat(replicaNode.isHealthy()).isTrue();
+        assertThat(readOnlyDatabase()).isEqualTo("replica");
+    }
+
+    @Test
+    void unreachableReplicaFailsOverToThePrimary() {
+        ReplicaSet.Replica dead = new ReplicaSet.Replica("dead",
+                new DriverManagerDataSource("jdbc:h2:mem:missing;IFEXISTS=TRUE", "sa", ""));
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary,
+                new ReplicaSet(List.of(dead), 0), readYourWrites);
+        JdbcTemplate template = new JdbcTemplate(routing);
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(routing));
+        transaction.setReadOnly(true);
+
+        // Not yet known to be down: the failed connection attempt takes it out of rotation
+        String database = transaction.execute(status -> template.queryForObject(
+                "SELECT name FROM marker ORDER BY id FETCH FIRST 1 ROWS ONLY", String.class));
+        assertThat(database).isEqualTo("primary");
+        assertThat(dead.isHealthy()).isFalse();
+    }
+
+    // Typed, so assertThat does not have to infer execute()'s result type
+    private String readOnlyDatabase() {
+        return readOnly.execute(status -> whichDatabase());
+    }
+
+    private String readWriteDatabase() {
+        return readWrite.execute(status -> whichDatabase());
+    }
+
+    private String whichDatabase() {
+        return jdbcTemplate.queryForObject("SELECT name FROM marker ORDER BY id FETCH FIRST 1 ROWS ONLY", String.class);
+    }
+
+    private static void signIn(String user) {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(user, null, List.of()));
+    }
+
+    private static DriverManagerDataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS marker (id INT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(20))");
+        jdbc.execute("DELETE FROM marker");
+        jdbc.update("INSERT INTO marker (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
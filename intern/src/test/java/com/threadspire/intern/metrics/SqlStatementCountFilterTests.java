@@ -0,0 +1,53 @@
+package com.threadspire.intern.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlStatementCountFilterTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SqlStatementCountFilter filter = new SqlStatementCountFilter(registry, 25);
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(new StatementCountingDataSource(
+            new DriverManagerDataSource("jdbc:h2:mem:statements;DB_CLOSE_DELAY=-1", "sa", "")));
+
+    @Test
+    void statementsRunDuringARequestAreRecordedAgainstItsRoute() throws Exception {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS seen (v INT)");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/threads/42");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/threads/{id}");
+            jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+            jdbcTemplate.queryForObject("SELECT ?", Integer.class, 2);
+            jdbcTemplate.batchUpdate("INSERT INTO seen (v) VALUES (?)", List.<Object[]>of(new Object[]{1}, new Object[]{2}));
+        });
+
+        DistributionSummary summary = registry.get("threadspire.sql.statements")
+                .tag("uri", "/api/threads/{id}").summary();
+        assertThat(summary.count()).isEqualTo(1);
+        // One statement per query; the batch is prepared once
+        assertThat(summary.totalAmount()).isEqualTo(3);
+    }
+
+    @Test
+    void statementsOutsideARequestAreNotCounted() throws Exception {
+        jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/threads"), new MockHttpServletResponse(),
+                (req, res) -> { });
+
+        assertThat(registry.get("threadspire.sql.statements").tag("uri", "UNKNOWN").summary().totalAmount())
+                .isZero();
+        assertThat(SqlStatementCounter.stop()).isZero();
+    }
+}
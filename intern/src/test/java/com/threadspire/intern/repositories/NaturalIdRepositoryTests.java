@@ -0,0 +1,91 @@
+package com.threadspire.intern.repositories;
+
+import com.threadspire.intern.models.Tag;
+import com.threadspire.intern.models.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class NaturalIdRepositoryTests {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void clearCaches() {
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    // READ_WRITE regions only fill from committed data, so this test commits its own transactions
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void userByEmailIsServedFromTheSecondLevelCache() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        User user = new User();
+        user.setEmail("cached@example.com");
+        user.setPassword("secret");
+        user.setName("cached");
+        Long id = transaction.execute(status -> userRepository.save(user).getId());
+        try {
+            transaction.executeWithoutResult(status ->
+                    assertThat(userRepository.findByEmail("cached@example.com")).isPresent());
+
+            statistics.clear();
+            transaction.executeWithoutResult(status ->
+                    assertThat(userRepository.findByEmail("cached@example.com")).get()
+                            .extracting(User::getName).isEqualTo("cached"));
+            assertThat(statistics.getPrepareStatementCount()).isZero();
+            assertThat(statistics.getNaturalIdCacheHitCount()).isPositive();
+            transaction.executeWithoutResult(status ->
+                    assertThat(userRepository.findByEmail("missing@example.com")).isEmpty());
+        } finally {
+            transaction.executeWithoutResult(status -> userRepository.deleteById(id));
+        }
+    }
+
+    @Test
+    void tagsByNameSkipUnknownNames() {
+        entityManager.persist(new Tag(null, "java"));
+        entityManager.persist(new Tag(null, "sql"));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Tag> found = tagRepository.findByNameIn(List.of("java", "rust", "sql"));
+
+        assertThat(found).extracting(Tag::getName).containsExactlyInAnyOrder("java", "sql");
+        assertThat(tagRepository.findByName("rust")).isEmpty();
+    }
+}
@@ -0,0 +1,89 @@
+package com.threadspire.intern.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class JwtAuthenticationFilterTests {
+
+    // Base64, and long enough for HS512
+    private static final String SECRET = "dGhyZWFkc3BpcmUtdGVzdC1zaWduaW5nLWtleS10aHJlYWRzcGlyZS10ZXN0LXNpZ25pbmcta2V5LXRocmVhZHNw";
+
+    private final CustomUserDetailsService userDetailsService = mock(CustomUserDetailsService.class);
+    private final JwtTokenProvider tokenProvider = new JwtTokenProvider();
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationMs", 60_000);
+        tokenProvider.init();
+        filter = new JwtAuthenticationFilter(tokenProvider, new PrincipalCache(userDetailsService, 100, 300));
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void validTokensAuthenticateWithOneUserLookup() throws Exception {
+        when(userDetailsService.loadUserByUsername("a@x.io")).thenReturn(PrincipalCacheTests.principal("a@x.io", "hash"));
+        String token = tokenFor("a@x.io");
+
+        for (int i = 0; i < 3; i++) {
+            SecurityContextHolder.clearContext();
+            MockFilterChain chain = new MockFilterChain();
+            filter.doFilter(request("Bearer " + token), new MockHttpServletResponse(), chain);
+
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            assertThat(auth).isNotNull();
+            assertThat(auth.getName()).isEqualTo("a@x.io");
+            assertThat(chain.getRequest()).isNotNull();
+        }
+        verify(userDetailsService, times(1)).loadUserByUsername("a@x.io");
+    }
+
+    @Test
+    void invalidTokensContinueUnauthenticated() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request("Bearer " + tokenFor("a@x.io") + "tampered"), new MockHttpServletResponse(), chain);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        assertThat(chain.getRequest()).isNotNull();
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void tokensForDeletedUsersContinueUnauthenticated() throws Exception {
+        when(userDetailsService.loadUserByUsername("gone@x.io")).thenThrow(new UsernameNotFoundException("User not found"));
+
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request("Bearer " + tokenFor("gone@x.io")), new MockHttpServletResponse(), chain);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        assertThat(chain.getRequest()).isNotNull();
+    }
+
+    private String tokenFor(String email) {
+        return tokenProvider.generateToken(new UsernamePasswordAuthenticationToken(
+                PrincipalCacheTests.principal(email, "hash"), null));
+    }
+
+    private static MockHttpServletRequest request(String authorization) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/bookmarks");
+        request.addHeader("Authorization", authorization);
+        return request;
+    }
+}
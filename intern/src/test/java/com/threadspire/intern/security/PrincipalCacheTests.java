@@ -0,0 +1,104 @@
+package com.threadspire.intern.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class PrincipalCacheTests {
+
+    private final CustomUserDetailsService userDetailsService = mock(CustomUserDetailsService.class);
+    private final PrincipalCache cache = new PrincipalCache(userDetailsService, 100, 300);
+
+    @Test
+    void repeatedLookupsLoadTheUserOnce() {
+        when(userDetailsService.loadUserByUsername("a@x.io")).thenReturn(principal("a@x.io", "hash-1"));
+
+        cache.get("a@x.io");
+        cache.get("a@x.io");
+        UserDetails third = cache.get("a@x.io");
+
+        assertThat(third.getPassword()).isEqualTo("hash-1");
+        verify(userDetailsService, times(1)).loadUserByUsername("a@x.io");
+    }
+
+    @Test
+    void invalidationReloadsTheCurrentCredentials() {
+        when(userDetailsService.loadUserByUsername("a@x.io"))
+                .thenReturn(principal("a@x.io", "hash-1"))
+                .thenReturn(principal("a@x.io", "hash-2"));
+        cache.get("a@x.io");
+
+        cache.invalidate("a@x.io");
+
+        assertThat(cache.get("a@x.io").getPassword()).isEqualTo("hash-2");
+    }
+
+    @Test
+    void unknownUsersAreNotCached() {
+        when(userDetailsService.loadUserByUsername("gone@x.io"))
+                .thenThrow(new UsernameNotFoundException("User not found"))
+                .thenReturn(principal("gone@x.io", "hash-1"));
+
+        assertThatThrownBy(() -> cache.get("gone@x.io")).isInstanceOf(UsernameNotFoundException.class);
+        assertThat(cache.get("gone@x.io").getUsername()).isEqualTo("gone@x.io");
+    }
+
+    @Test
+    void invalidationDuringALoadDropsTheLoadedPrincipal() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(userDetailsService.loadUserByUsername("a@x.io"))
+                .thenAnswer(invocation -> {
+                    loading.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return principal("a@x.io", "hash-1");
+                })
+                .thenReturn(principal("a@x.io", "hash-2"));
+
+        Thread reader = new Thread(() -> cache.get("a@x.io"));
+        reader.start();
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread invalidator = new Thread(() -> cache.invalidate("a@x.io"));
+        invalidator.start();
+        Thread.sleep(50);
+        release.countDown();
+        reader.join(5000);
+        invalidator.join(5000);
+
+        assertThat(cache.get("a@x.io").getPassword()).isEqualTo("hash-2");
+    }
+
+    @Test
+    void invalidateAfterCommitWaitsForTheCommit() {
+        when(userDetailsService.loadUserByUsername("a@x.io"))
+                .thenReturn(principal("a@x.io", "hash-1"))
+                .thenReturn(principal("a@x.io", "hash-2"));
+        cache.get("a@x.io");
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidateAfterCommit("a@x.io");
+            // A request between the password change and its commit still sees the cached entry
+            assertThat(cache.get("a@x.io").getPassword()).isEqualTo("hash-1");
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(cache.get("a@x.io").getPassword()).isEqualTo("hash-2");
+    }
+
+    static UserDetails principal(String email, String password) {
+        return User.withUsername(email).password(password).authorities("USER").build();
+    }
+}
@@ -0,0 +1,119 @@
+package com.threadspire.intern.services;
+
+import com.threadspire.intern.events.BookmarkAddedEvent;
+import com.threadspire.intern.events.BookmarksChangedEvent;
+import com.threadspire.intern.events.ReactionAddedEvent;
+import com.threadspire.intern.events.ReactionsAddedEvent;
+import com.threadspire.intern.events.ThreadCreatedEvent;
+import com.threadspire.intern.events.ThreadForkedEvent;
+import com.threadspire.intern.models.ReactionType;
+import com.threadspire.intern.models.UserDailyActivity;
+import com.threadspire.intern.models.UserReactionStats;
+import com.threadspire.intern.repositories.AnalyticsBatchRepository;
+import com.threadspire.intern.repositories.AnalyticsBatchRepository.StatsDelta;
+import com.threadspire.intern.repositories.UserDailyActivityRepository;
+import com.threadspire.intern.repositories.UserReactionStatsRepository;
+import com.threadspire.intern.repositories.UserStatsRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AnalyticsServiceTests {
+
+    private final AnalyticsBatchRepository batchRepository = mock(AnalyticsBatchRepository.class);
+    private final AnalyticsService analytics = new AnalyticsService(mock(UserStatsRepository.class),
+            mock(UserReactionStatsRepository.class), mock(UserDailyActivityRepository.class), batchRepository);
+
+    @Test
+    void listenersOnlyBufferUntilTheFlush() {
+        analytics.onThreadCreated(new ThreadCreatedEvent(1L, 10L, Set.of(), true));
+        analytics.onBookmarkAdded(new BookmarkAddedEvent(1L, 20L, 10L));
+
+        verifyNoInteractions(batchRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flushWritesOneMergedDeltaPerRollupRow() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        analytics.onThreadCreated(new ThreadCreatedEvent(1L, 10L, Set.of(), true));
+        analytics.onBookmarkAdded(new BookmarkAddedEvent(1L, 20L, 10L));
+        analytics.onBookmarkAdded(new BookmarkAddedEvent(1L, 21L, 10L));
+        analytics.onThreadForked(new ThreadForkedEvent(1L, 2L, 20L, 10L, null));
+        analytics.onReactionAdded(new ReactionAddedEvent(5L, 1L, 20L, 10L, ReactionType.FIRE));
+        analytics.onReactionsAdded(new ReactionsAddedEvent(21L, List.of(
+                new ReactionAddedEvent(5L, 1L, 21L, 10L, ReactionType.FIRE),
+                new ReactionAddedEvent(6L, 1L, 21L, 10L, ReactionType.HEART))));
+
+        analytics.flush();
+
+        ArgumentCaptor<SortedMap<Long, StatsDelta>> stats = ArgumentCaptor.forClass(SortedMap.class);
+        ArgumentCaptor<SortedMap<UserReactionStats.Key, Long>> reactions = ArgumentCaptor.forClass(SortedMap.class);
+        ArgumentCaptor<SortedMap<UserDailyActivity.Key, Long>> activity = ArgumentCaptor.forClass(SortedMap.class);
+        verify(batchRepository).applyDeltas(stats.capture(), reactions.capture(), activity.capture());
+        assertThat(stats.getValue()).containsExactly(Map.entry(10L, new StatsDelta(1, 2, 1)));
+        assertThat(reactions.getValue()).containsExactly(
+                Map.entry(new UserReactionStats.Key(10L, ReactionType.FIRE), 2L),
+                Map.entry(new UserReactionStats.Key(10L, ReactionType.HEART), 1L));
+        assertThat(activity.getValue()).containsExactly(
+                Map.entry(new UserDailyActivity.Key(10L, today), 1L),
+                Map.entry(new UserDailyActivity.Key(20L, today), 3L),
+                Map.entry(new UserDailyActivity.Key(21L, today), 3L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void removedBookmarksComeOffTheOwnersTotalsWithoutCountingAsActivity() {
+        analytics.onBookmarksChanged(new BookmarksChangedEvent(20L, -1, List.of(
+                new BookmarksChangedEvent.ThreadOwner(1L, 10L),
+                new BookmarksChangedEvent.ThreadOwner(2L, 11L),
+                new BookmarksChangedEvent.ThreadOwner(3L, null))));
+
+        analytics.flush();
+
+        ArgumentCaptor<SortedMap<Long, StatsDelta>> stats = ArgumentCaptor.forClass(SortedMap.class);
+        ArgumentCaptor<SortedMap<UserDailyActivity.Key, Long>> activity = ArgumentCaptor.forClass(SortedMap.class);
+        verify(batchRepository).applyDeltas(stats.capture(), any(), activity.capture());
+        assertThat(stats.getValue()).containsExactly(
+                Map.entry(10L, new StatsDelta(0, -1, 0)),
+                Map.entry(11L, new StatsDelta(0, -1, 0)));
+        assertThat(activity.getValue()).isEmpty();
+    }
+
+    @Test
+    void idleFlushWritesNothing() {
+        analytics.onThreadCreated(new ThreadCreatedEvent(1L, 10L, Set.of(), true));
+        analytics.flush();
+        analytics.flush();
+        analytics.flush();
+
+        verify(batchRepository, times(1)).applyDeltas(any(), any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void failedFlushIsRetriedWithTheSameDeltas() {
+        doThrow(new RuntimeException("db down"))
+                .doNothing()
+                .when(batchRepository).applyDeltas(any(), any(), any());
+        analytics.onBookmarkAdded(new BookmarkAddedEvent(1L, 20L, 10L));
+        analytics.onBookmarkAdded(new BookmarkAddedEvent(2L, 20L, 10L));
+
+        analytics.flush();
+        analytics.flush();
+
+        ArgumentCaptor<SortedMap<Long, StatsDelta>> stats = ArgumentCaptor.forClass(SortedMap.class);
+        verify(batchRepository, times(2)).applyDeltas(stats.capture(), any(), any());
+        assertThat(stats.getAllValues().get(1)).containsExactly(Map.entry(10L, new StatsDelta(0, 2, 0)));
+    }
+}
@@ -0,0 +1,134 @@
+package com.threadspire.intern.services;
+
+import com.threadspire.intern.dto.BulkChangeResult;
+import com.threadspire.intern.events.BookmarkAddedEvent;
+import com.threadspire.intern.events.BookmarksChangedEvent;
+import com.threadspire.intern.models.Bookmark;
+import com.threadspire.intern.models.Thread;
+import com.threadspire.intern.models.User;
+import com.threadspire.intern.repositories.BookmarkBatchRepository;
+import com.threadspire.intern.repositories.BookmarkRepository;
+import com.threadspire.intern.repositories.ThreadRepository;
+import com.threadspire.intern.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BookmarkServiceTests {
+
+    private final BookmarkRepository bookmarkRepository = mock(BookmarkRepository.class);
+    private final BookmarkBatchRepository batchRepository = mock(BookmarkBatchRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final ThreadRepository threadRepository = mock(ThreadRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final BookmarkService bookmarkService = new BookmarkService(bookmarkRepository,
+            batchRepository, userRepository, threadRepository, eventPublisher);
+
+    @Test
+    void singleAddInsertsThroughTheConflictTolerantPath() {
+        User user = stubUser();
+        Thread thread = stubThread();
+        Bookmark stored = new Bookmark();
+        when(batchRepository.insertAll(eq(7L), any())).thenReturn(List.of(new BookmarkBatchRepository.Change(2L, 70L)));
+        when(bookmarkRepository.findByUserAndThread(user, thread)).thenReturn(Optional.of(stored));
+
+        assertThat(bookmarkService.addBookmark(7L, 2L)).isSameAs(stored);
+
+        ArgumentCaptor<Long[]> ids = ArgumentCaptor.forClass(Long[].class);
+        verify(batchRepository).insertAll(eq(7L), ids.capture());
+        assertThat(ids.getValue()).containsExactly(2L);
+        verify(eventPublisher).publishEvent(new BookmarkAddedEvent(2L, 7L, 70L));
+        verify(bookmarkRepository, never()).save(any());
+    }
+
+    @Test
+    void singleAddOfAnExistingBookmarkReturnsItWithoutAnEvent() {
+        User user = stubUser();
+        Thread thread = stubThread();
+        Bookmark existing = new Bookmark();
+        // A concurrent duplicate lands here too: the insert skips on conflict instead of failing
+        when(batchRepository.insertAll(eq(7L), any())).thenReturn(List.of());
+        when(bookmarkRepository.findByUserAndThread(user, thread)).thenReturn(Optional.of(existing));
+
+        assertThat(bookmarkService.addBookmark(7L, 2L)).isSameAs(existing);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void bulkAddSendsDistinctIdsOnceAndPublishesOnlyWhatChanged() {
+        when(batchRepository.insertAll(eq(7L), any())).thenReturn(List.of(new BookmarkBatchRepository.Change(2L, 70L)));
+
+        BulkChangeResult result = bookmarkService.addBookmarks(7L, Arrays.asList(1L, 2L, 2L, null, 3L));
+
+        ArgumentCaptor<Long[]> ids = ArgumentCaptor.forClass(Long[].class);
+        verify(batchRepository).insertAll(eq(7L), ids.capture());
+        assertThat(ids.getValue()).containsExactly(1L, 2L, 3L);
+        assertThat(result.getRequested()).isEqualTo(3);
+        assertThat(result.getChanged()).containsExactly(2L);
+
+        ArgumentCaptor<BookmarksChangedEvent> event = ArgumentCaptor.forClass(BookmarksChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().delta()).isEqualTo(1);
+        assertThat(event.getValue().threads()).containsExactly(new BookmarksChangedEvent.ThreadOwner(2L, 70L));
+    }
+
+    @Test
+    void bulkRemoveOfNothingBookmarkedPublishesNothing() {
+        when(batchRepository.deleteAll(eq(7L), any())).thenReturn(List.of());
+
+        BulkChangeResult result = bookmarkService.removeBookmarks(7L, List.of(1L));
+
+        assertThat(result.getChanged()).isEmpty();
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void batchesAreBounded() {
+        List<Long> tooMany = new ArrayList<>(LongStream.rangeClosed(1, BookmarkService.MAX_BULK_SIZE + 1).boxed().toList());
+
+        assertThatThrownBy(() -> bookmarkService.addBookmarks(7L, tooMany))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        assertThatThrownBy(() -> bookmarkService.addBookmarks(7L, List.of()))
+                .isInstanceOf(ResponseStatusException.class);
+        verifyNoInteractions(batchRepository);
+    }
+
+    private User stubUser() {
+        User user = new User();
+        user.setId(7L);
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+        return user;
+    }
+
+    private Thread stubThread() {
+        Thread thread = new Thread();
+        thread.setId(2L);
+        when(threadRepository.findById(2L)).thenReturn(Optional.of(thread));
+        return thread;
+    }
+
+    @Test
+    void unknownUserIsNotFound() {
+        when(batchRepository.insertAll(eq(-1L), any())).thenThrow(new DataIntegrityViolationException("fk"));
+
+        assertThatThrownBy(() -> bookmarkService.addBookmarks(-1L, List.of(1L)))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND));
+    }
+}
@@ -0,0 +1,103 @@
+package com.threadspire.intern.services;
+
+import com.threadspire.intern.dto.ThreadFeedPage;
+import com.threadspire.intern.repositories.CollectionMembershipRepository;
+import com.threadspire.intern.repositories.CollectionMembershipRepository.Member;
+import com.threadspire.intern.repositories.CollectionRepository;
+import com.threadspire.intern.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CollectionServiceTests {
+
+    private final CollectionRepository collectionRepository = mock(CollectionRepository.class);
+    private final CollectionMembershipRepository membershipRepository = mock(CollectionMembershipRepository.class);
+    private final ThreadService threadService = mock(ThreadService.class);
+    private final CollectionService collectionService = new CollectionService(collectionRepository,
+            membershipRepository, mock(UserRepository.class), threadService);
+
+    @BeforeEach
+    void ownsCollection() {
+        when(membershipRepository.lockOwned(1L, 7L)).thenReturn(true);
+    }
+
+    @Test
+    void movePlacesThreadMidwayBetweenNeighbours() {
+        when(membershipRepository.positionOf(1L, 30L)).thenReturn(3072L);
+        when(membershipRepository.positionOf(1L, 10L)).thenReturn(1024L);
+        when(membershipRepository.nextPosition(1L, new Member(10L, 1024L), 30L)).thenReturn(2048L);
+
+        collectionService.moveThread(7L, 1L, 30L, 10L);
+
+        verify(membershipRepository).setPosition(1L, 30L, 1536L);
+        verify(membershipRepository, never()).renumber(anyLong());
+    }
+
+    @Test
+    void moveRenumbersOnlyWhenNeighboursAreAdjacent() {
+        when(membershipRepository.positionOf(1L, 30L)).thenReturn(3072L);
+        when(membershipRepository.positionOf(1L, 10L)).thenReturn(1024L, 1024L);
+        when(membershipRepository.nextPosition(eq(1L), any(), eq(30L))).thenReturn(1025L, 2048L);
+
+        collectionService.moveThread(7L, 1L, 30L, 10L);
+
+        verify(membershipRepository).renumber(1L);
+        verify(membershipRepository).setPosition(1L, 30L, 1536L);
+    }
+
+    @Test
+    void moveToFrontGoesBeforeTheFirstMember() {
+        when(membershipRepository.positionOf(1L, 30L)).thenReturn(3072L);
+        when(membershipRepository.nextPosition(1L, null, 30L)).thenReturn(1024L);
+
+        collectionService.moveThread(7L, 1L, 30L, null);
+
+        verify(membershipRepository).setPosition(1L, 30L, 0L);
+    }
+
+    @Test
+    void moveToEndOfListAppendsAGap() {
+        when(membershipRepository.positionOf(1L, 30L)).thenReturn(1024L);
+        when(membershipRepository.positionOf(1L, 20L)).thenReturn(2048L);
+        when(membershipRepository.nextPosition(1L, new Member(20L, 2048L), 30L)).thenReturn(null);
+
+        collectionService.moveThread(7L, 1L, 30L, 20L);
+
+        verify(membershipRepository).setPosition(1L, 30L, 3072L);
+    }
+
+    @Test
+    void someoneElsesCollectionIsNotFound() {
+        assertThatThrownBy(() -> collectionService.addThreads(8L, 1L, List.of(5L)))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND));
+        verify(membershipRepository, never()).append(anyLong(), any());
+    }
+
+    @Test
+    void membersArePagedByPositionCursor() {
+        when(collectionRepository.existsById(1L)).thenReturn(true);
+        when(membershipRepository.page(1L, null, 3))
+                .thenReturn(List.of(new Member(5L, 1024L), new Member(6L, 2048L), new Member(4L, 3072L)));
+        when(threadService.summariesInOrder(List.of(5L, 6L))).thenReturn(List.of());
+
+        ThreadFeedPage page = collectionService.getThreads(1L, null, 2);
+
+        assertThat(page.getNextCursor()).isNotNull();
+        assertThat(FeedCursor.decodeMember(page.getNextCursor())).isEqualTo(new Member(6L, 2048L));
+
+        collectionService.getThreads(1L, page.getNextCursor(), 2);
+        verify(membershipRepository).page(1L, new Member(6L, 2048L), 3);
+    }
+}
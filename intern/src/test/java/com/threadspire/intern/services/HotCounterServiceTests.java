@@ -0,0 +1,119 @@
+package com.threadspire.intern.services;
+
+import com.threadspire.intern.events.ThreadsChangedEvent;
+import com.threadspire.intern.models.PostReactionCount;
+import com.threadspire.intern.models.ReactionType;
+import com.threadspire.intern.repositories.CounterRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class HotCounterServiceTests {
+
+    private final CounterRepository counterRepository = mock(CounterRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final HotCounterService counters = new HotCounterService(counterRepository, eventPublisher);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void concurrentIncrementsAreFlushedAsOneDeltaPerKey() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            pool.submit(() -> {
+                for (int n = 0; n < 1000; n++) {
+                    counters.incrementForks(1L);
+                    counters.incrementReactions(7L, ReactionType.FIRE);
+                }
+            });
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        counters.incrementBookmarks(2L);
+
+        counters.flush();
+
+        ArgumentCaptor<SortedMap<Long, Long>> forks = ArgumentCaptor.forClass(SortedMap.class);
+        ArgumentCaptor<SortedMap<Long, Long>> bookmarks = ArgumentCaptor.forClass(SortedMap.class);
+        ArgumentCaptor<SortedMap<PostReactionCount.Key, Long>> reactions = ArgumentCaptor.forClass(SortedMap.class);
+        verify(counterRepository).applyDeltas(forks.capture(), bookmarks.capture(), reactions.capture());
+        assertThat(forks.getValue()).containsExactly(Map.entry(1L, 8000L));
+        assertThat(bookmarks.getValue()).containsExactly(Map.entry(2L, 1L));
+        assertThat(reactions.getValue())
+                .containsExactly(Map.entry(new PostReactionCount.Key(7L, ReactionType.FIRE), 8000L));
+    }
+
+    @Test
+    void flushAnnouncesTheThreadsItChanged() {
+        when(counterRepository.applyDeltas(any(), any(), any())).thenReturn(new TreeSet<>(Set.of(1L, 4L)));
+        counters.incrementForks(1L);
+        counters.incrementReactions(7L, ReactionType.FIRE);
+
+        counters.flush();
+
+        verify(eventPublisher).publishEvent(new ThreadsChangedEvent(new TreeSet<>(Set.of(1L, 4L))));
+    }
+
+    @Test
+    void idleFlushWritesNothing() {
+        counters.incrementForks(1L);
+        counters.flush();
+        counters.flush();
+        counters.flush();
+
+        verify(counterRepository, times(1)).applyDeltas(any(), any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void failedFlushIsRetriedWithTheSameDeltas() {
+        when(counterRepository.applyDeltas(any(), any(), any()))
+                .thenThrow(new RuntimeException("db down"))
+                .thenReturn(new TreeSet<>(Set.of(3L)));
+        counters.incrementForks(3L);
+        counters.incrementForks(3L);
+
+        counters.flush();
+        counters.flush();
+
+        ArgumentCaptor<SortedMap<Long, Long>> forks = ArgumentCaptor.forClass(SortedMap.class);
+        verify(counterRepository, times(2)).applyDeltas(forks.capture(), any(), any());
+        assertThat(forks.getAllValues().get(1)).containsExactly(Map.entry(3L, 2L));
+    }
+
+    @Test
+    void failingListenerDoesNotReapplyCommittedDeltas() {
+        when(counterRepository.applyDeltas(any(), any(), any())).thenReturn(new TreeSet<>(Set.of(3L)));
+        doThrow(new RuntimeException("listener failed")).when(eventPublisher).publishEvent(any(Object.class));
+        counters.incrementForks(3L);
+
+        counters.flush();
+        counters.flush();
+
+        verify(counterRepository, times(1)).applyDeltas(any(), any(), any());
+    }
+
+    @Test
+    void reconcileFlushesPendingDeltasFirst() {
+        when(counterRepository.applyDeltas(any(), any(), any())).thenReturn(new TreeSet<>(Set.of(3L)));
+        counters.incrementForks(3L);
+
+        counters.reconcile();
+
+        InOrder order = inOrder(counterRepository);
+        order.verify(counterRepository).applyDeltas(any(), any(), any());
+        order.verify(counterRepository).reconcile();
+    }
+}
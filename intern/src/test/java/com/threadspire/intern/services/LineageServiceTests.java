@@ -0,0 +1,90 @@
+package com.threadspire.intern.services;
+
+import com.threadspire.intern.dto.LineageNode;
+import com.threadspire.intern.dto.LineagePage;
+import com.threadspire.intern.models.Thread;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.sql.init.mode=never"
+})
+@Import(LineageService.class)
+class LineageServiceTests {
+
+    @Autowired
+    private LineageService lineageService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void ancestorsAreListedNearestFirst() {
+        Long root = thread("root", 0);
+        Long child = fork(root, "child", 0);
+        Long grandchild = fork(child, "grandchild", 0);
+
+        assertThat(lineageService.ancestors(grandchild))
+                .extracting(LineageNode::getThreadId, LineageNode::getDepth)
+                .containsExactly(
+                        tuple(child, 1),
+                        tuple(root, 2));
+        assertThat(lineageService.ancestors(root)).isEmpty();
+    }
+
+    @Test
+    void descendantsAreCountedAndPagedAcrossGenerations() {
+        Long root = thread("root", 0);
+        List<Long> children = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            children.add(fork(root, "child " + i, 0));
+        }
+        Long grandchild = fork(children.get(0), "grandchild", 0);
+
+        assertThat(lineageService.countDescendants(root, null)).isEqualTo(4);
+        assertThat(lineageService.countDescendants(root, 1)).isEqualTo(3);
+
+        LineagePage first = lineageService.descendants(root, null, null, 3);
+        assertThat(first.getItems()).extracting(LineageNode::getThreadId).containsExactlyElementsOf(children);
+        assertThat(first.getNextCursor()).isNotNull();
+
+        LineagePage second = lineageService.descendants(root, null, first.getNextCursor(), 3);
+        assertThat(second.getItems()).extracting(LineageNode::getThreadId).containsExactly(grandchild);
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    @Test
+    void mostForkedDescendantComesFromAnyGeneration() {
+        Long root = thread("root", 0);
+        Long child = fork(root, "child", 1);
+        Long grandchild = fork(child, "grandchild", 7);
+
+        assertThat(lineageService.mostForkedDescendant(root))
+                .map(LineageNode::getThreadId)
+                .contains(grandchild);
+        assertThat(lineageService.mostForkedDescendant(grandchild)).isEmpty();
+    }
+
+    private Long thread(String title, int forkCount) {
+        Thread thread = new Thread();
+        thread.setTitle(title);
+        thread.setForkCount(forkCount);
+        return entityManager.persistAndFlush(thread).getId();
+    }
+
+    private Long fork(Long parent, String title, int forkCount) {
+        Long child = thread(title, forkCount);
+        lineageService.recordFork(parent, child);
+        return child;
+    }
+}
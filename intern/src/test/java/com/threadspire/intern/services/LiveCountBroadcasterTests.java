@@ -0,0 +1,199 @@
+package com.threadspire.intern.services;
+
+import com.threadspire.intern.dto.ThreadCounts;
+import com.threadspire.intern.events.ThreadsChangedEvent;
+import com.threadspire.intern.models.ReactionType;
+import com.threadspire.intern.repositories.CounterRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class LiveCountBroadcasterTests {
+
+    private final CounterRepository counterRepository = mock(CounterRepository.class);
+    private final Map<Long, ThreadCounts> stored = new HashMap<>();
+    // One sender thread and a 1 ms write timeout
+    private final LiveCountBroadcaster broadcaster = new LiveCountBroadcaster(counterRepository, 60_000, 3, 1, 1);
+
+    LiveCountBroadcasterTests() {
+        when(counterRepository.findCounts(any())).thenAnswer(invocation -> {
+            Map<Long, ThreadCounts> found = new HashMap<>();
+            for (Long id : invocation.<Collection<Long>>getArgument(0)) {
+                if (stored.containsKey(id)) {
+                    found.put(id, stored.get(id));
+                }
+            }
+            return found;
+        });
+    }
+
+    @AfterEach
+    void close() {
+        broadcaster.close();
+    }
+
+    @Test
+    void changedThreadsAreReadOnceAndSentWithTheirRevision() throws InterruptedException {
+        RecordingEmitter emitter = subscribe(1L);
+        stored.put(1L, counts(1L, 7, 2));
+
+        broadcaster.onThreadsChanged(new ThreadsChangedEvent(Set.of(1L, 2L)));
+        broadcaster.onThreadsChanged(new ThreadsChangedEvent(Set.of(1L)));
+        broadcaster.broadcast();
+
+        ThreadCounts frame = emitter.frames.poll(5, TimeUnit.SECONDS);
+        assertThat(frame).isNotNull();
+        assertThat(frame.getRevision()).isEqualTo(7);
+        assertThat(frame.getForks()).isEqualTo(2);
+        assertThat(frame.getReactions()).isEqualTo(Map.of(10L, Map.of(ReactionType.HEART, 3L)));
+        // Thread 2 has no subscriber, so it is not read
+        verify(counterRepository).findCounts(List.of(1L));
+
+        broadcaster.broadcast();
+        verifyNoMoreInteractions(counterRepository);
+        assertThat(emitter.frames.poll(50, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void changesBeforeSubscribingAreNotTracked() {
+        broadcaster.onThreadsChanged(new ThreadsChangedEvent(Set.of(1L)));
+        subscribe(1L);
+
+        broadcaster.broadcast();
+
+        verifyNoInteractions(counterRepository);
+    }
+
+    @Test
+    void failedReadIsRetriedNextInterval() throws InterruptedException {
+        RecordingEmitter emitter = subscribe(1L);
+        stored.put(1L, counts(1L, 3, 0));
+        doThrow(new RuntimeException("database down")).doReturn(Map.of(1L, stored.get(1L)))
+                .when(counterRepository).findCounts(any());
+
+        broadcaster.onThreadsChanged(new ThreadsChangedEvent(Set.of(1L)));
+        broadcaster.broadcast();
+        broadcaster.broadcast();
+
+        assertThat(emitter.frames.poll(5, TimeUnit.SECONDS)).isNotNull();
+    }
+
+    @Test
+    void failedWriteDropsTheSubscriber() throws InterruptedException {
+        RecordingEmitter emitter = subscribe(1L);
+        emitter.broken = true;
+        stored.put(1L, counts(1L, 1, 0));
+
+        broadcaster.onThreadsChanged(new ThreadsChangedEvent(Set.of(1L)));
+        broadcaster.broadcast();
+
+        assertThat(emitter.failed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(broadcaster.subscriberCount()).isZero();
+    }
+
+    @Test
+    void stalledWriteIsEvictedWithoutHoldingUpOtherSubscribers() throws InterruptedException {
+        BlockingEmitter stalled = new BlockingEmitter();
+        broadcaster.register(1L, stalled);
+        RecordingEmitter healthy = subscribe(2L);
+        stored.put(1L, counts(1L, 1, 0));
+        stored.put(2L, counts(2L, 1, 0));
+
+        broadcaster.onThreadsChanged(new ThreadsChangedEvent(Set.of(1L)));
+        broadcaster.broadcast();
+        // The only sender thread is now stuck writing to the first subscriber
+        assertThat(stalled.writing.await(5, TimeUnit.SECONDS)).isTrue();
+        java.lang.Thread.sleep(20);
+
+        broadcaster.onThreadsChanged(new ThreadsChangedEvent(Set.of(2L)));
+        broadcaster.broadcast();
+
+        assertThat(healthy.frames.poll(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(broadcaster.subscriberCount()).isEqualTo(1);
+
+        // Once the blocked write returns, the evicted connection is closed
+        stalled.release.countDown();
+        assertThat(stalled.failed.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void subscribersAreCapped() {
+        subscribe(1L);
+        subscribe(2L);
+        subscribe(3L);
+
+        assertThatThrownBy(() -> subscribe(4L))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+    }
+
+    private RecordingEmitter subscribe(Long threadId) {
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.register(threadId, emitter);
+        return emitter;
+    }
+
+    private static ThreadCounts counts(Long threadId, long revision, long forks) {
+        return new ThreadCounts(threadId, revision, forks, 0, Map.of(10L, Map.of(ReactionType.HEART, 3L)));
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        final BlockingQueue<ThreadCounts> frames = new LinkedBlockingQueue<>();
+        final CountDownLatch failed = new CountDownLatch(1);
+        volatile boolean broken;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (broken) {
+                throw new IOException("connection reset");
+            }
+            builder.build().stream()
+                    .map(d -> d.getData())
+                    .filter(ThreadCounts.class::isInstance)
+                    .map(ThreadCounts.class::cast)
+                    .forEach(frames::add);
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            failed.countDown();
+            super.completeWithError(ex);
+        }
+    }
+
+    /** A client that stops reading: every write blocks until released. */
+    private static class BlockingEmitter extends RecordingEmitter {
+        final CountDownLatch writing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            writing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                java.lang.Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            super.send(builder);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.threadspire.intern.services;
+
+import com.threadspire.intern.dto.ReactionRequest;
+import com.threadspire.intern.events.ReactionsAddedEvent;
+import com.threadspire.intern.models.ReactionType;
+import com.threadspire.intern.repositories.ReactionBatchRepository;
+import com.threadspire.intern.services.ReactionIngestService.Admission;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ReactionIngestServiceTests {
+
+    private final ReactionBatchRepository batchRepository = mock(ReactionBatchRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private ReactionIngestService ingest;
+
+    @AfterEach
+    void stop() {
+        if (ingest.isRunning()) {
+            ingest.stop();
+        }
+    }
+
+    @Test
+    void repeatedTapsCollapseIntoOneRowPerUserAndPost() {
+        start(100, 100, 300);
+        when(batchRepository.insertForUsers(any(), any(), any())).thenReturn(List.of(
+                new ReactionBatchRepository.Added(1L, 10L, ReactionType.HEART, 100L, 9L),
+                new ReactionBatchRepository.Added(2L, 10L, ReactionType.HEART, 100L, 9L)));
+
+        assertThat(ingest.submit(1L, request(10L, ReactionType.HEART))).isEqualTo(Admission.ACCEPTED);
+        assertThat(ingest.submit(1L, request(10L, ReactionType.FIRE))).isEqualTo(Admission.ACCEPTED);
+        assertThat(ingest.submit(2L, request(10L, ReactionType.HEART))).isEqualTo(Admission.ACCEPTED);
+
+        ArgumentCaptor<Long[]> users = ArgumentCaptor.forClass(Long[].class);
+        ArgumentCaptor<String[]> types = ArgumentCaptor.forClass(String[].class);
+        verify(batchRepository, timeout(2000)).insertForUsers(users.capture(), any(), types.capture());
+        assertThat(users.getValue()).containsExactly(1L, 2L);
+        assertThat(types.getValue()).containsExactly("HEART", "HEART");
+
+        // One event per user, so per-user analytics stay correct
+        verify(eventPublisher, timeout(2000).times(2)).publishEvent(any(ReactionsAddedEvent.class));
+    }
+
+    @Test
+    void fullQueueRejectsAndShutdownDrainsWhatWasAccepted() {
+        // Neither the size nor the latency bound is reached before stop()
+        start(2, 100, 60_000);
+
+        assertThat(ingest.submit(1L, request(10L, ReactionType.HEART))).isEqualTo(Admission.ACCEPTED);
+        assertThat(ingest.submit(1L, request(11L, ReactionType.HEART))).isEqualTo(Admission.ACCEPTED);
+        assertThat(ingest.submit(1L, request(12L, ReactionType.HEART))).isEqualTo(Admission.FULL);
+        assertThat(registry.counter("threadspire.reactions.ingest.rejected").count()).isEqualTo(1);
+        verifyNoInteractions(batchRepository);
+
+        ingest.stop();
+
+        ArgumentCaptor<Long[]> posts = ArgumentCaptor.forClass(Long[].class);
+        verify(batchRepository).insertForUsers(any(), posts.capture(), any());
+        assertThat(posts.getValue()).containsExactly(10L, 11L);
+        assertThat(ingest.submit(1L, request(13L, ReactionType.HEART))).isEqualTo(Admission.STOPPED);
+    }
+
+    @Test
+    void batchesAreCutAtTheSizeBound() {
+        start(100, 2, 60_000);
+
+        ingest.submit(1L, request(10L, ReactionType.HEART));
+        ingest.submit(1L, request(11L, ReactionType.HEART));
+        ingest.submit(1L, request(12L, ReactionType.HEART));
+
+        // The first two go without waiting for the latency bound
+        ArgumentCaptor<Long[]> posts = ArgumentCaptor.forClass(Long[].class);
+        verify(batchRepository, timeout(2000)).insertForUsers(any(), posts.capture(), any());
+        assertThat(posts.getValue()).containsExactly(10L, 11L);
+        assertThat(ingest.pendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void failedBatchIsRetriedThenDropped() {
+        start(100, 100, 1);
+        when(batchRepository.insertForUsers(any(), any(), any()))
+                .thenThrow(new QueryTimeoutException("down"))
+                .thenReturn(List.of());
+
+        ingest.submit(1L, request(10L, ReactionType.HEART));
+        verify(batchRepository, timeout(2000).times(2)).insertForUsers(any(), any(), any());
+        assertThat(registry.counter("threadspire.reactions.ingest.dropped").count()).isZero();
+
+        reset(batchRepository);
+        when(batchRepository.insertForUsers(any(), any(), any())).thenThrow(new QueryTimeoutException("down"));
+        ingest.submit(1L, request(11L, ReactionType.HEART));
+        verify(batchRepository, timeout(2000).times(ReactionIngestService.MAX_ATTEMPTS)).insertForUsers(any(), any(), any());
+        ingest.stop();
+        assertThat(registry.counter("threadspire.reactions.ingest.dropped").count()).isEqualTo(1);
+        assertThat(ingest.pendingCount()).isZero();
+    }
+
+    private void start(int capacity, int batchSize, long maxDelayMs) {
+        ingest = new ReactionIngestService(batchRepository, eventPublisher, TransactionOperations.withoutTransaction(),
+                registry, capacity, batchSize, maxDelayMs);
+        ingest.start();
+    }
+
+    private static ReactionRequest request(long postId, ReactionType type) {
+        ReactionRequest request = new ReactionRequest();
+        request.setPostId(postId);
+        request.setType(type);
+        return request;
+    }
+}
@@ -0,0 +1,102 @@
+package com.threadspire.intern.services;
+
+import com.threadspire.intern.dto.BulkChangeResult;
+import com.threadspire.intern.dto.ReactionRequest;
+import com.threadspire.intern.events.ReactionAddedEvent;
+import com.threadspire.intern.events.ReactionsAddedEvent;
+import com.threadspire.intern.models.ReactionType;
+import com.threadspire.intern.repositories.PostRepository;
+import com.threadspire.intern.repositories.ReactionBatchRepository;
+import com.threadspire.intern.repositories.ReactionRepository;
+import com.threadspire.intern.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ReactionServiceTests {
+
+    private final ReactionBatchRepository batchRepository = mock(ReactionBatchRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final ReactionService reactionService = new ReactionService(mock(ReactionRepository.class),
+            batchRepository, mock(UserRepository.class), mock(PostRepository.class), eventPublisher);
+
+    @Test
+    void bulkAddSendsEachPostOnceWithItsFirstTypeAndPublishesOnlyWhatWasAdded() {
+        when(batchRepository.insertAll(eq(7L), any(), any())).thenReturn(List.of(
+                new ReactionBatchRepository.Added(7L, 2L, ReactionType.IDEA, 20L, 70L)));
+
+        BulkChangeResult result = reactionService.addReactions(7L, List.of(
+                request(1L, ReactionType.FIRE), request(2L, ReactionType.IDEA), request(1L, ReactionType.HEART)));
+
+        ArgumentCaptor<Long[]> postIds = ArgumentCaptor.forClass(Long[].class);
+        ArgumentCaptor<String[]> types = ArgumentCaptor.forClass(String[].class);
+        verify(batchRepository).insertAll(eq(7L), postIds.capture(), types.capture());
+        assertThat(postIds.getValue()).containsExactly(1L, 2L);
+        assertThat(types.getValue()).containsExactly("FIRE", "IDEA");
+        assertThat(result.getRequested()).isEqualTo(2);
+        assertThat(result.getChanged()).containsExactly(2L);
+
+        verify(eventPublisher).publishEvent(new ReactionsAddedEvent(7L, List.of(
+                new ReactionAddedEvent(2L, 20L, 7L, 70L, ReactionType.IDEA))));
+    }
+
+    @Test
+    void bulkAddOfReactionsAlreadyPresentPublishesNothing() {
+        when(batchRepository.insertAll(eq(7L), any(), any())).thenReturn(List.of());
+
+        BulkChangeResult result = reactionService.addReactions(7L, List.of(request(1L, ReactionType.FIRE)));
+
+        assertThat(result.getChanged()).isEmpty();
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void reactionsWithoutATypeAreRejected() {
+        assertThatThrownBy(() -> reactionService.addReactions(7L, List.of(request(1L, null))))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        verifyNoInteractions(batchRepository);
+    }
+
+    @Test
+    void batchesAreBounded() {
+        List<ReactionRequest> tooMany = new ArrayList<>();
+        for (long postId = 1; postId <= ReactionService.MAX_BULK_SIZE + 1; postId++) {
+            tooMany.add(request(postId, ReactionType.FIRE));
+        }
+
+        assertThatThrownBy(() -> reactionService.addReactions(7L, tooMany))
+                .isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> reactionService.addReactions(7L, List.of()))
+                .isInstanceOf(ResponseStatusException.class);
+        verifyNoInteractions(batchRepository);
+    }
+
+    @Test
+    void unknownUserIsNotFound() {
+        when(batchRepository.insertAll(eq(-1L), any(), any())).thenThrow(new DataIntegrityViolationException("fk"));
+
+        assertThatThrownBy(() -> reactionService.addReactions(-1L, List.of(request(1L, ReactionType.FIRE))))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND));
+    }
+
+    private static ReactionRequest request(long postId, ReactionType type) {
+        ReactionRequest request = new ReactionRequest();
+        request.setPostId(postId);
+        request.setType(type);
+        return request;
+    }
+}
@@ -0,0 +1,71 @@
+package com.threadspire.intern.services;
+
+import com.threadspire.intern.events.ThreadCreatedEvent;
+import com.threadspire.intern.events.ThreadForkedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TagBitmapIndexTests {
+
+    private final TagBitmapIndex index = new TagBitmapIndex(null);
+
+    @BeforeEach
+    void seed() {
+        created(1, true, "java", "concurrency");
+        created(2, true, "java", "concurrency", "beginner");
+        created(3, true, "java");
+        created(4, true, "rust", "concurrency");
+        created(5, false, "java", "concurrency");
+    }
+
+    @Test
+    void implicitAndWithExclusion() {
+        assertThat(index.find("java AND concurrency NOT beginner", null, null, 10).ids()).containsExactly(5L, 1L);
+        assertThat(index.find("java concurrency NOT beginner", null, null, 10).ids()).containsExactly(5L, 1L);
+    }
+
+    @Test
+    void orAndParenthesesAndUnaryNot() {
+        assertThat(index.find("(rust OR beginner) concurrency", null, null, 10).ids()).containsExactly(4L, 2L);
+        assertThat(index.find("NOT java", null, null, 10).ids()).containsExactly(4L);
+        assertThat(index.find("java or rust", true, null, 10).total()).isEqualTo(4);
+    }
+
+    @Test
+    void pagesAreNewestFirstBelowTheCursor() {
+        TagBitmapIndex.Match first = index.find("java", null, null, 2);
+        assertThat(first.ids()).containsExactly(5L, 3L);
+        assertThat(first.total()).isEqualTo(4);
+        assertThat(index.find("java", null, 3L, 2).ids()).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void forksInheritTagsButStayUnpublished() {
+        index.onThreadForked(new ThreadForkedEvent(4L, 6L, 9L, 9L, Set.of("rust", "concurrency")));
+
+        assertThat(index.find("rust", null, null, 10).ids()).containsExactly(6L, 4L);
+        assertThat(index.find("rust", true, null, 10).ids()).containsExactly(4L);
+    }
+
+    @Test
+    void quotedTagsAreNeverKeywords() {
+        created(7, true, "OR");
+        assertThat(index.find("\"OR\"", null, null, 10).ids()).containsExactly(7L);
+    }
+
+    @Test
+    void malformedExpressionsAreRejected() {
+        assertThatThrownBy(() -> index.find("java AND", null, null, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> index.find("(java", null, null, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> index.find("  ", null, null, 10)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void created(long id, boolean published, String... tags) {
+        index.onThreadCreated(new ThreadCreatedEvent(id, 1L, Set.of(tags), published));
+    }
+}
@@ -0,0 +1,74 @@
+package com.threadspire.intern.services;
+
+import com.threadspire.intern.models.Tag;
+import com.threadspire.intern.repositories.TagBatchRepository;
+import com.threadspire.intern.repositories.TagRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TagResolverTests {
+
+    private final TagRepository tagRepository = mock(TagRepository.class);
+    private final TagBatchRepository tagBatchRepository = mock(TagBatchRepository.class);
+    private final TagResolver resolver = new TagResolver(tagRepository, tagBatchRepository, 100);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void idsOfARolledBackInsertAreNotCached() {
+        // First attempt inserts "java" as id 7 and rolls back; the retry inserts it again as id 8
+        when(tagRepository.findByNameIn(any()))
+                .thenReturn(List.of(), List.of(new Tag(7L, "java")))
+                .thenReturn(List.of(), List.of(new Tag(8L, "java")));
+
+        inTransaction(false, () -> assertThat(resolver.resolve(List.of("java"))).containsExactly(new Tag(7L, "java")));
+        Set<Tag> retried = inTransaction(true, () -> resolver.resolve(List.of("java")));
+
+        assertThat(retried).containsExactly(new Tag(8L, "java"));
+        verify(tagBatchRepository, times(2)).insertMissing(Set.of("java"));
+    }
+
+    @Test
+    void committedIdsAreServedFromTheCache() {
+        when(tagRepository.findByNameIn(any())).thenReturn(List.of(new Tag(3L, "go")));
+
+        inTransaction(true, () -> resolver.resolve(List.of("go")));
+        Set<Tag> cached = inTransaction(true, () -> resolver.resolve(List.of(" go ")));
+
+        assertThat(cached).containsExactly(new Tag(3L, "go"));
+        verify(tagRepository, times(1)).findByNameIn(any());
+        verifyNoInteractions(tagBatchRepository);
+    }
+
+    private static <T> T inTransaction(boolean commit, Supplier<T> work) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            T result = work.get();
+            for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+                if (commit) {
+                    sync.afterCommit();
+                }
+                sync.afterCompletion(commit ? TransactionSynchronization.STATUS_COMMITTED
+                        : TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+            return result;
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.threadspire.intern.services;
+
+import com.threadspire.intern.dto.ThreadDetail;
+import com.threadspire.intern.models.*;
+import com.threadspire.intern.models.Thread;
+import com.threadspire.intern.repositories.SegmentBodyBatchRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({ThreadDetailService.class, SegmentStore.class, SegmentBodyBatchRepository.class})
+class ThreadDetailServiceTests {
+
+    @Autowired
+    private ThreadDetailService threadDetailService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void statementCountDoesNotDependOnSegmentsOrReactions() {
+        Long small = createThread("small", 1, 0, 1);
+        Long large = createThread("large", 12, 5, 4);
+
+        long smallStatements = statementsFor(small);
+        long largeStatements = statementsFor(large);
+
+        assertThat(largeStatements).isEqualTo(smallStatements);
+        assertThat(smallStatements).isEqualTo(5);
+    }
+
+    @Test
+    void segmentsAreOrderedAndReactionsCountedByType() {
+        Long id = createThread("ordered", 3, 2, 2);
+        entityManager.clear();
+
+        ThreadDetail detail = threadDetailService.findDetail(id).orElseThrow();
+
+        assertThat(detail.getSegments()).extracting("position").containsExactly(0, 1, 2);
+        assertThat(detail.getSegments()).extracting("content").containsExactly("segment 0", "segment 1", "segment 2");
+        assertThat(detail.getTags()).hasSize(2);
+        assertThat(detail.getSegments().get(0).getReactions())
+                .containsEntry(ReactionType.FIRE, 2L)
+                .containsEntry(ReactionType.IDEA, 2L);
+    }
+
+    @Test
+    void missingThreadIsEmpty() {
+        assertThat(threadDetailService.findDetail(-1L)).isEmpty();
+    }
+
+    private long statementsFor(Long threadId) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        threadDetailService.findDetail(threadId).orElseThrow();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Long createThread(String title, int segments, int reactionsPerType, int tagCount) {
+        User user = new User();
+        user.setEmail(title + "@example.com");
+        user.setPassword("secret");
+        user.setName(title);
+        entityManager.persist(user);
+
+        Set<Tag> tags = new HashSet<>();
+        for (int i = 0; i < tagCount; i++) {
+            Tag tag = new Tag();
+            tag.setName(title + "-tag-" + i);
+            tags.add(entityManager.persist(tag));
+        }
+
+        Thread thread = new Thread();
+        thread.setTitle(title);
+        thread.setUser(user);
+        thread.setPublished(true);
+        thread.setTags(tags);
+        entityManager.persist(thread);
+
+        // A user reacts to a segment at most once, so each reaction needs its own reader
+        List<User> readers = new ArrayList<>();
+        for (int r = 0; r < reactionsPerType * 2; r++) {
+            User reader = new User();
+            reader.setEmail(title + "-reader-" + r + "@example.com");
+            reader.setPassword("secret");
+            entityManager.persist(reader);
+            readers.add(reader);
+        }
+
+        // Persist in reverse so ordering has to come from the query
+        for (int position = segments - 1; position >= 0; position--) {
+            byte[] raw = ("segment " + position).getBytes(StandardCharsets.UTF_8);
+            SegmentBody body = SegmentStore.encode(SegmentStore.hash(raw), raw);
+            // Bodies are content-addressed: threads with the same segment text share one row
+            if (entityManager.find(SegmentBody.class, body.getHash()) == null) {
+                entityManager.persist(body);
+            }
+
+            Post post = new Post();
+            post.setBodyHash(body.getHash());
+            post.setPosition(position);
+            post.setThread(thread);
+            entityManager.persist(post);
+
+            ReactionType[] types = {ReactionType.FIRE, ReactionType.IDEA};
+            for (int t = 0; t < types.length; t++) {
+                ReactionType type = types[t];
+                for (int r = 0; r < reactionsPerType; r++) {
+                    Reaction reaction = new Reaction();
+                    reaction.setType(type);
+                    reaction.setUser(readers.get(t * reactionsPerType + r));
+                    reaction.setPost(post);
+                    entityManager.persist(reaction);
+                }
+                if (reactionsPerType > 0) {
+                    // Tallies normally written by HotCounterService on flush
+                    entityManager.persist(new PostReactionCount(post.getId(), type, reactionsPerType));
+                }
+            }
+        }
+        entityManager.flush();
+        return thread.getId();
+    }
+}
@@ -0,0 +1,91 @@
+package com.threadspire.intern.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.threadspire.intern.models.SegmentBody;
+import com.threadspire.intern.repositories.ThreadExportRepository;
+import com.threadspire.intern.repositories.ThreadExportRepository.Position;
+import com.threadspire.intern.repositories.ThreadExportRepository.Row;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class ThreadExportServiceTests {
+    private static final Instant UPDATED = Instant.parse("2025-06-01T12:00:00Z");
+
+    private final ThreadExportRepository repository = mock(ThreadExportRepository.class);
+    // Defaults to numeric timestamps; the service must write ISO-8601 regardless
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    // Overlap of one minute, three threads per page
+    private final ThreadExportService exportService = new ThreadExportService(repository, objectMapper, 60_000, 3);
+
+    @Test
+    void segmentRowsAreGroupedIntoOneLinePerThread() throws Exception {
+        when(repository.findPage(any(), eq(7L), isNull(), eq(3))).thenReturn(List.of(
+                row(1L, new String[]{"java"}, 0, "first"),
+                row(1L, new String[]{"java"}, 1, "second"),
+                row(2L, new String[0], null, null),
+                row(3L, new String[]{"a", "b"}, 0, "only")));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(UPDATED, 7L, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(3);
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertThat(first.get("id").asLong()).isEqualTo(1L);
+        assertThat(first.get("segments")).extracting(JsonNode::asText).containsExactly("first", "second");
+        assertThat(first.get("updatedAt").asText()).isEqualTo("2025-06-01T12:00:00Z");
+        assertThat(objectMapper.readTree(lines.get(1)).get("segments")).isEmpty();
+        assertThat(objectMapper.readTree(lines.get(2)).get("tags")).extracting(JsonNode::asText).containsExactly("a", "b");
+    }
+
+    @Test
+    void fullPagesAreFollowedFromTheLastThreadExported() throws Exception {
+        when(repository.findPage(any(), any(), isNull(), eq(3))).thenReturn(List.of(
+                row(1L, new String[0], null, null), row(2L, new String[0], null, null), row(3L, new String[0], null, null)));
+        when(repository.findPage(any(), any(), eq(new Position(UPDATED, 3L)), eq(3))).thenReturn(List.of(
+                row(4L, new String[0], null, null)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(null, 7L, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8).lines()).hasSize(4);
+        verify(repository, times(2)).findPage(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void sinceIsWidenedByTheOverlapWindow() throws Exception {
+        exportService.export(UPDATED, 7L, new ByteArrayOutputStream());
+
+        verify(repository).findPage(UPDATED.minusSeconds(60), 7L, null, 3);
+    }
+
+    @Test
+    void emptyExportWritesNothing() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(null, 7L, out);
+
+        assertThat(out.size()).isZero();
+    }
+
+    private static Row row(long threadId, String[] tags, Integer position, String text) {
+        SegmentBody body = null;
+        if (text != null) {
+            byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+            body = SegmentStore.encode(SegmentStore.hash(raw), raw);
+        }
+        return new Row(threadId, "thread " + threadId, true, 7L, 0, 0, UPDATED, UPDATED, tags, position, body);
+    }
+}
@@ -0,0 +1,65 @@
+package com.threadspire.intern.services;
+
+import com.threadspire.intern.events.ThreadCreatedEvent;
+import com.threadspire.intern.events.ThreadsChangedEvent;
+import com.threadspire.intern.repositories.ThreadRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class ThreadVersionServiceTests {
+
+    private final ThreadRepository threadRepository = mock(ThreadRepository.class);
+    private final ThreadVersionService versions = new ThreadVersionService(threadRepository, 100, 60_000, 5_000);
+
+    @Test
+    void threadETagIsCachedUntilTheThreadChanges() {
+        when(threadRepository.findRevisionById(1L)).thenReturn(Optional.of(3L), Optional.of(4L));
+
+        assertThat(versions.threadETag(1L)).contains("\"r3\"");
+        assertThat(versions.threadETag(1L)).contains("\"r3\"");
+        verify(threadRepository, times(1)).findRevisionById(1L);
+
+        versions.onThreadsChanged(new ThreadsChangedEvent(Set.of(1L)));
+        assertThat(versions.threadETag(1L)).contains("\"r4\"");
+    }
+
+    @Test
+    void detailReadAtARevisionGetsThatRevisionsETag() {
+        when(threadRepository.findRevisionById(1L)).thenReturn(Optional.of(3L));
+
+        assertThat(versions.threadETag(1L)).contains(versions.revisionETag(3));
+        assertThat(versions.revisionETag(2)).isNotEqualTo(versions.revisionETag(3));
+    }
+
+    @Test
+    void missingThreadHasNoETag() {
+        when(threadRepository.findRevisionById(9L)).thenReturn(Optional.empty());
+        assertThat(versions.threadETag(9L)).isEmpty();
+    }
+
+    @Test
+    void feedETagChangesOnCreateAndFlush() {
+        String initial = versions.feedETag(10_000);
+        assertThat(versions.feedETag(10_000)).isEqualTo(initial);
+
+        versions.onThreadCreated(new ThreadCreatedEvent(1L, 2L, Set.of(), true));
+        String afterCreate = versions.feedETag(10_000);
+        assertThat(afterCreate).isNotEqualTo(initial);
+
+        versions.onThreadsChanged(new ThreadsChangedEvent(Set.of(1L)));
+        assertThat(versions.feedETag(10_000)).isNotEqualTo(afterCreate);
+    }
+
+    @Test
+    void feedETagExpiresWithItsTimeWindow() {
+        // Writes through another instance never bump this one's version
+        String etag = versions.feedETag(10_000);
+        assertThat(versions.feedETag(14_999)).isEqualTo(etag);
+        assertThat(versions.feedETag(15_000)).isNotEqualTo(etag);
+    }
+}
@@ -0,0 +1,148 @@
+package com.threadspire.intern.services;
+
+import com.threadspire.intern.dto.TrendingThread;
+import com.threadspire.intern.events.BookmarkAddedEvent;
+import com.threadspire.intern.events.ReactionAddedEvent;
+import com.threadspire.intern.events.ThreadForkedEvent;
+import com.threadspire.intern.models.ReactionType;
+import com.threadspire.intern.models.TrendingScore;
+import com.threadspire.intern.repositories.ThreadRepository;
+import com.threadspire.intern.repositories.TrendingScoreBatchRepository;
+import com.threadspire.intern.repositories.TrendingScoreRepository;
+import com.threadspire.intern.repositories.projections.ThreadDetailHeaderView;
+import com.threadspire.intern.repositories.projections.ThreadTagView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TrendingServiceTests {
+
+    private final ThreadRepository threadRepository = mock(ThreadRepository.class);
+    private final TrendingScoreRepository trendingScoreRepository = mock(TrendingScoreRepository.class);
+    private final TrendingScoreBatchRepository batchRepository = mock(TrendingScoreBatchRepository.class);
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-03-01T12:00:00Z"));
+    private final TrendingService trending =
+            new TrendingService(threadRepository, trendingScoreRepository, batchRepository, clock, 24, 2);
+
+    @BeforeEach
+    void threads() {
+        for (long id : new long[]{1, 2, 3, 99}) {
+            ThreadDetailHeaderView header = header(id, id != 99);
+            ThreadTagView tag = tag(id, "java");
+            when(threadRepository.findDetailHeaderById(id)).thenReturn(Optional.of(header));
+            when(threadRepository.findTagNamesByThreadIds(List.of(id))).thenReturn(List.of(tag));
+        }
+        when(trendingScoreRepository.findAll()).thenReturn(List.of());
+    }
+
+    @Test
+    void eventsAreWeightedAndRankedHighestFirst() {
+        react(1L);
+        trending.onBookmarkAdded(new BookmarkAddedEvent(2L, 5L, 6L));
+        trending.onThreadForked(new ThreadForkedEvent(3L, 4L, 5L, 6L, null));
+
+        List<TrendingThread> top = trending.trending(null, 10);
+
+        assertThat(top).extracting(TrendingThread::getThreadId).containsExactly(3L, 2L);
+        assertThat(top.get(0).getScore()).isCloseTo(TrendingService.FORK_WEIGHT, within(1e-6));
+        assertThat(trending.trending("java", 10)).hasSize(2);
+        assertThat(trending.trending("rust", 10)).isEmpty();
+    }
+
+    @Test
+    void scoresHalveEveryHalfLifeAndOlderActivityLosesToNewer() {
+        for (int i = 0; i < 4; i++) {
+            react(1L);
+        }
+        clock.advance(Duration.ofHours(24));
+        assertThat(trending.trending(null, 1).get(0).getScore()).isCloseTo(2.0, within(1e-6));
+
+        // Four reactions a day ago weigh as much as two now; three now win
+        for (int i = 0; i < 3; i++) {
+            react(2L);
+        }
+        assertThat(trending.trending(null, 2)).extracting(TrendingThread::getThreadId).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void unpublishedThreadsNeverTrend() {
+        react(99L);
+        assertThat(trending.trending(null, 10)).isEmpty();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void checkpointWaitsForRestoreThenSavesRankedScores() {
+        react(1L);
+        trending.checkpoint();
+        verify(batchRepository, never()).replaceAll(any());
+
+        trending.restore();
+        trending.checkpoint();
+
+        ArgumentCaptor<Collection<TrendingScore>> saved = ArgumentCaptor.forClass(Collection.class);
+        verify(batchRepository).replaceAll(saved.capture());
+        assertThat(saved.getValue()).singleElement()
+                .satisfies(s -> assertThat(s.getScore()).isCloseTo(1.0, within(1e-6)));
+    }
+
+    private void react(Long threadId) {
+        trending.onReactionAdded(new ReactionAddedEvent(10L, threadId, 5L, 6L, ReactionType.FIRE));
+    }
+
+    private static ThreadDetailHeaderView header(Long id, boolean published) {
+        ThreadDetailHeaderView view = mock(ThreadDetailHeaderView.class);
+        when(view.getId()).thenReturn(id);
+        when(view.getTitle()).thenReturn("thread " + id);
+        when(view.getPublished()).thenReturn(published);
+        return view;
+    }
+
+    private static ThreadTagView tag(Long threadId, String name) {
+        ThreadTagView view = mock(ThreadTagView.class);
+        when(view.getThreadId()).thenReturn(threadId);
+        when(view.getName()).thenReturn(name);
+        return view;
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -10,7 +10,7 @@ export const useThreads = () => {
     const fetchThreads = async () => {
       try {
         const response = await threadsApi.getAll();
-        setThreads(response.data);
+        setThreads(response.data.items);
       } catch (error) {
         console.error('Failed to load threads:', error);
       } finally {